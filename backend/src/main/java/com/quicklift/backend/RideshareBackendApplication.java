@@ -3,9 +3,11 @@ package com.quicklift.backend;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ComponentScan(basePackages = "com.quicklift.backend")
+@EnableScheduling
 public class RideshareBackendApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,42 @@
+package com.quicklift.backend.config;
+
+import com.quicklift.backend.model.DriverStatus;
+import com.quicklift.backend.model.TripStatus;
+import com.quicklift.backend.repository.DriverRepository;
+import com.quicklift.backend.repository.TripRepository;
+import com.quicklift.backend.service.DriverLocationIndex;
+import com.quicklift.backend.service.OpenTripRequestBook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DispatchIndexInitializer implements ApplicationListener<ApplicationReadyEvent> {
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private DriverLocationIndex driverLocationIndex;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private OpenTripRequestBook openTripRequestBook;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        try {
+            driverRepository.findByStatus(DriverStatus.ONLINE).forEach(driverLocationIndex::track);
+        } catch (Exception e) {
+            System.err.println("[DispatchIndexInitializer] Skipping driver index warm-up: " + e.getMessage());
+        }
+        try {
+            tripRepository.findByStatus(TripStatus.REQUESTED).forEach(openTripRequestBook::open);
+        } catch (Exception e) {
+            System.err.println("[DispatchIndexInitializer] Skipping open request warm-up: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.quicklift.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-instance store. Keys are bounded and expire once idle for the longest policy period, by which time their
+ * TAT has necessarily fallen behind the clock and a fresh key behaves identically.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitStore implements RateLimitStore {
+    private final Cache<String, AtomicLong> arrivals;
+    private final Clock clock;
+
+    @Autowired
+    public InMemoryRateLimitStore(RateLimitProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    InMemoryRateLimitStore(RateLimitProperties properties, Clock clock) {
+        this.arrivals = Caffeine.newBuilder()
+            .maximumSize(properties.getMaxKeys())
+            .expireAfterAccess(properties.longestPeriod())
+            .build();
+        this.clock = clock;
+    }
+
+    @Override
+    public long tryAcquire(String key, long emissionIntervalMillis, long burstToleranceMillis) {
+        AtomicLong tat = arrivals.get(key, ignored -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = clock.millis();
+            long current = tat.get();
+            long start = Math.max(current, now);
+            if (start - now > burstToleranceMillis) {
+                return start - burstToleranceMillis - now;
+            }
+            if (tat.compareAndSet(current, start + emissionIntervalMillis)) {
+                return 0L;
+            }
+        }
+    }
+
+    long size() {
+        arrivals.cleanUp();
+        return arrivals.estimatedSize();
+    }
+}
@@ -1,6 +1,6 @@
 package com.quicklift.backend.config;
 
-import com.quicklift.backend.service.UserService;
+import com.quicklift.backend.service.AuthenticatedUserCache;
 import com.quicklift.backend.util.JwtTokenUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -15,12 +15,13 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     @Autowired
-    private UserService userService;
+    private AuthenticatedUserCache authenticatedUserCache;
 
     @Autowired
     private JwtTokenUtil jwtTokenUtil;
@@ -31,44 +32,38 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        String username = null;
         String jwtToken = null;
 
         // JWT Token is in the form "Bearer token". Remove Bearer word and get only the Token
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
             jwtToken = requestTokenHeader.substring(7);
-            try {
-                username = jwtTokenUtil.extractUsername(jwtToken);
-            } catch (Exception e) {
-                logger.warn("Unable to get JWT Token or JWT Token has expired");
-            }
         } else if (request.getParameter("access_token") != null) {
             jwtToken = request.getParameter("access_token");
-            try {
-                username = jwtTokenUtil.extractUsername(jwtToken);
-            } catch (Exception e) {
-                logger.warn("Unable to get JWT Token or JWT Token has expired");
-            }
         } else {
             logger.debug("No bearer token found on request");
         }
 
-        // Once we get the token validate it.
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var userDetails = userService.findByUsername(username);
-            
-            if (userDetails.isPresent() && jwtTokenUtil.validateToken(jwtToken)) {
-                UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
-                        userDetails.get(), null, userDetails.get().getAuthorities());
-                usernamePasswordAuthenticationToken
-                        .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                // After setting the Authentication in the context, we specify
-                // that the current user is authenticated. So it passes the
-                // Spring Security Configurations successfully.
-                SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+        // One signature check per distinct token; repeat requests are answered from the verified-token cache
+        if (jwtToken != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Optional<JwtTokenUtil.VerifiedToken> verified = jwtTokenUtil.verify(jwtToken);
+            if (verified.isEmpty()) {
+                logger.warn("Unable to get JWT Token or JWT Token has expired");
+            } else {
+                var userDetails = authenticatedUserCache.findByUsername(verified.get().username());
+
+                if (userDetails.isPresent()) {
+                    UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
+                            userDetails.get(), null, userDetails.get().getAuthorities());
+                    usernamePasswordAuthenticationToken
+                            .setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                    // After setting the Authentication in the context, we specify
+                    // that the current user is authenticated. So it passes the
+                    // Spring Security Configurations successfully.
+                    SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
+                }
             }
         }
         chain.doFilter(request, response);
     }
-} 
+}
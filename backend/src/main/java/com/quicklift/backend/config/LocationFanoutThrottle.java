@@ -0,0 +1,250 @@
+package com.quicklift.backend.config;
+
+import com.quicklift.backend.util.LocationFrameCodec;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Per-subscriber downsampling of trip location topics on the client outbound channel. Each subscription gets at
+ * most one frame per interval (by the subscriber's role); frames arriving in between overwrite a one-slot mailbox
+ * that is delivered when the interval ends, so intermediate points are dropped but the latest one always arrives.
+ * A binary subscriber that missed frames gets the mailbox point as a key frame, since its deltas no longer chain.
+ * <p>
+ * Mailbox frames are sent from a scheduler thread, outside the broker's per-session ordered path, so each
+ * subscription keeps at most one frame in the outbound channel at a time: a frame that comes due while the previous
+ * one is still queued or being written waits in the mailbox and is sent once that one has been handled.
+ */
+@Component
+public class LocationFanoutThrottle implements ExecutorChannelInterceptor {
+    private static final Logger logger = LoggerFactory.getLogger(LocationFanoutThrottle.class);
+    private static final Pattern LOCATION_TOPIC = Pattern.compile("/topic/trip/[^/]+/location(/binary)?");
+
+    private final MessageChannel clientOutboundChannel;
+    private final long riderIntervalMillis;
+    private final long adminIntervalMillis;
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "location-fanout-throttle");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Set while the scheduler re-sends a mailbox frame so it is not throttled a second time
+    private final ThreadLocal<Boolean> delivering = new ThreadLocal<>();
+
+    public LocationFanoutThrottle(
+        @Lazy @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+        @Value("${app.location.fanout.rider-interval-ms:1000}") long riderIntervalMillis,
+        @Value("${app.location.fanout.admin-interval-ms:5000}") long adminIntervalMillis
+    ) {
+        this.clientOutboundChannel = clientOutboundChannel;
+        this.riderIntervalMillis = riderIntervalMillis;
+        this.adminIntervalMillis = adminIntervalMillis;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (destination == null || accessor.getSessionId() == null || !LOCATION_TOPIC.matcher(destination).matches()) {
+            return;
+        }
+        long interval = isAdmin(event.getUser()) ? adminIntervalMillis : riderIntervalMillis;
+        if (interval > 0) {
+            subscriptions.put(key(accessor.getSessionId(), accessor.getSubscriptionId()),
+                new Subscription(interval, destination.endsWith("/binary")));
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        subscriptions.remove(key(accessor.getSessionId(), accessor.getSubscriptionId()));
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String prefix = event.getSessionId() + ":";
+        subscriptions.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (subscriptions.isEmpty() || delivering.get() != null) {
+            return message;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders());
+        if (sessionId == null || subscriptionId == null) {
+            return message;
+        }
+        String key = key(sessionId, subscriptionId);
+        Subscription subscription = subscriptions.get(key);
+        return subscription != null ? subscription.offer(key, message, System.currentTimeMillis()) : message;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        // A frame that never reached the executor is not going to be handled
+        if (!sent || ex != null) {
+            completed(message);
+        }
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        completed(message);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    int subscriptionCount() {
+        return subscriptions.size();
+    }
+
+    private void completed(Message<?> message) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders());
+        if (sessionId == null || subscriptionId == null || subscriptions.isEmpty()) {
+            return;
+        }
+        String key = key(sessionId, subscriptionId);
+        Subscription subscription = subscriptions.get(key);
+        if (subscription != null && subscription.completed()) {
+            deliver(key, subscription);
+        }
+    }
+
+    private void deliver(String key, Subscription subscription) {
+        Message<?> message = subscription.drain(System.currentTimeMillis());
+        if (message == null || subscriptions.get(key) != subscription) {
+            return;
+        }
+        delivering.set(Boolean.TRUE);
+        try {
+            clientOutboundChannel.send(message);
+        } catch (RuntimeException e) {
+            logger.debug("Dropped throttled location for {}: {}", key, e.getMessage());
+        } finally {
+            delivering.remove();
+        }
+    }
+
+    private static boolean isAdmin(Principal user) {
+        return user instanceof Authentication authentication && authentication.getAuthorities().stream()
+            .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+
+    private static String key(String sessionId, String subscriptionId) {
+        return sessionId + ":" + subscriptionId;
+    }
+
+    /**
+     * Throttle state of one subscription; all access is under its monitor.
+     */
+    private final class Subscription {
+        private final long intervalMillis;
+        private final boolean binary;
+        private final LocationFrameCodec.Decoder decoder;
+        private long lastSentAt = Long.MIN_VALUE / 2;
+        private Message<?> mailbox;
+        private LocationFrameCodec.Point mailboxPoint;
+        private boolean skipped;
+        // A frame of this subscription is in the outbound channel; the next one waits until it is handled
+        private boolean inFlight;
+        private boolean deliveryDue;
+
+        private Subscription(long intervalMillis, boolean binary) {
+            this.intervalMillis = intervalMillis;
+            this.binary = binary;
+            this.decoder = binary ? new LocationFrameCodec.Decoder() : null;
+        }
+
+        private synchronized Message<?> offer(String key, Message<?> message, long now) {
+            LocationFrameCodec.Point point = null;
+            if (binary && message.getPayload() instanceof byte[] frame) {
+                // Track the full stream so the position is known even for frames this subscriber never gets
+                point = decoder.accept(frame);
+            }
+            if (mailbox == null && !inFlight && now - lastSentAt >= intervalMillis) {
+                lastSentAt = now;
+                inFlight = true;
+                boolean rekey = skipped;
+                skipped = false;
+                return rekey ? asKeyFrame(message, point) : message;
+            }
+            if (mailbox != null) {
+                skipped = true;
+            } else {
+                scheduler.schedule(() -> deliver(key, this), Math.max(0, lastSentAt + intervalMillis - now),
+                    TimeUnit.MILLISECONDS);
+            }
+            mailbox = message;
+            mailboxPoint = point;
+            return null;
+        }
+
+        private synchronized Message<?> drain(long now) {
+            Message<?> message = mailbox;
+            if (message == null) {
+                return null;
+            }
+            if (inFlight) {
+                deliveryDue = true;
+                return null;
+            }
+            boolean rekey = skipped;
+            mailbox = null;
+            skipped = false;
+            lastSentAt = now;
+            inFlight = true;
+            return rekey ? asKeyFrame(message, mailboxPoint) : message;
+        }
+
+        // True when a mailbox frame came due while the finished frame was in flight
+        private synchronized boolean completed() {
+            boolean due = deliveryDue;
+            inFlight = false;
+            deliveryDue = false;
+            return due;
+        }
+
+        private Message<?> asKeyFrame(Message<?> message, LocationFrameCodec.Point point) {
+            if (!binary || !(message.getPayload() instanceof byte[] frame)) {
+                return message;
+            }
+            if (point == null) {
+                // The stream itself has a gap; the client will resync on the next key frame
+                return message;
+            }
+            byte[] key = LocationFrameCodec.encodeKey(LocationFrameCodec.sequence(frame), point);
+            return MessageBuilder.createMessage(key, message.getHeaders());
+        }
+    }
+}
@@ -2,77 +2,109 @@ package com.quicklift.backend.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.quicklift.backend.dto.ApiError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.time.Instant;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * GCRA rate limiting driven by {@link RateLimitProperties}; state lives in the configured {@link RateLimitStore}.
+ * Rejections are counted as {@code rate.limit.rejections}, tagged by policy.
+ */
 @Component
 public class RateLimitFilter extends OncePerRequestFilter {
-    private static final long WINDOW_MILLIS = 60_000;
-    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
     private final ObjectMapper objectMapper;
+    private final RateLimitStore rateLimitStore;
+    private final boolean enabled;
+    private final List<CompiledPolicy> policies = new ArrayList<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
 
-    public RateLimitFilter(ObjectMapper objectMapper) {
+    public RateLimitFilter(ObjectMapper objectMapper, RateLimitStore rateLimitStore,
+                           RateLimitProperties properties, MeterRegistry meterRegistry) {
         this.objectMapper = objectMapper;
+        this.rateLimitStore = rateLimitStore;
+        this.enabled = properties.isEnabled();
+        for (RateLimitProperties.Policy policy : properties.getPolicies()) {
+            if (policy.getName() == null || policy.getLimit() <= 0 || policy.getPeriod() == null
+                || policy.getPeriod().toMillis() <= 0) {
+                throw new IllegalStateException("Rate limit policy needs a name, a positive limit and a period");
+            }
+            policies.add(new CompiledPolicy(policy, Counter.builder("rate.limit.rejections")
+                .description("Requests rejected by the rate limiter")
+                .tag("policy", policy.getName())
+                .register(meterRegistry)));
+        }
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        int limit = limitFor(request.getRequestURI());
-        if (limit > 0 && !allow(request, limit)) {
-            response.setStatus(429);
-            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-            Object requestId = request.getAttribute(RequestIdFilter.REQUEST_ID_ATTRIBUTE);
-            objectMapper.writeValue(response.getOutputStream(),
-                new ApiError(429, "RATE_LIMITED", "Too many requests. Please try again shortly.",
-                    requestId != null ? requestId.toString() : null, null));
-            return;
+        CompiledPolicy policy = enabled ? policyFor(request.getRequestURI()) : null;
+        if (policy != null) {
+            long waitMillis = acquire(policy, request);
+            if (waitMillis > 0) {
+                policy.rejections().increment();
+                response.setStatus(429);
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString((waitMillis + 999) / 1000));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                Object requestId = request.getAttribute(RequestIdFilter.REQUEST_ID_ATTRIBUTE);
+                objectMapper.writeValue(response.getOutputStream(),
+                    new ApiError(429, "RATE_LIMITED", "Too many requests. Please try again shortly.",
+                        requestId != null ? requestId.toString() : null, null));
+                return;
+            }
         }
         filterChain.doFilter(request, response);
     }
 
-    private int limitFor(String path) {
-        if (path.contains("/auth/login") || path.contains("/auth/register")) {
-            return 10;
-        }
-        if (path.contains("/auth/check-username") || path.contains("/auth/check-email")) {
-            return 30;
-        }
-        if (path.contains("/locations/") || path.contains("/trips/estimate")) {
-            return 60;
+    private CompiledPolicy policyFor(String path) {
+        for (CompiledPolicy policy : policies) {
+            for (String pattern : policy.policy().getPaths()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return policy;
+                }
+            }
         }
-        return 0;
+        return null;
     }
 
-    private boolean allow(HttpServletRequest request, int limit) {
-        String key = request.getRemoteAddr() + ":" + request.getRequestURI();
-        long now = Instant.now().toEpochMilli();
-        Bucket bucket = buckets.compute(key, (ignored, existing) -> {
-            if (existing == null || now - existing.windowStartedAt > WINDOW_MILLIS) {
-                return new Bucket(now);
-            }
-            return existing;
-        });
-        return bucket.count.incrementAndGet() <= limit;
+    private long acquire(CompiledPolicy compiled, HttpServletRequest request) {
+        RateLimitProperties.Policy policy = compiled.policy();
+        String username = currentUsername();
+        int limit = policy.limitFor(username);
+        if (limit <= 0) {
+            return 0L;
+        }
+        String key = policy.getKey() == RateLimitProperties.KeyType.USER && username != null
+            ? policy.getName() + ":u:" + username
+            : policy.getName() + ":ip:" + request.getRemoteAddr();
+        long interval = Math.max(1L, policy.getPeriod().toMillis() / limit);
+        long tolerance = interval * (policy.burstFor(limit) - 1L);
+        return rateLimitStore.tryAcquire(key, interval, tolerance);
     }
 
-    private static class Bucket {
-        private final long windowStartedAt;
-        private final AtomicInteger count = new AtomicInteger();
-
-        private Bucket(long windowStartedAt) {
-            this.windowStartedAt = windowStartedAt;
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+            || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
         }
+        return authentication.getName();
     }
+
+    private record CompiledPolicy(RateLimitProperties.Policy policy, Counter rejections) {}
 }
@@ -0,0 +1,85 @@
+package com.quicklift.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rate limit policies under {@code app.rate-limit}. The first policy whose path patterns match a request applies.
+ * A policy admits {@code limit} requests per {@code period}, with bursts of up to {@code burst} (defaults to
+ * {@code limit}); USER-keyed policies count per authenticated user and fall back to the client address.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private String store = "memory";
+    private int maxKeys = 100_000;
+    private List<Policy> policies = new ArrayList<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getStore() { return store; }
+    public void setStore(String store) { this.store = store; }
+
+    public int getMaxKeys() { return maxKeys; }
+    public void setMaxKeys(int maxKeys) { this.maxKeys = maxKeys; }
+
+    public List<Policy> getPolicies() { return policies; }
+    public void setPolicies(List<Policy> policies) { this.policies = policies; }
+
+    public Duration longestPeriod() {
+        return policies.stream().map(Policy::getPeriod).max(Duration::compareTo).orElse(Duration.ofMinutes(1));
+    }
+
+    public enum KeyType {
+        IP,
+        USER
+    }
+
+    public static class Policy {
+        private String name;
+        private List<String> paths = new ArrayList<>();
+        private int limit;
+        private Duration period = Duration.ofMinutes(1);
+        private int burst;
+        private KeyType key = KeyType.IP;
+        private Map<String, Integer> userLimits = new HashMap<>();
+
+        public int limitFor(String username) {
+            Integer override = username != null ? userLimits.get(username) : null;
+            return override != null ? override : limit;
+        }
+
+        public int burstFor(int limit) {
+            return burst > 0 ? burst : limit;
+        }
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public List<String> getPaths() { return paths; }
+        public void setPaths(List<String> paths) { this.paths = paths; }
+
+        public int getLimit() { return limit; }
+        public void setLimit(int limit) { this.limit = limit; }
+
+        public Duration getPeriod() { return period; }
+        public void setPeriod(Duration period) { this.period = period; }
+
+        public int getBurst() { return burst; }
+        public void setBurst(int burst) { this.burst = burst; }
+
+        public KeyType getKey() { return key; }
+        public void setKey(KeyType key) { this.key = key; }
+
+        public Map<String, Integer> getUserLimits() { return userLimits; }
+        public void setUserLimits(Map<String, Integer> userLimits) { this.userLimits = userLimits; }
+    }
+}
@@ -0,0 +1,14 @@
+package com.quicklift.backend.config;
+
+/**
+ * Shared state for the GCRA limiter. Each key holds a theoretical arrival time (TAT); a request is admitted when
+ * the TAT is no further ahead of now than {@code burstToleranceMillis}, and then advances it by
+ * {@code emissionIntervalMillis}. Implementations must make the check-and-advance atomic.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Returns 0 when the request is admitted, otherwise the milliseconds until it would be.
+     */
+    long tryAcquire(String key, long emissionIntervalMillis, long burstToleranceMillis);
+}
@@ -0,0 +1,57 @@
+package com.quicklift.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Cluster-wide store on Redis or any server speaking its protocol and Lua scripting (Valkey, KeyDB, ...).
+ * The GCRA step runs as one script against the server clock, so every node sees the same TAT.
+ * If the server is unreachable requests are admitted rather than failing the API.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "redis")
+public class RedisRateLimitStore implements RateLimitStore {
+    private static final Logger logger = LoggerFactory.getLogger(RedisRateLimitStore.class);
+    private static final String KEY_PREFIX = "quicklift:rate:";
+
+    private static final DefaultRedisScript<Long> GCRA = new DefaultRedisScript<>("""
+        local interval = tonumber(ARGV[1])
+        local tolerance = tonumber(ARGV[2])
+        local time = redis.call('TIME')
+        local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+        local tat = tonumber(redis.call('GET', KEYS[1]))
+        if tat == nil or tat < now then
+            tat = now
+        end
+        if tat - now > tolerance then
+            return tat - tolerance - now
+        end
+        local next = tat + interval
+        redis.call('SET', KEYS[1], next, 'PX', next - now)
+        return 0
+        """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisRateLimitStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public long tryAcquire(String key, long emissionIntervalMillis, long burstToleranceMillis) {
+        try {
+            Long wait = redisTemplate.execute(GCRA, List.of(KEY_PREFIX + key),
+                Long.toString(emissionIntervalMillis), Long.toString(burstToleranceMillis));
+            return wait != null ? wait : 0L;
+        } catch (Exception e) {
+            logger.warn("Rate limit store unavailable, admitting request: {}", e.getMessage());
+            return 0L;
+        }
+    }
+}
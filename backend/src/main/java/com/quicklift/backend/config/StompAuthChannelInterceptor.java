@@ -0,0 +1,74 @@
+package com.quicklift.backend.config;
+
+import com.quicklift.backend.util.JwtTokenUtil;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Authenticates a STOMP session once, at CONNECT, and binds the result as the session principal.
+ * Later frames only compare the token expiry stored in the session attributes against the clock.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+    static final String AUTHORIZATION_ATTRIBUTE = "Authorization";
+    static final String EXPIRES_AT_ATTRIBUTE = "tokenExpiresAt";
+
+    private final JwtTokenUtil jwtTokenUtil;
+
+    public StompAuthChannelInterceptor(JwtTokenUtil jwtTokenUtil) {
+        this.jwtTokenUtil = jwtTokenUtil;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        Map<String, Object> session = accessor.getSessionAttributes();
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            authenticate(accessor, session);
+        } else if (session != null && session.get(EXPIRES_AT_ATTRIBUTE) instanceof Long expiresAt
+            && accessor.getCommand() != StompCommand.DISCONNECT
+            && System.currentTimeMillis() >= expiresAt) {
+            throw new AccessDeniedException("Session token expired; reconnect with a fresh token");
+        }
+        return message;
+    }
+
+    private void authenticate(StompHeaderAccessor accessor, Map<String, Object> session) {
+        String header = accessor.getFirstNativeHeader(AUTHORIZATION_ATTRIBUTE);
+        if (header == null && session != null && session.get(AUTHORIZATION_ATTRIBUTE) instanceof String handshakeHeader) {
+            header = handshakeHeader;
+        }
+        if (header == null || !header.startsWith("Bearer ")) {
+            return;
+        }
+        Optional<JwtTokenUtil.VerifiedToken> verified = jwtTokenUtil.verify(header.substring(7));
+        if (verified.isEmpty()) {
+            return;
+        }
+        List<GrantedAuthority> authorities = verified.get().roles().stream()
+            .<GrantedAuthority>map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+            .toList();
+        accessor.setUser(new UsernamePasswordAuthenticationToken(verified.get().username(), null, authorities));
+        if (session != null) {
+            session.put(EXPIRES_AT_ATTRIBUTE, verified.get().expiresAt().toEpochMilli());
+            // The raw token is not needed after CONNECT
+            session.remove(AUTHORIZATION_ATTRIBUTE);
+        }
+    }
+}
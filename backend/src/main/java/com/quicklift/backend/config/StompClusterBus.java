@@ -0,0 +1,127 @@
+package com.quicklift.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+import java.util.UUID;
+
+/**
+ * Cluster mode for the in-process simple broker. Every /topic message handed to the local broker is also
+ * published on a Redis channel; the other nodes replay it into their own broker channel, marked with its origin
+ * so it is not published again. Delivery is at-most-once, like the simple broker itself.
+ */
+@Component
+@ConditionalOnProperty(name = "app.websocket.broker.mode", havingValue = "cluster")
+public class StompClusterBus implements ChannelInterceptor, MessageListener {
+    static final String ORIGIN_HEADER = "quicklift-cluster-origin";
+    private static final Logger logger = LoggerFactory.getLogger(StompClusterBus.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    private final MessageChannel brokerChannel;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private RedisMessageListenerContainer listenerContainer;
+
+    public StompClusterBus(
+        StringRedisTemplate redisTemplate,
+        RedisConnectionFactory connectionFactory,
+        @Lazy @Qualifier("brokerChannel") MessageChannel brokerChannel,
+        ObjectMapper objectMapper,
+        @Value("${app.websocket.broker.cluster-channel:quicklift:stomp}") String channel
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.brokerChannel = brokerChannel;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    @PostConstruct
+    public void start() {
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws Exception {
+        if (listenerContainer != null) {
+            listenerContainer.destroy();
+        }
+    }
+
+    @Override
+    public org.springframework.messaging.Message<?> preSend(org.springframework.messaging.Message<?> message,
+                                                           MessageChannel messageChannel) {
+        MessageHeaders headers = message.getHeaders();
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        if (destination != null && destination.startsWith("/topic/")
+            && SimpMessageHeaderAccessor.getMessageType(headers) == SimpMessageType.MESSAGE
+            && headers.get(ORIGIN_HEADER) == null
+            && message.getPayload() instanceof byte[] payload) {
+            // Set as a MimeType by the message converters, but a String when built by hand
+            Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+            publish(new ClusterFrame(nodeId, destination, contentType != null ? contentType.toString() : null, payload));
+        }
+        return message;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            ClusterFrame frame = objectMapper.readValue(message.getBody(), ClusterFrame.class);
+            if (nodeId.equals(frame.origin())) {
+                return;
+            }
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setDestination(frame.destination());
+            if (frame.contentType() != null) {
+                accessor.setContentType(MimeType.valueOf(frame.contentType()));
+            }
+            accessor.setHeader(ORIGIN_HEADER, frame.origin());
+            brokerChannel.send(MessageBuilder.createMessage(frame.payload(), accessor.getMessageHeaders()));
+        } catch (Exception e) {
+            logger.warn("Dropping cluster frame: {}", e.getMessage());
+        }
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    private void publish(ClusterFrame frame) {
+        try {
+            redisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(frame));
+        } catch (Exception e) {
+            // Local subscribers still get the message; remote ones miss it, as if the node had dropped it
+            logger.warn("Cluster publish to {} failed: {}", frame.destination(), e.getMessage());
+        }
+    }
+
+    record ClusterFrame(String origin, String destination, String contentType, byte[] payload) {}
+}
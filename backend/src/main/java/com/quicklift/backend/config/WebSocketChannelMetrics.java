@@ -0,0 +1,112 @@
+package com.quicklift.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics for the STOMP client channels: {@code websocket.channel.queue} and {@code websocket.channel.active}
+ * gauges per pooled executor, a {@code websocket.channel.dispatch} timer per handler invocation, and
+ * {@code websocket.sessions.slow.closed} for sessions dropped by the send buffer/time limits.
+ */
+@Component
+public class WebSocketChannelMetrics implements WebSocketHandlerDecoratorFactory {
+    private final MeterRegistry meterRegistry;
+    private final Counter slowSessionsClosed;
+
+    public WebSocketChannelMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.slowSessionsClosed = Counter.builder("websocket.sessions.slow.closed")
+            .description("WebSocket sessions closed for exceeding the send buffer or send time limit")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Registers the gauges for {@code executor} and returns the interceptor that times dispatch on it.
+     */
+    public ExecutorChannelInterceptor monitor(String channel, ThreadPoolTaskExecutor executor) {
+        Gauge.builder("websocket.channel.queue", executor, WebSocketChannelMetrics::queueDepth)
+            .description("Messages waiting for a channel executor thread")
+            .tag("channel", channel)
+            .register(meterRegistry);
+        Gauge.builder("websocket.channel.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+            .description("Channel executor threads currently dispatching")
+            .tag("channel", channel)
+            .register(meterRegistry);
+        return monitor(channel);
+    }
+
+    /**
+     * Returns the interceptor that times dispatch, for executors without a pool or queue to observe.
+     */
+    public ExecutorChannelInterceptor monitor(String channel) {
+        Timer dispatch = Timer.builder("websocket.channel.dispatch")
+            .description("Time spent handling one message on a channel executor")
+            .tag("channel", channel)
+            .register(meterRegistry);
+        return new DispatchTimer(dispatch);
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                // The session decorator closes with SESSION_NOT_RELIABLE when a client cannot keep up
+                if (CloseStatus.SESSION_NOT_RELIABLE.equals(closeStatus)) {
+                    slowSessionsClosed.increment();
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    private static double queueDepth(ThreadPoolTaskExecutor executor) {
+        try {
+            ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+            return pool.getQueue().size();
+        } catch (IllegalStateException e) {
+            // Not initialized yet
+            return 0;
+        }
+    }
+
+    private static final class DispatchTimer implements ExecutorChannelInterceptor {
+        private final Timer timer;
+        private final ThreadLocal<Long> startedAt = new ThreadLocal<>();
+
+        private DispatchTimer(Timer timer) {
+            this.timer = timer;
+        }
+
+        @Override
+        public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+            startedAt.set(System.nanoTime());
+            return message;
+        }
+
+        @Override
+        public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+            Long start = startedAt.get();
+            if (start != null) {
+                startedAt.remove();
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -11,37 +11,103 @@ import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.Message;
-import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.simp.config.ChannelRegistration;
-import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
-import org.springframework.messaging.support.ChannelInterceptor;
-import org.springframework.messaging.support.MessageHeaderAccessor;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.context.SecurityContextHolder;
-import com.quicklift.backend.util.JwtTokenUtil;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import io.jsonwebtoken.Claims;
-import java.util.List;
-import java.util.ArrayList;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Autowired
-    private JwtTokenUtil jwtTokenUtil;
+    private StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
+    @Autowired
+    private ObjectProvider<StompClusterBus> stompClusterBus;
+
+    @Autowired
+    private WebSocketChannelMetrics webSocketChannelMetrics;
+
+    @Autowired
+    private LocationFanoutThrottle locationFanoutThrottle;
 
     @Value("${app.cors.allowed-origins:http://localhost:5173,http://localhost:3000}")
     private String allowedOrigins;
 
+    // simple (in-process), relay (external STOMP broker) or cluster (in-process, fanned out over Redis)
+    @Value("${app.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${app.websocket.broker.relay-host:localhost}")
+    private String relayHost;
+
+    @Value("${app.websocket.broker.relay-port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.broker.relay-login:guest}")
+    private String relayLogin;
+
+    @Value("${app.websocket.broker.relay-passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${app.websocket.broker.relay-virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${app.websocket.channel.inbound-pool-size:16}")
+    private int inboundPoolSize;
+
+    @Value("${app.websocket.channel.inbound-queue-capacity:10000}")
+    private int inboundQueueCapacity;
+
+    @Value("${app.websocket.channel.outbound-pool-size:16}")
+    private int outboundPoolSize;
+
+    @Value("${app.websocket.channel.outbound-queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${app.websocket.channel.virtual-threads:false}")
+    private boolean virtualThreads;
+
+    @Value("${app.websocket.transport.send-time-limit-ms:10000}")
+    private int sendTimeLimitMillis;
+
+    @Value("${app.websocket.transport.send-buffer-size-kb:512}")
+    private int sendBufferSizeKb;
+
+    @Value("${app.websocket.transport.message-size-limit-kb:64}")
+    private int messageSizeLimitKb;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        // Topic for broadcasting messages from server to clients
-        registry.enableSimpleBroker("/topic"); 
+        switch (brokerMode) {
+            case "simple" -> registry.enableSimpleBroker("/topic");
+            case "relay" -> {
+                // Client sessions log in with the same broker account; auth is already done at CONNECT
+                var relay = registry.enableStompBrokerRelay("/topic")
+                        .setRelayHost(relayHost)
+                        .setRelayPort(relayPort)
+                        .setClientLogin(relayLogin)
+                        .setClientPasscode(relayPasscode)
+                        .setSystemLogin(relayLogin)
+                        .setSystemPasscode(relayPasscode);
+                if (!relayVirtualHost.isBlank()) {
+                    relay.setVirtualHost(relayVirtualHost);
+                }
+            }
+            case "cluster" -> {
+                registry.enableSimpleBroker("/topic");
+                registry.configureBrokerChannel().interceptors(stompClusterBus.getObject());
+            }
+            default -> throw new IllegalStateException("Unknown app.websocket.broker.mode: " + brokerMode);
+        }
+        // Keeps each session's frames in publish order on the outbound pool; location deltas depend on it
+        registry.setPreservePublishOrder(true);
         // Prefix for messages bound for @MessageMapping-annotated methods
         registry.setApplicationDestinationPrefixes("/app");
     }
@@ -57,32 +123,45 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
-        registration.interceptors(new ChannelInterceptor() {
-            @Override
-            public Message<?> preSend(Message<?> message, MessageChannel channel) {
-                StompHeaderAccessor accessor =
-                        MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
-                if (accessor != null) {
-                    Object authAttr = accessor.getSessionAttributes() != null ? accessor.getSessionAttributes().get("Authorization") : null;
-                    if (authAttr instanceof String authHeader && authHeader.startsWith("Bearer ")) {
-                        String jwt = authHeader.substring(7);
-                        String username = jwtTokenUtil.extractUsername(jwt);
-                        if (username != null && jwtTokenUtil.validateToken(jwt)) {
-                            // Extract roles from JWT
-                            List<GrantedAuthority> authorities = new ArrayList<>();
-                            for (String role : jwtTokenUtil.extractRoles(jwt)) {
-                                authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
-                            }
-                            UsernamePasswordAuthenticationToken authentication =
-                                    new UsernamePasswordAuthenticationToken(username, null, authorities);
-                            accessor.setUser(authentication);
-                            SecurityContextHolder.getContext().setAuthentication(authentication);
-                        }
-                    }
-                }
-                return message;
-            }
-        });
+        registration.interceptors(stompAuthChannelInterceptor,
+                channelExecutor(registration, "inbound", inboundPoolSize, inboundQueueCapacity));
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(locationFanoutThrottle,
+                channelExecutor(registration, "outbound", outboundPoolSize, outboundQueueCapacity));
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // A session whose unsent frames exceed the buffer, or whose send blocks past the time limit, is closed
+        registration.setSendTimeLimit(sendTimeLimitMillis)
+                .setSendBufferSizeLimit(sendBufferSizeKb * 1024)
+                .setMessageSizeLimit(messageSizeLimitKb * 1024)
+                .addDecoratorFactory(webSocketChannelMetrics);
+    }
+
+    // Platform threads: fixed pool with a bounded queue; once it is full the sending thread runs the message itself,
+    // slowing that sender down rather than rejecting messages for every session. Virtual threads: one per message,
+    // nothing queued. Returns the interceptor that times dispatch on the executor.
+    private ExecutorChannelInterceptor channelExecutor(ChannelRegistration registration, String channel,
+                                                       int poolSize, int queueCapacity) {
+        String threadNamePrefix = "ws-" + channel + "-";
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            executor.setVirtualThreads(true);
+            registration.executor(executor);
+            return webSocketChannelMetrics.monitor(channel);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        registration.taskExecutor(executor);
+        return webSocketChannelMetrics.monitor(channel, executor);
     }
 
     // JwtHandshakeInterceptor extracts the Authorization header from the handshake
@@ -2,20 +2,38 @@ package com.quicklift.backend.controller;
 
 import com.quicklift.backend.dto.UserResponse;
 import com.quicklift.backend.dto.DriverResponse;
+import com.quicklift.backend.dto.TariffRequest;
+import com.quicklift.backend.dto.TariffResponse;
+import com.quicklift.backend.dto.TripHistoryPage;
 import com.quicklift.backend.dto.TripResponse;
+import com.quicklift.backend.dto.TripStatsResponse;
 import com.quicklift.backend.model.Driver;
+import com.quicklift.backend.model.Tariff;
 import com.quicklift.backend.model.Trip;
+import com.quicklift.backend.service.AdminExportService;
 import com.quicklift.backend.service.AdminService;
+import com.quicklift.backend.service.TariffService;
+import com.quicklift.backend.service.TripHistoryService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -25,6 +43,15 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private TariffService tariffService;
+
+    @Autowired
+    private TripHistoryService tripHistoryService;
+
+    @Autowired
+    private AdminExportService adminExportService;
+
     @GetMapping("/users")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<UserResponse>> getAllUsers() {
@@ -45,6 +72,54 @@ public class AdminController {
         return ResponseEntity.ok(adminService.findAllTrips().stream().map(TripResponse::from).toList());
     }
 
+    @GetMapping("/trips/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TripStatsResponse> getTripStats() {
+        return ResponseEntity.ok(adminService.getTripStats());
+    }
+
+    @GetMapping("/trips/history")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TripHistoryPage> getTripHistory(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(tripHistoryService.all(cursor, size));
+    }
+
+    @GetMapping("/export/users")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format,
+                                                             @RequestParam(required = false) Long afterId) {
+        AdminExportService.Format exportFormat = AdminExportService.Format.from(format);
+        return export("users", exportFormat, out -> adminExportService.exportUsers(exportFormat, afterId, out));
+    }
+
+    @GetMapping("/export/drivers")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportDrivers(@RequestParam(defaultValue = "ndjson") String format,
+                                                               @RequestParam(required = false) Long afterId) {
+        AdminExportService.Format exportFormat = AdminExportService.Format.from(format);
+        return export("drivers", exportFormat, out -> adminExportService.exportDrivers(exportFormat, afterId, out));
+    }
+
+    @GetMapping("/export/trips")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportTrips(
+        @RequestParam(defaultValue = "ndjson") String format,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+        @RequestParam(required = false) Long afterId
+    ) {
+        AdminExportService.Format exportFormat = AdminExportService.Format.from(format);
+        return export("trips", exportFormat, out -> adminExportService.exportTrips(exportFormat, since, afterId, out));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> export(String name, AdminExportService.Format format,
+                                                                StreamingResponseBody body) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + format.getExtension() + "\"")
+            .body(body);
+    }
+
     @DeleteMapping("/drivers/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<?> deleteDriver(@PathVariable Long id) {
@@ -55,4 +130,42 @@ public class AdminController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
-} 
+
+    @GetMapping("/tariffs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<TariffResponse>> getAllTariffs() {
+        return ResponseEntity.ok(tariffService.findAll().stream().map(TariffResponse::from).toList());
+    }
+
+    @PostMapping("/tariffs")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> createTariff(@Valid @RequestBody TariffRequest request) {
+        try {
+            return ResponseEntity.ok(TariffResponse.from(tariffService.save(request.applyTo(new Tariff()))));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PutMapping("/tariffs/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> updateTariff(@PathVariable Long id, @Valid @RequestBody TariffRequest request) {
+        try {
+            Tariff tariff = request.applyTo(tariffService.findById(id));
+            return ResponseEntity.ok(TariffResponse.from(tariffService.save(tariff)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/tariffs/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> deleteTariff(@PathVariable Long id) {
+        try {
+            tariffService.delete(id);
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package com.quicklift.backend.controller;
 
 import com.quicklift.backend.model.City;
+import com.quicklift.backend.service.CityCatalogResponses;
 import com.quicklift.backend.service.CityService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping({"/api/v1/cities", "/api/cities"})
@@ -15,34 +21,54 @@ public class CityController {
     @Autowired
     private CityService cityService;
 
+    @Autowired
+    private CityCatalogResponses catalogResponses;
+
+    @Value("${app.cities.cache-max-age-seconds:3600}")
+    private long cacheMaxAgeSeconds;
+
     @GetMapping("/search")
-    public ResponseEntity<List<City>> searchCities(@RequestParam String query) {
-        List<City> cities = cityService.searchCities(query);
+    public ResponseEntity<List<City>> searchCities(@RequestParam String query,
+                                                   @RequestParam(defaultValue = "20") int limit) {
+        List<City> cities = cityService.searchCities(query, Math.max(1, Math.min(limit, 100)));
         return ResponseEntity.ok(cities);
     }
 
     @GetMapping("/states")
-    public ResponseEntity<List<String>> getAllStates() {
-        List<String> states = cityService.getAllStates();
-        return ResponseEntity.ok(states);
+    public ResponseEntity<?> getAllStates() {
+        return catalog(catalogResponses.states(), cityService::getAllStates);
     }
 
     @GetMapping("/state/{state}")
-    public ResponseEntity<List<City>> getCitiesByState(@PathVariable String state) {
-        List<City> cities = cityService.getCitiesByState(state);
-        return ResponseEntity.ok(cities);
+    public ResponseEntity<?> getCitiesByState(@PathVariable String state) {
+        return catalog(catalogResponses.citiesByState(state), () -> cityService.getCitiesByState(state));
     }
 
     @GetMapping
-    public ResponseEntity<List<City>> getAllCities() {
-        List<City> cities = cityService.getAllCities();
-        return ResponseEntity.ok(cities);
+    public ResponseEntity<?> getAllCities() {
+        return catalog(catalogResponses.allCities(), cityService::getAllCities);
     }
 
     @GetMapping("/popular")
-    public ResponseEntity<List<City>> getPopularCities() {
-        // Return major metro cities
-        List<City> cities = cityService.searchCities("Mumbai Delhi Bangalore Chennai Hyderabad Kolkata Pune Ahmedabad");
-        return ResponseEntity.ok(cities.subList(0, Math.min(10, cities.size())));
+    public ResponseEntity<?> getPopularCities() {
+        return catalog(catalogResponses.popularCities(), () -> {
+            List<City> cities = cityService.findCitiesByNames(CityCatalogResponses.POPULAR_CITIES);
+            return cities.subList(0, Math.min(CityCatalogResponses.POPULAR_LIMIT, cities.size()));
+        });
+    }
+
+    /**
+     * Serves the precomputed body with its ETag; Spring answers a matching If-None-Match with 304 and no body.
+     * Before the catalog has been published the data is read from the database as before.
+     */
+    private ResponseEntity<?> catalog(CityCatalogResponses.Body body, Supplier<List<?>> fallback) {
+        if (body == null) {
+            return ResponseEntity.ok(fallback.get());
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(body.etag())
+            .cacheControl(CacheControl.maxAge(Duration.ofSeconds(cacheMaxAgeSeconds)).cachePublic())
+            .body(body.json());
     }
-} 
+}
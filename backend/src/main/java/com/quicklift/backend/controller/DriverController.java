@@ -2,21 +2,23 @@ package com.quicklift.backend.controller;
 
 import com.quicklift.backend.dto.DriverResponse;
 import com.quicklift.backend.dto.DriverSummaryResponse;
+import com.quicklift.backend.dto.TripHistoryPage;
 import com.quicklift.backend.dto.TripResponse;
 import com.quicklift.backend.model.Driver;
+import com.quicklift.backend.model.DriverStats;
 import com.quicklift.backend.model.DriverStatus;
 import com.quicklift.backend.model.Trip;
 import com.quicklift.backend.model.TripStatus;
 import com.quicklift.backend.model.User;
 import com.quicklift.backend.repository.DriverRepository;
-import com.quicklift.backend.repository.TripRepository;
+import com.quicklift.backend.service.DriverLocationIndex;
+import com.quicklift.backend.service.DriverStatsService;
+import com.quicklift.backend.service.TripHistoryService;
 import com.quicklift.backend.service.TripService;
 import com.quicklift.backend.service.UserService;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -42,7 +44,13 @@ public class DriverController {
     private DriverRepository driverRepository;
 
     @Autowired
-    private TripRepository tripRepository;
+    private DriverStatsService driverStatsService;
+
+    @Autowired
+    private DriverLocationIndex driverLocationIndex;
+
+    @Autowired
+    private TripHistoryService tripHistoryService;
 
     private User getAuthenticatedUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -51,13 +59,15 @@ public class DriverController {
     }
 
     @GetMapping("/available-trips")
-    public ResponseEntity<List<TripResponse>> getAvailableTrips() {
+    public ResponseEntity<List<TripResponse>> getAvailableTrips(@RequestParam(defaultValue = "0") int page,
+                                                                @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            return ResponseEntity.badRequest().build();
+        }
         User user = getAuthenticatedUser();
         Driver driver = driverRepository.findByUserId(user.getId())
             .orElseThrow(() -> new RuntimeException("Driver profile not found for the authenticated user."));
-        List<Trip> availableTrips = tripService.findByStatus(TripStatus.REQUESTED).stream()
-            .filter(trip -> trip.getDriver() == null || trip.getDriver().getId().equals(driver.getId()))
-            .collect(Collectors.toList());
+        List<Trip> availableTrips = tripService.findOpenRequestsForDriver(driver, page, size);
         return ResponseEntity.ok(availableTrips.stream().map(TripResponse::from).toList());
     }
 
@@ -130,6 +140,15 @@ public class DriverController {
         return ResponseEntity.ok(tripService.findByDriverId(driver.getId()).stream().map(TripResponse::from).toList());
     }
 
+    @GetMapping("/history")
+    public ResponseEntity<TripHistoryPage> getMyTripHistory(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer size) {
+        User user = getAuthenticatedUser();
+        Driver driver = driverRepository.findByUserId(user.getId())
+            .orElseThrow(() -> new RuntimeException("Driver profile not found for the authenticated user."));
+        return ResponseEntity.ok(tripHistoryService.forDriver(driver.getId(), cursor, size));
+    }
+
     @PostMapping("/set-status")
     public ResponseEntity<?> setDriverStatus(@RequestParam DriverStatus status) {
         User user = getAuthenticatedUser();
@@ -137,6 +156,7 @@ public class DriverController {
             .orElseThrow(() -> new RuntimeException("Driver profile not found for the authenticated user."));
         driver.setStatus(status);
         driverRepository.save(driver);
+        driverLocationIndex.track(driver);
         return ResponseEntity.ok(DriverResponse.from(driver));
     }
 
@@ -163,74 +183,12 @@ public class DriverController {
         Driver driver = driverRepository.findByUserId(user.getId())
             .orElseThrow(() -> new RuntimeException("Driver profile not found for the authenticated user."));
         
-        Object[] aggregate = (Object[]) tripRepository.getDriverSummaryAggregate(driver.getId());
-        
-        BigDecimal earnings = BigDecimal.ZERO;
-        BigDecimal rating = BigDecimal.ZERO;
-        long activeTrips = 0L;
-        long pendingRequests = 0L;
-        long historyTrips = 0L;
-
-        if (aggregate != null && aggregate.length >= 5) {
-            earnings = toBigDecimal(aggregate[0]);
-            rating = toBigDecimal(aggregate[1]);
-            activeTrips = toLong(aggregate[2]);
-            pendingRequests = toLong(aggregate[3]);
-            historyTrips = toLong(aggregate[4]);
-        }
+        DriverStats stats = driverStatsService.getOrRebuild(driver.getId());
+        BigDecimal earnings = stats.getEarnings() != null ? stats.getEarnings() : BigDecimal.ZERO;
+        BigDecimal rating = DriverStatsService.averageRating(stats);
+        long pendingRequests = tripService.countOpenRequestsForDriver(driver);
 
-        // Fallback: if aggregate earnings is zero, compute from completed trips directly
-        if (earnings.compareTo(BigDecimal.ZERO) == 0) {
-            List<Trip> driverTrips = tripRepository.findByDriverId(driver.getId());
-            BigDecimal computedEarnings = driverTrips.stream()
-                .filter(t -> t.getStatus() == TripStatus.COMPLETED && t.getFare() != null)
-                .map(Trip::getFare)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-            if (computedEarnings.compareTo(BigDecimal.ZERO) > 0) {
-                earnings = computedEarnings;
-            }
-            // Also compute rating from completed trips if aggregate returned 0
-            if (rating.compareTo(BigDecimal.ZERO) == 0) {
-                double avgRating = driverTrips.stream()
-                    .filter(t -> t.getStatus() == TripStatus.COMPLETED && t.getRating() != null)
-                    .mapToDouble(t -> t.getRating().doubleValue())
-                    .average()
-                    .orElse(0.0);
-                rating = BigDecimal.valueOf(avgRating).setScale(2, RoundingMode.HALF_UP);
-            }
-        }
-
-        // Fallback: if aggregate pendingRequests is zero, count directly
-        if (pendingRequests == 0) {
-            long directCount = tripRepository.findByStatus(TripStatus.REQUESTED).stream()
-                .filter(t -> t.getDriver() == null || t.getDriver().getId().equals(driver.getId()))
-                .count();
-            if (directCount > 0) {
-                pendingRequests = directCount;
-            }
-        }
-
-        return ResponseEntity.ok(new DriverSummaryResponse(earnings, rating, activeTrips, pendingRequests, historyTrips));
-    }
-
-    private static BigDecimal toBigDecimal(Object value) {
-        if (value == null) return BigDecimal.ZERO;
-        if (value instanceof BigDecimal bd) return bd;
-        if (value instanceof Number num) return BigDecimal.valueOf(num.doubleValue());
-        try {
-            return new BigDecimal(value.toString());
-        } catch (Exception e) {
-            return BigDecimal.ZERO;
-        }
-    }
-
-    private static long toLong(Object value) {
-        if (value == null) return 0L;
-        if (value instanceof Number num) return num.longValue();
-        try {
-            return Long.parseLong(value.toString());
-        } catch (Exception e) {
-            return 0L;
-        }
+        return ResponseEntity.ok(new DriverSummaryResponse(earnings, rating, stats.getActiveTrips(), pendingRequests,
+            stats.getHistoryTrips()));
     }
 }
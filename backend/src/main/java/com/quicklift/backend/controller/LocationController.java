@@ -1,20 +1,19 @@
 package com.quicklift.backend.controller;
 
+import com.quicklift.backend.service.GeocodingService;
+import com.quicklift.backend.service.OfflineReverseGeocoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping({"/api/v1/locations", "/api/locations"})
@@ -23,7 +22,10 @@ public class LocationController {
     private static final Logger logger = LoggerFactory.getLogger(LocationController.class);
 
     @Autowired
-    private RestTemplate restTemplate;
+    private GeocodingService geocodingService;
+
+    @Autowired
+    private OfflineReverseGeocoder offlineReverseGeocoder;
 
     public LocationController() {
         logger.info("LocationController initialized successfully");
@@ -38,7 +40,8 @@ public class LocationController {
     }
 
     @GetMapping("/reverse")
-    public ResponseEntity<?> reverseGeocode(@RequestParam("lat") String lat, @RequestParam("lon") String lon) {
+    public ResponseEntity<?> reverseGeocode(@RequestParam("lat") String lat, @RequestParam("lon") String lon,
+                                            @RequestParam(value = "detail", defaultValue = "city") String detail) {
         logger.info("Reverse geocoding request - lat: {}, lon: {}", lat, lon);
         
         try {
@@ -54,28 +57,25 @@ public class LocationController {
                 return ResponseEntity.badRequest().body(createErrorResponse("Invalid longitude. Must be between -180 and 180."));
             }
             
-            // Call Nominatim API
-            String url = "https://nominatim.openstreetmap.org/reverse?format=json&lat=" + latDouble + "&lon=" + lonDouble;
-            logger.info("Calling Nominatim API: {}", url);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("User-Agent", "QuickLift-App/1.0");
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, entity, Map.class);
-            logger.info("Nominatim API response status: {}", response.getStatusCode());
-            
-            if (response.getBody() != null) {
-                return ResponseEntity.ok(response.getBody());
+            // City-level lookups are answered in memory; street detail still needs the remote provider
+            if (!"street".equalsIgnoreCase(detail)) {
+                Optional<Map<String, Object>> nearest = offlineReverseGeocoder.reverse(latDouble, lonDouble);
+                if (nearest.isPresent()) {
+                    return ResponseEntity.ok(nearest.get());
+                }
+            }
+
+            Map<String, Object> place = geocodingService.reverse(latDouble, lonDouble);
+            if (place != null) {
+                return ResponseEntity.ok(place);
             } else {
                 return ResponseEntity.ok(createErrorResponse("No location data found"));
             }
-            
         } catch (NumberFormatException e) {
             logger.error("Invalid latitude or longitude parameters: lat={}, lon={}", lat, lon);
             return ResponseEntity.badRequest().body(createErrorResponse("Invalid latitude or longitude parameters"));
         } catch (Exception e) {
-            logger.error("Error while fetching from Nominatim: {}", e.getMessage(), e);
+            logger.error("Error while reverse geocoding: {}", e.getMessage(), e);
             return ResponseEntity.status(500).body(createErrorResponse("Error while fetching location data: " + e.getMessage()));
         }
     }
@@ -89,24 +89,7 @@ public class LocationController {
         }
         
         try {
-            // Call Nominatim search API
-            String url = "https://nominatim.openstreetmap.org/search?format=json&q=" + 
-                        java.net.URLEncoder.encode(query, "UTF-8") + "&limit=10";
-            logger.info("Calling Nominatim search API: {}", url);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("User-Agent", "QuickLift-App/1.0");
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            
-            ResponseEntity<Object[]> response = restTemplate.exchange(url, HttpMethod.GET, entity, Object[].class);
-            logger.info("Nominatim search API response status: {}", response.getStatusCode());
-            
-            if (response.getBody() != null) {
-                return ResponseEntity.ok(response.getBody());
-            } else {
-                return ResponseEntity.ok(new Object[0]);
-            }
-            
+            return ResponseEntity.ok(geocodingService.search(query));
         } catch (Exception e) {
             logger.error("Error while searching locations: {}", e.getMessage(), e);
             return ResponseEntity.status(500).body(createErrorResponse("Error while searching locations: " + e.getMessage()));
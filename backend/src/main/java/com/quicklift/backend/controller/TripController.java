@@ -2,6 +2,7 @@ package com.quicklift.backend.controller;
 
 import com.quicklift.backend.dto.FareResponse;
 import com.quicklift.backend.dto.PaymentRequest;
+import com.quicklift.backend.dto.TripHistoryPage;
 import com.quicklift.backend.dto.TripMessageResponse;
 import com.quicklift.backend.dto.TripRequest;
 import com.quicklift.backend.dto.TripResponse;
@@ -13,6 +14,7 @@ import com.quicklift.backend.model.UserRole;
 import com.quicklift.backend.repository.DriverRepository;
 import com.quicklift.backend.service.FareService;
 import com.quicklift.backend.service.PaymentService;
+import com.quicklift.backend.service.TripHistoryService;
 import com.quicklift.backend.service.TripMessageService;
 import com.quicklift.backend.service.TripService;
 import com.quicklift.backend.service.UserService;
@@ -57,17 +59,14 @@ public class TripController {
     @Autowired
     private TripMessageService tripMessageService;
 
+    @Autowired
+    private TripHistoryService tripHistoryService;
+
     @PostMapping("/estimate")
     public ResponseEntity<?> estimateFare(@Valid @RequestBody TripRequest tripRequest) {
         try {
-            double distance = fareService.calculateDistance(
-                tripRequest.getPickupLatitude().doubleValue(),
-                tripRequest.getPickupLongitude().doubleValue(),
-                tripRequest.getDestinationLatitude().doubleValue(),
-                tripRequest.getDestinationLongitude().doubleValue()
-            );
-            BigDecimal estimatedFare = fareService.calculateFare(tripRequest);
-            return ResponseEntity.ok(new FareResponse(estimatedFare, distance));
+            FareService.FareEstimate estimate = fareService.estimate(tripRequest);
+            return ResponseEntity.ok(new FareResponse(estimate.fare(), estimate.distanceKm(), estimate.surgeMultiplier()));
         } catch (org.springframework.security.access.AccessDeniedException e) {
             throw e;
         } catch (Exception e) {
@@ -112,6 +111,12 @@ public class TripController {
         return ResponseEntity.ok(tripService.findByUserId(user.getId()).stream().map(TripResponse::from).toList());
     }
 
+    @GetMapping("/history")
+    public ResponseEntity<TripHistoryPage> getMyTripHistory(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(tripHistoryService.forUser(currentUser().getId(), cursor, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getTripById(@PathVariable Long id) {
         Optional<Trip> trip = tripService.findById(id);
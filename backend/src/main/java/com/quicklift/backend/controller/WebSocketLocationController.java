@@ -1,12 +1,13 @@
 package com.quicklift.backend.controller;
 
 import com.quicklift.backend.dto.LocationUpdate;
-import com.quicklift.backend.model.Trip;
-import com.quicklift.backend.service.TripService;
+import com.quicklift.backend.service.DriverLocationIngestionService;
+import com.quicklift.backend.service.LocationBroadcastService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.stereotype.Controller;
 
 import java.security.Principal;
@@ -15,20 +16,20 @@ import java.security.Principal;
 public class WebSocketLocationController {
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private LocationBroadcastService locationBroadcastService;
 
     @Autowired
-    private TripService tripService;
+    private DriverLocationIngestionService locationIngestionService;
 
     @MessageMapping("/location/{tripId}")
-    public void sendLocation(@DestinationVariable Long tripId, LocationUpdate locationUpdate, Principal principal) {
-        Trip trip = tripService.findById(tripId).orElseThrow(() -> new IllegalArgumentException("Trip not found"));
-        if (principal == null || trip.getDriver() == null
-            || !trip.getDriver().getUser().getUsername().equals(principal.getName())) {
+    public void sendLocation(@DestinationVariable Long tripId, LocationUpdate locationUpdate, Principal principal,
+                             @Header(name = SimpMessageHeaderAccessor.SESSION_ID_HEADER, required = false) String sessionId) {
+        if (principal == null) {
             throw new org.springframework.security.access.AccessDeniedException("Cannot publish location for this trip");
         }
+        long driverId = locationIngestionService.authorize(sessionId, tripId, principal.getName());
+        locationIngestionService.record(driverId, locationUpdate.getLatitude(), locationUpdate.getLongitude());
         // The location from a driver is broadcast to all subscribers of the trip's topic
-        String topic = String.format("/topic/trip/%s/location", tripId);
-        messagingTemplate.convertAndSend(topic, locationUpdate);
+        locationBroadcastService.broadcast(tripId, locationUpdate);
     }
-} 
+}
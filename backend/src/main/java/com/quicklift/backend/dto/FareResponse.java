@@ -6,12 +6,18 @@ public class FareResponse {
     private BigDecimal estimatedFare;
     private String currency = "USD"; // Or your desired currency
     private Double distance; // in kilometers
+    private Double surgeMultiplier = 1.0;
 
     public FareResponse(BigDecimal estimatedFare, Double distance) {
         this.estimatedFare = estimatedFare;
         this.distance = distance;
     }
 
+    public FareResponse(BigDecimal estimatedFare, Double distance, Double surgeMultiplier) {
+        this(estimatedFare, distance);
+        this.surgeMultiplier = surgeMultiplier;
+    }
+
     // Getters and Setters
     public BigDecimal getEstimatedFare() {
         return estimatedFare;
@@ -36,4 +42,12 @@ public class FareResponse {
     public void setDistance(Double distance) {
         this.distance = distance;
     }
-} 
\ No newline at end of file
+
+    public Double getSurgeMultiplier() {
+        return surgeMultiplier;
+    }
+
+    public void setSurgeMultiplier(Double surgeMultiplier) {
+        this.surgeMultiplier = surgeMultiplier;
+    }
+}
@@ -5,6 +5,10 @@ import java.math.BigDecimal;
 public class LocationUpdate {
     private BigDecimal latitude;
     private BigDecimal longitude;
+    // Optional; degrees clockwise from north, metres per second and epoch millis of the GPS fix
+    private Double heading;
+    private Double speed;
+    private Long timestamp;
 
     public LocationUpdate() {}
 
@@ -29,4 +33,28 @@ public class LocationUpdate {
     public void setLongitude(BigDecimal longitude) {
         this.longitude = longitude;
     }
+
+    public Double getHeading() {
+        return heading;
+    }
+
+    public void setHeading(Double heading) {
+        this.heading = heading;
+    }
+
+    public Double getSpeed() {
+        return speed;
+    }
+
+    public void setSpeed(Double speed) {
+        this.speed = speed;
+    }
+
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+    }
 } 
\ No newline at end of file
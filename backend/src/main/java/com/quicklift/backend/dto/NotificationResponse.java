@@ -13,6 +13,7 @@ public class NotificationResponse {
     private Long tripId;
     private boolean read;
     private LocalDateTime createdAt;
+    private Long unreadCount;
 
     public static NotificationResponse from(Notification notification) {
         NotificationResponse response = new NotificationResponse();
@@ -43,4 +44,6 @@ public class NotificationResponse {
     public void setRead(boolean read) { this.read = read; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public Long getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(Long unreadCount) { this.unreadCount = unreadCount; }
 }
@@ -0,0 +1,90 @@
+package com.quicklift.backend.dto;
+
+import com.quicklift.backend.model.Tariff;
+import com.quicklift.backend.model.VehicleType;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TariffRequest {
+    @Size(max = 255)
+    private String state;
+
+    @Size(max = 255)
+    private String city;
+
+    @Min(0)
+    @Max(1439)
+    private Integer startMinute;
+
+    @Min(0)
+    @Max(1440)
+    private Integer endMinute;
+
+    @NotNull
+    @DecimalMin("0.00")
+    private BigDecimal baseFare;
+
+    @NotNull
+    @DecimalMin("0.00")
+    private BigDecimal perKm;
+
+    @NotNull
+    @DecimalMin("0.00")
+    private BigDecimal perMinute;
+
+    @NotNull
+    @DecimalMin("0.00")
+    private BigDecimal minimumFare;
+
+    private Map<VehicleType, BigDecimal> vehicleMultipliers = new HashMap<>();
+
+    public Tariff applyTo(Tariff tariff) {
+        tariff.setState(blankToNull(state));
+        tariff.setCity(blankToNull(city));
+        tariff.setStartMinute(startMinute);
+        tariff.setEndMinute(endMinute);
+        tariff.setBaseFare(baseFare);
+        tariff.setPerKm(perKm);
+        tariff.setPerMinute(perMinute);
+        tariff.setMinimumFare(minimumFare);
+        tariff.setVehicleMultipliers(vehicleMultipliers);
+        return tariff;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+
+    public Integer getStartMinute() { return startMinute; }
+    public void setStartMinute(Integer startMinute) { this.startMinute = startMinute; }
+
+    public Integer getEndMinute() { return endMinute; }
+    public void setEndMinute(Integer endMinute) { this.endMinute = endMinute; }
+
+    public BigDecimal getBaseFare() { return baseFare; }
+    public void setBaseFare(BigDecimal baseFare) { this.baseFare = baseFare; }
+
+    public BigDecimal getPerKm() { return perKm; }
+    public void setPerKm(BigDecimal perKm) { this.perKm = perKm; }
+
+    public BigDecimal getPerMinute() { return perMinute; }
+    public void setPerMinute(BigDecimal perMinute) { this.perMinute = perMinute; }
+
+    public BigDecimal getMinimumFare() { return minimumFare; }
+    public void setMinimumFare(BigDecimal minimumFare) { this.minimumFare = minimumFare; }
+
+    public Map<VehicleType, BigDecimal> getVehicleMultipliers() { return vehicleMultipliers; }
+    public void setVehicleMultipliers(Map<VehicleType, BigDecimal> vehicleMultipliers) { this.vehicleMultipliers = vehicleMultipliers; }
+}
@@ -0,0 +1,63 @@
+package com.quicklift.backend.dto;
+
+import com.quicklift.backend.model.Tariff;
+import com.quicklift.backend.model.VehicleType;
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class TariffResponse {
+    private Long id;
+    private String state;
+    private String city;
+    private Integer startMinute;
+    private Integer endMinute;
+    private BigDecimal baseFare;
+    private BigDecimal perKm;
+    private BigDecimal perMinute;
+    private BigDecimal minimumFare;
+    private Map<VehicleType, BigDecimal> vehicleMultipliers;
+
+    public static TariffResponse from(Tariff tariff) {
+        if (tariff == null) {
+            return null;
+        }
+        TariffResponse response = new TariffResponse();
+        response.setId(tariff.getId());
+        response.setState(tariff.getState());
+        response.setCity(tariff.getCity());
+        response.setStartMinute(tariff.getStartMinute());
+        response.setEndMinute(tariff.getEndMinute());
+        response.setBaseFare(tariff.getBaseFare());
+        response.setPerKm(tariff.getPerKm());
+        response.setPerMinute(tariff.getPerMinute());
+        response.setMinimumFare(tariff.getMinimumFare());
+        Map<VehicleType, BigDecimal> multipliers = new EnumMap<>(VehicleType.class);
+        if (tariff.getVehicleMultipliers() != null) {
+            multipliers.putAll(tariff.getVehicleMultipliers());
+        }
+        response.setVehicleMultipliers(multipliers);
+        return response;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getState() { return state; }
+    public void setState(String state) { this.state = state; }
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+    public Integer getStartMinute() { return startMinute; }
+    public void setStartMinute(Integer startMinute) { this.startMinute = startMinute; }
+    public Integer getEndMinute() { return endMinute; }
+    public void setEndMinute(Integer endMinute) { this.endMinute = endMinute; }
+    public BigDecimal getBaseFare() { return baseFare; }
+    public void setBaseFare(BigDecimal baseFare) { this.baseFare = baseFare; }
+    public BigDecimal getPerKm() { return perKm; }
+    public void setPerKm(BigDecimal perKm) { this.perKm = perKm; }
+    public BigDecimal getPerMinute() { return perMinute; }
+    public void setPerMinute(BigDecimal perMinute) { this.perMinute = perMinute; }
+    public BigDecimal getMinimumFare() { return minimumFare; }
+    public void setMinimumFare(BigDecimal minimumFare) { this.minimumFare = minimumFare; }
+    public Map<VehicleType, BigDecimal> getVehicleMultipliers() { return vehicleMultipliers; }
+    public void setVehicleMultipliers(Map<VehicleType, BigDecimal> vehicleMultipliers) { this.vehicleMultipliers = vehicleMultipliers; }
+}
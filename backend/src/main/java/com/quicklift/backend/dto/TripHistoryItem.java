@@ -0,0 +1,70 @@
+package com.quicklift.backend.dto;
+
+import com.quicklift.backend.model.TripStatus;
+import com.quicklift.backend.model.VehicleType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Row of a trip history page, selected straight from the trips table without loading the trip's user or driver.
+ */
+public class TripHistoryItem {
+    private Long id;
+    private String status;
+    private String pickupLocation;
+    private String destination;
+    private String requestedVehicleType;
+    private BigDecimal fare;
+    private LocalDateTime requestedAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime cancelledAt;
+    private BigDecimal rating;
+    private String review;
+    private String paymentMethod;
+
+    public TripHistoryItem() {
+    }
+
+    public TripHistoryItem(Long id, TripStatus status, String pickupLocation, String destination,
+                           VehicleType requestedVehicleType, BigDecimal fare, LocalDateTime requestedAt,
+                           LocalDateTime completedAt, LocalDateTime cancelledAt, BigDecimal rating, String review,
+                           String paymentMethod) {
+        this.id = id;
+        this.status = status != null ? status.name() : null;
+        this.pickupLocation = pickupLocation;
+        this.destination = destination;
+        this.requestedVehicleType = requestedVehicleType != null ? requestedVehicleType.name() : null;
+        this.fare = fare;
+        this.requestedAt = requestedAt;
+        this.completedAt = completedAt;
+        this.cancelledAt = cancelledAt;
+        this.rating = rating;
+        this.review = review;
+        this.paymentMethod = paymentMethod;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getPickupLocation() { return pickupLocation; }
+    public void setPickupLocation(String pickupLocation) { this.pickupLocation = pickupLocation; }
+    public String getDestination() { return destination; }
+    public void setDestination(String destination) { this.destination = destination; }
+    public String getRequestedVehicleType() { return requestedVehicleType; }
+    public void setRequestedVehicleType(String requestedVehicleType) { this.requestedVehicleType = requestedVehicleType; }
+    public BigDecimal getFare() { return fare; }
+    public void setFare(BigDecimal fare) { this.fare = fare; }
+    public LocalDateTime getRequestedAt() { return requestedAt; }
+    public void setRequestedAt(LocalDateTime requestedAt) { this.requestedAt = requestedAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+    public LocalDateTime getCancelledAt() { return cancelledAt; }
+    public void setCancelledAt(LocalDateTime cancelledAt) { this.cancelledAt = cancelledAt; }
+    public BigDecimal getRating() { return rating; }
+    public void setRating(BigDecimal rating) { this.rating = rating; }
+    public String getReview() { return review; }
+    public void setReview(String review) { this.review = review; }
+    public String getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
+}
@@ -0,0 +1,21 @@
+package com.quicklift.backend.dto;
+
+import java.util.List;
+
+public class TripHistoryPage {
+    private List<TripHistoryItem> items;
+    private String nextCursor;
+
+    public TripHistoryPage() {
+    }
+
+    public TripHistoryPage(List<TripHistoryItem> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<TripHistoryItem> getItems() { return items; }
+    public void setItems(List<TripHistoryItem> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,28 @@
+package com.quicklift.backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Admin dashboard totals over every trip, computed by one aggregate query.
+ */
+public class TripStatsResponse {
+    private long totalTrips;
+    private long completedTrips;
+    private BigDecimal revenue;
+
+    public TripStatsResponse() {
+    }
+
+    public TripStatsResponse(long totalTrips, long completedTrips, BigDecimal revenue) {
+        this.totalTrips = totalTrips;
+        this.completedTrips = completedTrips;
+        this.revenue = revenue;
+    }
+
+    public long getTotalTrips() { return totalTrips; }
+    public void setTotalTrips(long totalTrips) { this.totalTrips = totalTrips; }
+    public long getCompletedTrips() { return completedTrips; }
+    public void setCompletedTrips(long completedTrips) { this.completedTrips = completedTrips; }
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+}
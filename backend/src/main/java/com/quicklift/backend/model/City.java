@@ -4,10 +4,15 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.DecimalMax;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
+@Cacheable
+// Seeded once at startup and never modified afterwards
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "cities")
 @Table(name = "cities", indexes = {
     @Index(name = "idx_cities_name", columnList = "name"),
     @Index(name = "idx_cities_state", columnList = "state"),
@@ -4,12 +4,15 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+// Positions are written in batches outside JPA, so entity saves must only touch the columns they changed
+@DynamicUpdate
 @Table(name = "drivers", indexes = {
     @Index(name = "idx_drivers_user_id", columnList = "user_id"),
     @Index(name = "idx_drivers_status_vehicle", columnList = "status, vehicle_type")
@@ -22,7 +25,7 @@ public class Driver {
     @Version
     private Long version;
     
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     private User user;
     
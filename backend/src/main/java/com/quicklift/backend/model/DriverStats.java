@@ -0,0 +1,55 @@
+package com.quicklift.backend.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Per-driver summary counters, kept in step with trip transitions so the driver dashboard is a primary-key read.
+ */
+@Entity
+@Table(name = "driver_stats")
+public class DriverStats {
+    @Id
+    @Column(name = "driver_id")
+    private Long driverId;
+
+    @Version
+    private Long version;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal earnings = BigDecimal.ZERO;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal ratingSum = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private long ratingCount = 0L;
+
+    @Column(nullable = false)
+    private long activeTrips = 0L;
+
+    @Column(nullable = false)
+    private long historyTrips = 0L;
+
+    public DriverStats() {}
+
+    public DriverStats(Long driverId) {
+        this.driverId = driverId;
+    }
+
+    public Long getDriverId() { return driverId; }
+    public void setDriverId(Long driverId) { this.driverId = driverId; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    public BigDecimal getEarnings() { return earnings; }
+    public void setEarnings(BigDecimal earnings) { this.earnings = earnings; }
+    public BigDecimal getRatingSum() { return ratingSum; }
+    public void setRatingSum(BigDecimal ratingSum) { this.ratingSum = ratingSum; }
+    public long getRatingCount() { return ratingCount; }
+    public void setRatingCount(long ratingCount) { this.ratingCount = ratingCount; }
+    public long getActiveTrips() { return activeTrips; }
+    public void setActiveTrips(long activeTrips) { this.activeTrips = activeTrips; }
+    public long getHistoryTrips() { return historyTrips; }
+    public void setHistoryTrips(long historyTrips) { this.historyTrips = historyTrips; }
+}
@@ -0,0 +1,157 @@
+package com.quicklift.backend.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A fare rule. {@code state}/{@code city} narrow where it applies (both null means everywhere) and an optional
+ * {@code [startMinute, endMinute)} window, in minutes after local midnight, narrows when; windows may wrap midnight.
+ */
+@Entity
+@Table(name = "tariffs", indexes = {
+    @Index(name = "idx_tariffs_state_city", columnList = "state, city")
+})
+public class Tariff {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Version
+    private Long version;
+
+    private String state;
+
+    private String city;
+
+    @Min(0)
+    @Max(1439)
+    private Integer startMinute;
+
+    @Min(0)
+    @Max(1440)
+    private Integer endMinute;
+
+    @NotNull
+    @DecimalMin("0.00")
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal baseFare = BigDecimal.ZERO;
+
+    @NotNull
+    @DecimalMin("0.00")
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal perKm = BigDecimal.ZERO;
+
+    @NotNull
+    @DecimalMin("0.00")
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal perMinute = BigDecimal.ZERO;
+
+    @NotNull
+    @DecimalMin("0.00")
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal minimumFare = BigDecimal.ZERO;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "tariff_vehicle_multipliers", joinColumns = @JoinColumn(name = "tariff_id"))
+    @MapKeyEnumerated(EnumType.STRING)
+    @MapKeyColumn(name = "vehicle_type", length = 32)
+    @Column(name = "multiplier", nullable = false, precision = 6, scale = 3)
+    private Map<VehicleType, BigDecimal> vehicleMultipliers = new HashMap<>();
+
+    public Tariff() {}
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public Integer getStartMinute() {
+        return startMinute;
+    }
+
+    public void setStartMinute(Integer startMinute) {
+        this.startMinute = startMinute;
+    }
+
+    public Integer getEndMinute() {
+        return endMinute;
+    }
+
+    public void setEndMinute(Integer endMinute) {
+        this.endMinute = endMinute;
+    }
+
+    public BigDecimal getBaseFare() {
+        return baseFare;
+    }
+
+    public void setBaseFare(BigDecimal baseFare) {
+        this.baseFare = baseFare;
+    }
+
+    public BigDecimal getPerKm() {
+        return perKm;
+    }
+
+    public void setPerKm(BigDecimal perKm) {
+        this.perKm = perKm;
+    }
+
+    public BigDecimal getPerMinute() {
+        return perMinute;
+    }
+
+    public void setPerMinute(BigDecimal perMinute) {
+        this.perMinute = perMinute;
+    }
+
+    public BigDecimal getMinimumFare() {
+        return minimumFare;
+    }
+
+    public void setMinimumFare(BigDecimal minimumFare) {
+        this.minimumFare = minimumFare;
+    }
+
+    public Map<VehicleType, BigDecimal> getVehicleMultipliers() {
+        return vehicleMultipliers;
+    }
+
+    public void setVehicleMultipliers(Map<VehicleType, BigDecimal> vehicleMultipliers) {
+        this.vehicleMultipliers = vehicleMultipliers != null ? new HashMap<>(vehicleMultipliers) : new HashMap<>();
+    }
+}
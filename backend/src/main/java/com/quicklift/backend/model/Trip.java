@@ -12,9 +12,19 @@ import java.time.LocalDateTime;
 @Table(name = "trips", indexes = {
     @Index(name = "idx_trips_user_requested", columnList = "user_id, requested_at"),
     @Index(name = "idx_trips_driver_status", columnList = "driver_id, status"),
-    @Index(name = "idx_trips_status_requested", columnList = "status, requested_at")
+    @Index(name = "idx_trips_status_requested", columnList = "status, requested_at"),
+    @Index(name = "idx_trips_driver_requested", columnList = "driver_id, requested_at"),
+    @Index(name = "idx_trips_requested", columnList = "requested_at"),
+    @Index(name = "idx_trips_updated", columnList = "updated_at")
 })
+// Everything TripResponse reads; repositories that hand trips to callers outside a transaction fetch with it
+@NamedEntityGraph(name = Trip.WITH_PARTIES, attributeNodes = {
+    @NamedAttributeNode("user"),
+    @NamedAttributeNode(value = "driver", subgraph = "driver")
+}, subgraphs = @NamedSubgraph(name = "driver", attributeNodes = @NamedAttributeNode("user")))
 public class Trip {
+    public static final String WITH_PARTIES = "Trip.withParties";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -22,11 +32,11 @@ public class Trip {
     @Version
     private Long version;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "driver_id")
     private Driver driver;
 
@@ -65,12 +75,17 @@ public class Trip {
 
     private String notes;
 
+    @Column(nullable = false)
     private LocalDateTime requestedAt;
     private LocalDateTime acceptedAt;
     private LocalDateTime startedAt;
     private LocalDateTime completedAt;
     private LocalDateTime cancelledAt;
 
+    // Bumped on every change; incremental exports filter on it
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
     private BigDecimal rating;
     private String review;
 
@@ -93,6 +108,12 @@ public class Trip {
         this.requestedVehicleType = requestedVehicleType;
     }
 
+    @PrePersist
+    @PreUpdate
+    void onChange() {
+        updatedAt = LocalDateTime.now();
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -246,6 +267,10 @@ public class Trip {
         this.cancelledAt = cancelledAt;
     }
 
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
     public BigDecimal getRating() {
         return rating;
     }
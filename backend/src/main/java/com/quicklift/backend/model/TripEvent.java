@@ -0,0 +1,50 @@
+package com.quicklift.backend.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row for a trip change that still has to be pushed to clients. Only ids are stored; the relay renders
+ * the messages from the committed trip.
+ */
+@Entity
+@Table(name = "trip_events")
+public class TripEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "trip_id", nullable = false)
+    private Long tripId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private TripEventType type;
+
+    // Driver the event concerns, kept because the trip's own driver may change before the relay runs
+    @Column(name = "driver_id")
+    private Long driverId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public TripEvent() {}
+
+    public TripEvent(Long tripId, TripEventType type, Long driverId) {
+        this.tripId = tripId;
+        this.type = type;
+        this.driverId = driverId;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getTripId() { return tripId; }
+    public void setTripId(Long tripId) { this.tripId = tripId; }
+    public TripEventType getType() { return type; }
+    public void setType(TripEventType type) { this.type = type; }
+    public Long getDriverId() { return driverId; }
+    public void setDriverId(Long driverId) { this.driverId = driverId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
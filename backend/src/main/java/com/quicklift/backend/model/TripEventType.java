@@ -0,0 +1,10 @@
+package com.quicklift.backend.model;
+
+public enum TripEventType {
+    RIDE_REQUESTED,
+    ACCEPTED,
+    STARTED,
+    COMPLETED,
+    CANCELLED,
+    REJECTED
+}
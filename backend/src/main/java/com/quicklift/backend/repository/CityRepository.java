@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,6 +17,8 @@ public interface CityRepository extends JpaRepository<City, Long> {
     List<City> findByStateContainingIgnoreCase(String state);
     
     List<City> findByStateCode(String stateCode);
+
+    List<City> findByNameIn(Collection<String> names);
     
     @Query("SELECT c FROM City c WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(c.state) LIKE LOWER(CONCAT('%', :query, '%'))")
     List<City> searchCities(@Param("query") String query);
@@ -3,6 +3,7 @@ package com.quicklift.backend.repository;
 import com.quicklift.backend.model.Driver;
 import com.quicklift.backend.model.DriverStatus;
 import com.quicklift.backend.model.VehicleType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -11,9 +12,29 @@ import java.util.Optional;
 
 @Repository
 public interface DriverRepository extends JpaRepository<Driver, Long> {
+    // Driver.user is lazy; finders whose drivers are mapped with DriverResponse fetch it in the same statement
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Optional<Driver> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<Driver> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<Driver> findAllById(Iterable<Long> ids);
+
+    @EntityGraph(attributePaths = "user")
     Optional<Driver> findByUserId(Long userId);
+
+    @EntityGraph(attributePaths = "user")
     List<Driver> findByStatus(DriverStatus status);
+
+    @EntityGraph(attributePaths = "user")
     List<Driver> findByVehicleTypeAndStatus(VehicleType vehicleType, DriverStatus status);
+
+    @EntityGraph(attributePaths = "user")
     List<Driver> findByIsAvailableTrue();
     Optional<Driver> findByLicenseNumber(String licenseNumber);
     Optional<Driver> findByLicensePlate(String licensePlate);
@@ -0,0 +1,50 @@
+package com.quicklift.backend.repository;
+
+import com.quicklift.backend.model.DriverStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface DriverStatsRepository extends JpaRepository<DriverStats, Long> {
+    // Applied in the database so concurrent trip transitions for the same driver never lose an update
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        update DriverStats s set
+            s.earnings = s.earnings + :earnings,
+            s.ratingSum = s.ratingSum + :ratingSum,
+            s.ratingCount = s.ratingCount + :ratingCount,
+            s.activeTrips = s.activeTrips + :activeTrips,
+            s.historyTrips = s.historyTrips + :historyTrips,
+            s.version = s.version + 1
+        where s.driverId = :driverId
+        """)
+    int applyDelta(@Param("driverId") Long driverId,
+                   @Param("earnings") BigDecimal earnings,
+                   @Param("ratingSum") BigDecimal ratingSum,
+                   @Param("ratingCount") long ratingCount,
+                   @Param("activeTrips") long activeTrips,
+                   @Param("historyTrips") long historyTrips);
+
+    // Returns 0 instead of failing when a concurrent rebuild inserted the row first; it waits for that insert to commit
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        INSERT INTO driver_stats (driver_id, version, earnings, rating_sum, rating_count, active_trips, history_trips)
+        VALUES (:driverId, 0, :earnings, :ratingSum, :ratingCount, :activeTrips, :historyTrips)
+        ON CONFLICT DO NOTHING
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("driverId") Long driverId,
+                       @Param("earnings") BigDecimal earnings,
+                       @Param("ratingSum") BigDecimal ratingSum,
+                       @Param("ratingCount") long ratingCount,
+                       @Param("activeTrips") long activeTrips,
+                       @Param("historyTrips") long historyTrips);
+
+    @Modifying
+    @Query("delete from DriverStats s where s.driverId = :driverId")
+    int deleteByDriverId(@Param("driverId") Long driverId);
+}
@@ -2,6 +2,7 @@ package com.quicklift.backend.repository;
 
 import com.quicklift.backend.model.Payment;
 import com.quicklift.backend.model.PaymentStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,7 +11,14 @@ import java.util.Optional;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
+    // Access checks read the trip's driver, which is lazy
+    @Override
+    @EntityGraph(attributePaths = "trip.driver")
+    Optional<Payment> findById(Long id);
+
     List<Payment> findByTripId(Long tripId);
+
+    @EntityGraph(attributePaths = "trip.driver")
     Optional<Payment> findByIdempotencyKey(String idempotencyKey);
     List<Payment> findByStatus(PaymentStatus status);
 }
@@ -0,0 +1,9 @@
+package com.quicklift.backend.repository;
+
+import com.quicklift.backend.model.Tariff;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TariffRepository extends JpaRepository<Tariff, Long> {
+}
@@ -0,0 +1,19 @@
+package com.quicklift.backend.repository;
+
+import com.quicklift.backend.model.TripEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TripEventRepository extends JpaRepository<TripEvent, Long> {
+    // Oldest events first, locked so a relay on another node waits instead of publishing out of order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from TripEvent e order by e.id")
+    List<TripEvent> findOldestForRelay(Pageable pageable);
+}
@@ -1,7 +1,12 @@
 package com.quicklift.backend.repository;
 
+import com.quicklift.backend.dto.TripHistoryItem;
+import com.quicklift.backend.dto.TripStatsResponse;
 import com.quicklift.backend.model.Trip;
 import com.quicklift.backend.model.TripStatus;
+import com.quicklift.backend.model.VehicleType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
@@ -9,29 +14,113 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import jakarta.persistence.LockModeType;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TripRepository extends JpaRepository<Trip, Long> {
+    String HISTORY_ITEM = """
+        select new com.quicklift.backend.dto.TripHistoryItem(
+            t.id, t.status, t.pickupLocation, t.destination, t.requestedVehicleType, t.fare,
+            t.requestedAt, t.completedAt, t.cancelledAt, t.rating, t.review, t.paymentMethod)
+        from Trip t
+        """;
+    String BEFORE_CURSOR = " (t.requestedAt < :requestedAt or (t.requestedAt = :requestedAt and t.id < :id)) ";
+    String NEWEST_FIRST = " order by t.requestedAt desc, t.id desc";
+    String FINISHED = " t.status in (com.quicklift.backend.model.TripStatus.COMPLETED, com.quicklift.backend.model.TripStatus.CANCELLED) ";
+    String OPEN_FOR_DRIVER = """
+        from Trip t left join t.driver d
+        where t.status = com.quicklift.backend.model.TripStatus.REQUESTED
+          and (d.id = :driverId or (d is null and t.requestedVehicleType = :vehicleType))
+        """;
+
+    // Trip.user and Trip.driver are lazy: every finder whose trips are mapped with TripResponse loads them in the
+    // same statement, so a list costs one query however many rows it has
+    @Override
+    @EntityGraph(Trip.WITH_PARTIES)
+    Optional<Trip> findById(Long id);
+
+    @Override
+    @EntityGraph(Trip.WITH_PARTIES)
+    List<Trip> findAll();
+
+    @Override
+    @EntityGraph(Trip.WITH_PARTIES)
+    List<Trip> findAllById(Iterable<Long> ids);
+
     @Lock(LockModeType.OPTIMISTIC)
+    @EntityGraph(Trip.WITH_PARTIES)
     @Query("select t from Trip t where t.id = :id")
     Optional<Trip> findByIdForUpdate(@Param("id") Long id);
 
+    // Only used to (re)build a driver_stats row; the dashboard reads the projection itself
     @Query("""
         select
             coalesce(sum(case when t.status = com.quicklift.backend.model.TripStatus.COMPLETED then t.fare else null end), 0L),
-            coalesce(avg(case when t.status = com.quicklift.backend.model.TripStatus.COMPLETED then t.rating else null end), 0L),
+            coalesce(sum(case when t.status = com.quicklift.backend.model.TripStatus.COMPLETED then t.rating else null end), 0L),
+            coalesce(sum(case when t.status = com.quicklift.backend.model.TripStatus.COMPLETED and t.rating is not null then 1L else 0L end), 0L),
             coalesce(sum(case when t.status in (com.quicklift.backend.model.TripStatus.ACCEPTED, com.quicklift.backend.model.TripStatus.STARTED) then 1L else 0L end), 0L),
-            (select count(t2.id) from Trip t2 where t2.status = com.quicklift.backend.model.TripStatus.REQUESTED and (t2.driver is null or t2.driver.id = :driverId)),
             coalesce(sum(case when t.status in (com.quicklift.backend.model.TripStatus.COMPLETED, com.quicklift.backend.model.TripStatus.CANCELLED) then 1L else 0L end), 0L)
         from Trip t
         where t.driver.id = :driverId
         """)
-    Object[] getDriverSummaryAggregate(@Param("driverId") Long driverId);
+    Object[] getDriverStatsAggregate(@Param("driverId") Long driverId);
+
+    // Admin dashboard totals; revenue sums the fare of every trip that has one, like the dashboard always showed
+    @Query("""
+        select new com.quicklift.backend.dto.TripStatsResponse(
+            count(t),
+            coalesce(sum(case when t.status = com.quicklift.backend.model.TripStatus.COMPLETED then 1L else 0L end), 0L),
+            coalesce(sum(t.fare), 0))
+        from Trip t
+        """)
+    TripStatsResponse getTripStats();
+
+    // History pages: the first page and the pages after a cursor, each one range scan on a (owner, requested_at) index
+    @Query(HISTORY_ITEM + "where t.user.id = :userId" + NEWEST_FIRST)
+    List<TripHistoryItem> findUserHistory(@Param("userId") Long userId, Pageable page);
+
+    @Query(HISTORY_ITEM + "where t.user.id = :userId and" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<TripHistoryItem> findUserHistoryBefore(@Param("userId") Long userId, @Param("requestedAt") LocalDateTime requestedAt,
+                                                @Param("id") Long id, Pageable page);
+
+    // A driver's history only lists finished trips; the driver_id prefix of the index still bounds the scan
+    @Query(HISTORY_ITEM + "where t.driver.id = :driverId and" + FINISHED + NEWEST_FIRST)
+    List<TripHistoryItem> findDriverHistory(@Param("driverId") Long driverId, Pageable page);
+
+    @Query(HISTORY_ITEM + "where t.driver.id = :driverId and" + FINISHED + "and" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<TripHistoryItem> findDriverHistoryBefore(@Param("driverId") Long driverId, @Param("requestedAt") LocalDateTime requestedAt,
+                                                  @Param("id") Long id, Pageable page);
+
+    @Query(HISTORY_ITEM + NEWEST_FIRST)
+    List<TripHistoryItem> findHistory(Pageable page);
+
+    @Query(HISTORY_ITEM + "where" + BEFORE_CURSOR + NEWEST_FIRST)
+    List<TripHistoryItem> findHistoryBefore(@Param("requestedAt") LocalDateTime requestedAt, @Param("id") Long id, Pageable page);
+
+    // Open requests for the available-trips feed when the in-memory book is not authoritative (multi-node):
+    // requests sent to the driver first, then unassigned requests for their vehicle type, oldest first
+    @EntityGraph(Trip.WITH_PARTIES)
+    @Query("select t " + OPEN_FOR_DRIVER + "order by case when d is null then 1 else 0 end, t.requestedAt, t.id")
+    List<Trip> findOpenRequestsForDriver(@Param("driverId") Long driverId, @Param("vehicleType") VehicleType vehicleType,
+                                         Pageable page);
+
+    @Query("select count(t) " + OPEN_FOR_DRIVER)
+    long countOpenRequestsForDriver(@Param("driverId") Long driverId, @Param("vehicleType") VehicleType vehicleType);
+
+    @EntityGraph(Trip.WITH_PARTIES)
     List<Trip> findByUserId(Long userId);
+
+    @EntityGraph(Trip.WITH_PARTIES)
     List<Trip> findByDriverId(Long driverId);
+
+    @EntityGraph(Trip.WITH_PARTIES)
     List<Trip> findByStatus(TripStatus status);
+
+    @EntityGraph(Trip.WITH_PARTIES)
     List<Trip> findByUserIdAndStatus(Long userId, TripStatus status);
+
+    @EntityGraph(Trip.WITH_PARTIES)
     List<Trip> findByDriverIdAndStatus(Long driverId, TripStatus status);
 } 
\ No newline at end of file
@@ -0,0 +1,241 @@
+package com.quicklift.backend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Admin table exports written row by row to the response stream. Rows are read through a forward-only JDBC cursor
+ * with a fixed fetch size (the read-only transaction keeps PostgreSQL from materializing the whole result), so memory
+ * stays constant however large the table is. Exports are ordered by id; {@code afterId} and, for trips,
+ * {@code since} allow incremental pulls.
+ */
+@Service
+public class AdminExportService {
+    private static final String USERS_SQL = """
+        SELECT id, username, email, first_name, last_name, phone_number, role, enabled
+        FROM users WHERE id > ? ORDER BY id
+        """;
+    private static final String DRIVERS_SQL = """
+        SELECT id, user_id, license_number, vehicle_type, vehicle_model, vehicle_color, license_plate, status,
+               rating, total_rides, is_verified, is_available
+        FROM drivers WHERE id > ? ORDER BY id
+        """;
+    private static final String TRIPS_SQL = """
+        SELECT id, user_id, driver_id, pickup_location, destination, status, requested_vehicle_type, fare,
+               requested_at, accepted_at, started_at, completed_at, cancelled_at, rating, paid, payment_method,
+               updated_at
+        FROM trips WHERE id > ? %s ORDER BY id
+        """;
+    private static final String CHANGED_SINCE = "AND updated_at >= ?";
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public static Format from(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+    }
+
+    private final JdbcTemplate exportTemplate;
+    private final ObjectMapper objectMapper;
+
+    public AdminExportService(
+        JdbcTemplate jdbcTemplate,
+        ObjectMapper objectMapper,
+        @Value("${app.admin.export.fetch-size:500}") int fetchSize
+    ) {
+        // Separate template so the fetch size does not apply to the rest of the application
+        this.exportTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.exportTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportUsers(Format format, Long afterId, OutputStream out) throws IOException {
+        export(USERS_SQL, format, out, watermark(afterId));
+    }
+
+    @Transactional(readOnly = true)
+    public void exportDrivers(Format format, Long afterId, OutputStream out) throws IOException {
+        export(DRIVERS_SQL, format, out, watermark(afterId));
+    }
+
+    /**
+     * With {@code since}, only trips created or changed at or after it, read through the {@code updated_at} index.
+     */
+    @Transactional(readOnly = true)
+    public void exportTrips(Format format, LocalDateTime since, Long afterId, OutputStream out) throws IOException {
+        if (since == null) {
+            export(TRIPS_SQL.formatted(""), format, out, watermark(afterId));
+            return;
+        }
+        export(TRIPS_SQL.formatted(CHANGED_SINCE), format, out, watermark(afterId), Timestamp.valueOf(since));
+    }
+
+    private void export(String sql, Format format, OutputStream out, Object... args) throws IOException {
+        RowSink sink = format == Format.CSV ? new CsvSink(out) : new NdjsonSink(out);
+        try {
+            exportTemplate.query(sql, (ResultSetExtractor<Void>) rs -> {
+                try {
+                    String[] names = columnNames(rs.getMetaData());
+                    sink.start(names);
+                    while (rs.next()) {
+                        sink.row(rs, names.length);
+                    }
+                    sink.finish();
+                } catch (IOException e) {
+                    // Client went away; abandon the cursor rather than read the rest of the table
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            }, args);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static long watermark(Long afterId) {
+        return afterId != null ? afterId : 0L;
+    }
+
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : value;
+    }
+
+    private interface RowSink {
+        void start(String[] names) throws IOException;
+
+        void row(ResultSet rs, int columns) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private final class NdjsonSink implements RowSink {
+        private final JsonGenerator generator;
+        private String[] names;
+
+        private NdjsonSink(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void start(String[] names) {
+            this.names = names;
+        }
+
+        @Override
+        public void row(ResultSet rs, int columns) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns; i++) {
+                generator.writeFieldName(names[i]);
+                generator.writeObject(value(rs, i + 1));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static final class CsvSink implements RowSink {
+        private final Writer writer;
+
+        private CsvSink(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void start(String[] names) throws IOException {
+            writeLine(List.of(names));
+        }
+
+        @Override
+        public void row(ResultSet rs, int columns) throws SQLException, IOException {
+            List<Object> values = new ArrayList<>(columns);
+            for (int i = 1; i <= columns; i++) {
+                values.add(value(rs, i));
+            }
+            writeLine(values);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void writeLine(List<?> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values.get(i)));
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        // Keep spreadsheet apps from evaluating user-entered text as a formula
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0 && !(value instanceof Number)) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    private static String[] columnNames(ResultSetMetaData meta) throws SQLException {
+        String[] names = new String[meta.getColumnCount()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = meta.getColumnLabel(i + 1).toLowerCase(Locale.ROOT);
+        }
+        return names;
+    }
+}
@@ -1,5 +1,6 @@
 package com.quicklift.backend.service;
 
+import com.quicklift.backend.dto.TripStatsResponse;
 import com.quicklift.backend.model.Driver;
 import com.quicklift.backend.model.Trip;
 import com.quicklift.backend.model.User;
@@ -23,6 +24,15 @@ public class AdminService {
     @Autowired
     private TripRepository tripRepository;
 
+    @Autowired
+    private DriverLocationIndex driverLocationIndex;
+
+    @Autowired
+    private DriverStatsService driverStatsService;
+
+    @Autowired
+    private AuthenticatedUserCache authenticatedUserCache;
+
     public List<User> findAllUsers() {
         return userRepository.findAll();
     }
@@ -35,13 +45,20 @@ public class AdminService {
         return tripRepository.findAll();
     }
 
+    public TripStatsResponse getTripStats() {
+        return tripRepository.getTripStats();
+    }
+
     public void deleteDriver(Long id) {
         Driver driver = driverRepository.findById(id).orElseThrow(() -> new RuntimeException("Driver not found"));
         // Optionally delete the associated user as well
         User user = driver.getUser();
+        driverStatsService.delete(id);
         driverRepository.deleteById(id);
+        driverLocationIndex.remove(id);
         if (user != null) {
             userRepository.deleteById(user.getId());
+            authenticatedUserCache.evict(user.getUsername());
         }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.quicklift.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.quicklift.backend.model.User;
+import com.quicklift.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Short-lived cache of the users behind authenticated requests, so steady API traffic does not read the users
+ * table per request. Entries are evicted when a user is changed or deleted and otherwise live for the TTL.
+ */
+@Component
+public class AuthenticatedUserCache {
+    private final UserRepository userRepository;
+    private final Cache<String, User> users;
+
+    public AuthenticatedUserCache(
+        UserRepository userRepository,
+        @Value("${jwt.principal-cache-ttl-seconds:30}") long ttlSeconds,
+        @Value("${jwt.principal-cache-size:10000}") long maxSize
+    ) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .build();
+    }
+
+    public Optional<User> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(users.get(normalize(username),
+            key -> userRepository.findByNormalizedUsername(key).orElse(null)));
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            users.invalidate(normalize(username));
+        }
+    }
+
+    public void evictAll() {
+        users.invalidateAll();
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase();
+    }
+}
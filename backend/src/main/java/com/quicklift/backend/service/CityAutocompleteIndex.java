@@ -0,0 +1,282 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.City;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Ranked city autocomplete served from memory.
+ * A sorted array of name, name-word and state keys answers prefix queries with a binary search.
+ * When prefixes alone do not fill the page, a substring scan over names and states keeps the infix matches of the
+ * old {@code LIKE '%q%'} search (e.g. "bad" finds Hyderabad), and a trigram index over names supplies typo-tolerant
+ * matches after those.
+ * The whole snapshot is rebuilt on {@link CityCatalogChangedEvent}.
+ */
+@Component
+public class CityAutocompleteIndex {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    // Rank tiers, best first
+    private static final int EXACT_NAME = 0;
+    private static final int NAME_PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int STATE_PREFIX = 3;
+    private static final int NAME_INFIX = 4;
+    private static final int STATE_INFIX = 5;
+    private static final int FUZZY = 6;
+
+    private volatile Snapshot snapshot = Snapshot.build(List.of());
+
+    @EventListener
+    public void onCityCatalogChanged(CityCatalogChangedEvent event) {
+        rebuild(event.cities());
+    }
+
+    public void rebuild(List<City> cities) {
+        snapshot = Snapshot.build(cities);
+    }
+
+    public boolean isEmpty() {
+        return snapshot.cities.length == 0;
+    }
+
+    public List<City> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+        Map<Integer, Integer> best = new HashMap<>();
+        current.collectPrefixMatches(normalized, best);
+        if (best.size() < limit) {
+            current.collectInfixMatches(normalized, best);
+        }
+        if (best.size() < limit && normalized.length() >= 3) {
+            current.collectFuzzyMatches(normalized, best);
+        }
+        return best.entrySet().stream()
+            .sorted(Comparator.<Map.Entry<Integer, Integer>>comparingInt(Map.Entry::getValue)
+                .thenComparingInt(entry -> current.names[entry.getKey()].length())
+                .thenComparing(entry -> current.names[entry.getKey()]))
+            .limit(limit)
+            .map(entry -> current.cities[entry.getKey()])
+            .toList();
+    }
+
+    /**
+     * Looks cities up by exact (normalized) name, keeping the order of {@code names}.
+     */
+    public List<City> findByNames(List<String> names) {
+        Snapshot current = snapshot;
+        List<City> result = new ArrayList<>(names.size());
+        for (String name : names) {
+            int[] matches = current.byName.get(normalize(name));
+            if (matches != null) {
+                for (int city : matches) {
+                    result.add(current.cities[city]);
+                }
+            }
+        }
+        return result;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    static int maxEdits(int length) {
+        return length <= 4 ? 1 : 2;
+    }
+
+    /**
+     * Optimal string alignment distance between {@code query} and the closer of {@code name}'s same-length prefix and
+     * the full name, giving up once it exceeds {@code limit}.
+     */
+    static int prefixDistance(String query, String name, int limit) {
+        int best = limit + 1;
+        int prefixLength = Math.min(name.length(), query.length());
+        best = Math.min(best, distance(query, name.substring(0, prefixLength), limit));
+        if (name.length() != prefixLength) {
+            best = Math.min(best, distance(query, name, limit));
+        }
+        return best;
+    }
+
+    private static int distance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    private static Set<String> trigrams(String value) {
+        String padded = "  " + value;
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static final class Snapshot {
+        private final City[] cities;
+        private final String[] names;
+        private final String[] states;
+        private final String[] keys;
+        private final int[] keyCities;
+        private final int[] keyTiers;
+        private final Map<String, int[]> trigramPostings;
+        private final Map<String, int[]> byName;
+
+        private Snapshot(City[] cities, String[] names, String[] states, String[] keys, int[] keyCities,
+                         int[] keyTiers, Map<String, int[]> trigramPostings, Map<String, int[]> byName) {
+            this.cities = cities;
+            this.names = names;
+            this.states = states;
+            this.keys = keys;
+            this.keyCities = keyCities;
+            this.keyTiers = keyTiers;
+            this.trigramPostings = trigramPostings;
+            this.byName = byName;
+        }
+
+        static Snapshot build(List<City> source) {
+            City[] cities = source.stream().filter(city -> city.getName() != null).toArray(City[]::new);
+            String[] names = new String[cities.length];
+            String[] states = new String[cities.length];
+            List<Key> keys = new ArrayList<>();
+            Map<String, List<Integer>> postings = new HashMap<>();
+            Map<String, List<Integer>> byName = new HashMap<>();
+            for (int i = 0; i < cities.length; i++) {
+                String name = normalize(cities[i].getName());
+                names[i] = name;
+                byName.computeIfAbsent(name, ignored -> new ArrayList<>()).add(i);
+                keys.add(new Key(name, i, NAME_PREFIX));
+                String[] words = name.split(" ");
+                for (int w = 1; w < words.length; w++) {
+                    keys.add(new Key(String.join(" ", Arrays.copyOfRange(words, w, words.length)), i, WORD_PREFIX));
+                }
+                String state = normalize(cities[i].getState());
+                states[i] = state;
+                if (!state.isEmpty()) {
+                    keys.add(new Key(state, i, STATE_PREFIX));
+                }
+                for (String trigram : trigrams(name)) {
+                    postings.computeIfAbsent(trigram, ignored -> new ArrayList<>()).add(i);
+                }
+            }
+            keys.sort(Comparator.comparing(Key::text));
+            String[] keyTexts = new String[keys.size()];
+            int[] keyCities = new int[keys.size()];
+            int[] keyTiers = new int[keys.size()];
+            for (int i = 0; i < keys.size(); i++) {
+                keyTexts[i] = keys.get(i).text();
+                keyCities[i] = keys.get(i).city();
+                keyTiers[i] = keys.get(i).tier();
+            }
+            return new Snapshot(cities, names, states, keyTexts, keyCities, keyTiers, toArrays(postings), toArrays(byName));
+        }
+
+        void collectPrefixMatches(String query, Map<Integer, Integer> best) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(query) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            for (int i = low; i < keys.length && keys[i].startsWith(query); i++) {
+                int tier = keyTiers[i] == NAME_PREFIX && keys[i].length() == query.length() ? EXACT_NAME : keyTiers[i];
+                best.merge(keyCities[i], tier, Math::min);
+            }
+        }
+
+        void collectInfixMatches(String query, Map<Integer, Integer> best) {
+            for (int city = 0; city < cities.length; city++) {
+                if (best.containsKey(city)) {
+                    continue;
+                }
+                if (names[city].contains(query)) {
+                    best.put(city, NAME_INFIX);
+                } else if (states[city].contains(query)) {
+                    best.put(city, STATE_INFIX);
+                }
+            }
+        }
+
+        void collectFuzzyMatches(String query, Map<Integer, Integer> best) {
+            int limit = maxEdits(query.length());
+            Set<String> queryTrigrams = trigrams(query);
+            int required = Math.max(1, queryTrigrams.size() - 3 * limit);
+            int[] shared = new int[cities.length];
+            for (String trigram : queryTrigrams) {
+                int[] posting = trigramPostings.get(trigram);
+                if (posting == null) {
+                    continue;
+                }
+                for (int city : posting) {
+                    if (++shared[city] == required && !best.containsKey(city)) {
+                        int edits = prefixDistance(query, names[city], limit);
+                        if (edits <= limit) {
+                            best.put(city, FUZZY + edits);
+                        }
+                    }
+                }
+            }
+        }
+
+        private static Map<String, int[]> toArrays(Map<String, List<Integer>> lists) {
+            Map<String, int[]> arrays = new HashMap<>(lists.size() * 2);
+            lists.forEach((key, values) -> arrays.put(key, values.stream().mapToInt(Integer::intValue).toArray()));
+            return arrays;
+        }
+    }
+
+    private record Key(String text, int city, int tier) {}
+}
@@ -0,0 +1,10 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.City;
+
+import java.util.List;
+
+/**
+ * Published with the full city list whenever the catalog is loaded or changes, so in-memory views can rebuild.
+ */
+public record CityCatalogChangedEvent(long version, List<City> cities) {}
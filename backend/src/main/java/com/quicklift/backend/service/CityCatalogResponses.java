@@ -0,0 +1,120 @@
+package com.quicklift.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quicklift.backend.model.City;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JSON bodies of the city catalog endpoints, serialized once per catalog version together with a strong ETag.
+ * The ETag is a hash of the body, so every instance serving the same data hands out the same tag.
+ * Until the first {@link CityCatalogChangedEvent} arrives the getters return null.
+ */
+@Component
+public class CityCatalogResponses {
+    public static final List<String> POPULAR_CITIES = List.of(
+        "Mumbai", "Delhi", "Bangalore", "Chennai", "Hyderabad", "Kolkata", "Pune", "Ahmedabad");
+    public static final int POPULAR_LIMIT = 10;
+
+    public record Body(byte[] json, String etag) {}
+
+    private final ObjectMapper objectMapper;
+    private volatile Snapshot snapshot;
+
+    public CityCatalogResponses(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    public void onCityCatalogChanged(CityCatalogChangedEvent event) {
+        Snapshot current = snapshot;
+        // Re-publishing the same version, or a late event for an older one, leaves the bodies as they are
+        if (current != null && current.version() >= event.version()) {
+            return;
+        }
+        snapshot = build(event.version(), event.cities());
+    }
+
+    public Body allCities() {
+        Snapshot current = snapshot;
+        return current != null ? current.all() : null;
+    }
+
+    public Body states() {
+        Snapshot current = snapshot;
+        return current != null ? current.states() : null;
+    }
+
+    public Body citiesByState(String state) {
+        Snapshot current = snapshot;
+        return current != null ? current.byState().getOrDefault(state, current.empty()) : null;
+    }
+
+    public Body popularCities() {
+        Snapshot current = snapshot;
+        return current != null ? current.popular() : null;
+    }
+
+    private Snapshot build(long version, List<City> cities) {
+        List<City> all = new ArrayList<>(cities);
+        all.sort(Comparator.comparing(City::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        Map<String, List<City>> byStateLists = new TreeMap<>();
+        Map<String, List<City>> byName = new HashMap<>();
+        for (City city : all) {
+            byStateLists.computeIfAbsent(city.getState(), ignored -> new ArrayList<>()).add(city);
+            byName.computeIfAbsent(CityAutocompleteIndex.normalize(city.getName()), ignored -> new ArrayList<>()).add(city);
+        }
+        Map<String, Body> byState = new HashMap<>();
+        for (Map.Entry<String, List<City>> entry : byStateLists.entrySet()) {
+            entry.getValue().sort(Comparator.comparing(City::getName));
+            byState.put(entry.getKey(), body(entry.getValue()));
+        }
+
+        List<City> popular = new ArrayList<>();
+        for (String name : POPULAR_CITIES) {
+            popular.addAll(byName.getOrDefault(CityAutocompleteIndex.normalize(name), List.of()));
+        }
+
+        return new Snapshot(
+            version,
+            body(all),
+            body(new ArrayList<>(byStateLists.keySet())),
+            Map.copyOf(byState),
+            body(popular.subList(0, Math.min(POPULAR_LIMIT, popular.size()))),
+            body(List.of())
+        );
+    }
+
+    private Body body(Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            return new Body(json, etag(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize city catalog", e);
+        }
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Snapshot(long version, Body all, Body states, Map<String, Body> byState, Body popular, Body empty) {}
+}
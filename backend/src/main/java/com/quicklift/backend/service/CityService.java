@@ -3,11 +3,15 @@ package com.quicklift.backend.service;
 import com.quicklift.backend.model.City;
 import com.quicklift.backend.repository.CityRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 @Service
 public class CityService {
@@ -15,18 +19,45 @@ public class CityService {
     @Autowired
     private CityRepository cityRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CityAutocompleteIndex cityAutocompleteIndex;
+
+    private final AtomicLong catalogVersion = new AtomicLong();
+
     public void initializeCities() {
         try {
             if (cityRepository.count() == 0) {
                 loadIndianCities();
             }
+            publishCatalog();
         } catch (Exception e) {
             System.err.println("[CityService] Skipping city initialization: " + e.getMessage());
         }
     }
 
-    public List<City> searchCities(String query) {
-        return cityRepository.searchCities(query);
+    public void publishCatalog() {
+        eventPublisher.publishEvent(new CityCatalogChangedEvent(catalogVersion.incrementAndGet(), cityRepository.findAll()));
+    }
+
+    public List<City> searchCities(String query, int limit) {
+        // The index is filled once the catalog is published at startup; until then fall back to the database
+        if (cityAutocompleteIndex.isEmpty()) {
+            List<City> cities = cityRepository.searchCities(query);
+            return cities.subList(0, Math.min(limit, cities.size()));
+        }
+        return cityAutocompleteIndex.search(query, limit);
+    }
+
+    public List<City> findCitiesByNames(List<String> names) {
+        if (cityAutocompleteIndex.isEmpty()) {
+            Map<String, List<City>> byName = cityRepository.findByNameIn(names).stream()
+                .collect(Collectors.groupingBy(City::getName));
+            return names.stream().flatMap(name -> byName.getOrDefault(name, List.of()).stream()).toList();
+        }
+        return cityAutocompleteIndex.findByNames(names);
     }
 
     public List<City> getCitiesByState(String state) {
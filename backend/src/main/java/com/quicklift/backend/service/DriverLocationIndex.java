@@ -0,0 +1,226 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.Driver;
+import com.quicklift.backend.model.DriverStatus;
+import com.quicklift.backend.model.VehicleType;
+import com.quicklift.backend.util.GeoMath;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resident grid index over ONLINE drivers, partitioned by vehicle type.
+ * Only drivers that are ONLINE and have a known position are indexed; everything else is removed on {@link #track}.
+ * Status changes made through {@link #track} and {@link #remove} inside a transaction are applied only once it commits,
+ * so a rolled-back accept leaves the driver where it was. The index only sees this node's writes; see
+ * {@code TripService} for multi-node deployments.
+ */
+@Component
+public class DriverLocationIndex {
+    static final double CELL_DEGREES = 0.01;
+    // Coarser grid for supply counts, shared with SurgePricingService
+    static final double SUPPLY_CELL_DEGREES = 0.05;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<VehicleType, Map<Long, Set<Entry>>> cellsByType = new EnumMap<>(VehicleType.class);
+    private final Map<Long, Integer> supplyByCell = new ConcurrentHashMap<>();
+
+    public DriverLocationIndex() {
+        for (VehicleType type : VehicleType.values()) {
+            cellsByType.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Indexes or drops a driver according to its status and position. The driver's state is captured now and applied
+     * after the current transaction commits.
+     */
+    public void track(Driver driver) {
+        if (driver == null || driver.getId() == null) {
+            return;
+        }
+        long driverId = driver.getId();
+        if (driver.getStatus() == DriverStatus.ONLINE && driver.getVehicleType() != null
+            && driver.getCurrentLatitude() != null && driver.getCurrentLongitude() != null) {
+            VehicleType vehicleType = driver.getVehicleType();
+            double latitude = driver.getCurrentLatitude().doubleValue();
+            double longitude = driver.getCurrentLongitude().doubleValue();
+            afterCommit(() -> put(driverId, vehicleType, latitude, longitude));
+        } else {
+            remove(driverId);
+        }
+    }
+
+    public void put(long driverId, VehicleType vehicleType, double latitude, double longitude) {
+        Entry entry = new Entry(driverId, vehicleType, latitude, longitude,
+            GeoMath.cellKey(latitude, longitude, CELL_DEGREES));
+        // compute serialises concurrent updates for the same driver so a stale entry can never be left linked
+        entries.compute(driverId, (id, previous) -> {
+            if (previous != null) {
+                unlink(previous);
+            }
+            link(entry);
+            return entry;
+        });
+    }
+
+    // Moves an already indexed driver; drivers that are not ONLINE stay out of the index
+    public void updatePosition(long driverId, double latitude, double longitude) {
+        entries.computeIfPresent(driverId, (id, previous) -> {
+            Entry entry = new Entry(id, previous.vehicleType, latitude, longitude,
+                GeoMath.cellKey(latitude, longitude, CELL_DEGREES));
+            unlink(previous);
+            link(entry);
+            return entry;
+        });
+    }
+
+    // Applied after the current transaction commits, like track
+    public void remove(long driverId) {
+        afterCommit(() -> entries.computeIfPresent(driverId, (id, previous) -> {
+            unlink(previous);
+            return null;
+        }));
+    }
+
+    public boolean contains(long driverId) {
+        return entries.containsKey(driverId);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * ONLINE drivers of any vehicle type in the {@link #SUPPLY_CELL_DEGREES} cell with the given key.
+     */
+    public int supplyInCell(long supplyCellKey) {
+        return supplyByCell.getOrDefault(supplyCellKey, 0);
+    }
+
+    /**
+     * Returns up to {@code limit} indexed drivers of the given vehicle type within {@code radiusKm}, nearest first.
+     * Cells are scanned in rings around the pickup and the scan stops as soon as no unscanned ring can beat the current K-th best.
+     */
+    public List<NearbyDriver> findNearest(VehicleType vehicleType, double latitude, double longitude,
+                                          double radiusKm, int limit) {
+        if (vehicleType == null || limit <= 0 || radiusKm <= 0) {
+            return List.of();
+        }
+        Map<Long, Set<Entry>> cells = cellsByType.get(vehicleType);
+        int centreRow = GeoMath.cellIndex(latitude, CELL_DEGREES);
+        int centreCol = GeoMath.cellIndex(longitude, CELL_DEGREES);
+        int rowSpan = GeoMath.latCellSpan(radiusKm, CELL_DEGREES);
+        int colSpan = GeoMath.lonCellSpan(radiusKm, latitude, CELL_DEGREES);
+        double minCellKm = CELL_DEGREES * Math.min(GeoMath.KM_PER_DEGREE_LAT,
+            GeoMath.kmPerDegreeLon(Math.abs(latitude) + rowSpan * CELL_DEGREES));
+
+        PriorityQueue<NearbyDriver> best = new PriorityQueue<>(limit + 1,
+            Comparator.comparingDouble(NearbyDriver::distanceKm).reversed());
+        int maxRing = Math.max(rowSpan, colSpan);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            // every point in this ring is at least (ring - 1) whole cells away from the pickup
+            if (best.size() == limit && best.peek().distanceKm() <= (ring - 1) * minCellKm) {
+                break;
+            }
+            for (int dRow = -Math.min(ring, rowSpan); dRow <= Math.min(ring, rowSpan); dRow++) {
+                boolean edgeRow = Math.abs(dRow) == ring;
+                int step = edgeRow ? 1 : 2 * ring;
+                for (int dCol = -ring; dCol <= ring; dCol += step) {
+                    if (Math.abs(dCol) > colSpan) {
+                        continue;
+                    }
+                    Set<Entry> cell = cells.get(GeoMath.cellKey(centreRow + dRow, centreCol + dCol));
+                    if (cell != null) {
+                        collect(cell, latitude, longitude, radiusKm, limit, best);
+                    }
+                }
+            }
+        }
+
+        List<NearbyDriver> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(NearbyDriver::distanceKm));
+        return Collections.unmodifiableList(result);
+    }
+
+    public void clear() {
+        entries.clear();
+        cellsByType.values().forEach(Map::clear);
+        supplyByCell.clear();
+    }
+
+    private static void collect(Set<Entry> cell, double latitude, double longitude, double radiusKm, int limit,
+                                PriorityQueue<NearbyDriver> best) {
+        for (Entry entry : cell) {
+            double distance = GeoMath.haversineKm(latitude, longitude, entry.latitude, entry.longitude);
+            if (distance > radiusKm) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(new NearbyDriver(entry.driverId, distance));
+            } else if (distance < best.peek().distanceKm()) {
+                best.poll();
+                best.add(new NearbyDriver(entry.driverId, distance));
+            }
+        }
+    }
+
+    private void link(Entry entry) {
+        cellsByType.get(entry.vehicleType).compute(entry.cellKey, (key, cell) -> {
+            Set<Entry> target = cell != null ? cell : ConcurrentHashMap.newKeySet();
+            target.add(entry);
+            return target;
+        });
+        supplyByCell.merge(GeoMath.cellKey(entry.latitude, entry.longitude, SUPPLY_CELL_DEGREES), 1, Integer::sum);
+    }
+
+    private void unlink(Entry entry) {
+        cellsByType.get(entry.vehicleType).computeIfPresent(entry.cellKey, (key, cell) -> {
+            cell.remove(entry);
+            return cell.isEmpty() ? null : cell;
+        });
+        supplyByCell.computeIfPresent(GeoMath.cellKey(entry.latitude, entry.longitude, SUPPLY_CELL_DEGREES),
+            (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    public record NearbyDriver(long driverId, double distanceKm) {}
+
+    private static final class Entry {
+        private final long driverId;
+        private final VehicleType vehicleType;
+        private final double latitude;
+        private final double longitude;
+        private final long cellKey;
+
+        private Entry(long driverId, VehicleType vehicleType, double latitude, double longitude, long cellKey) {
+            this.driverId = driverId;
+            this.vehicleType = vehicleType;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cellKey = cellKey;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.Trip;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ingestion stage for driver GPS pings arriving over STOMP.
+ * Publish rights are cached per WebSocket session, pings are coalesced into a latest-position table
+ * and the table is flushed to {@code drivers} in periodic JDBC batches.
+ * <p>
+ * A trip's grants are dropped once a transition that takes the trip away from its driver commits. Only grants on this
+ * instance can be dropped that way, so with the {@code relay} or {@code cluster} broker modes a grant is cached for
+ * {@code app.location.cluster-authorization-ttl-seconds} at most, bounding how long another instance's driver
+ * session keeps publishing after the transition.
+ */
+@Service
+public class DriverLocationIngestionService {
+    static final String UPDATE_POSITION_SQL =
+        "UPDATE drivers SET current_latitude = ?, current_longitude = ? WHERE id = ?";
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverLocationIngestionService.class);
+
+    private final TripService tripService;
+    private final JdbcTemplate jdbcTemplate;
+    private final DriverLocationIndex driverLocationIndex;
+    private final long authorizationTtlMillis;
+    private final int flushBatchSize;
+
+    private final Map<String, Map<Long, PublishGrant>> grantsBySession = new ConcurrentHashMap<>();
+    private final Map<Long, Position> pendingPositions = new ConcurrentHashMap<>();
+
+    public DriverLocationIngestionService(
+        TripService tripService,
+        JdbcTemplate jdbcTemplate,
+        DriverLocationIndex driverLocationIndex,
+        @Value("${app.location.authorization-ttl-seconds:60}") long authorizationTtlSeconds,
+        @Value("${app.location.flush-batch-size:500}") int flushBatchSize,
+        @Value("${app.websocket.broker.mode:simple}") String brokerMode,
+        @Value("${app.location.cluster-authorization-ttl-seconds:5}") long clusterAuthorizationTtlSeconds
+    ) {
+        this.tripService = tripService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.driverLocationIndex = driverLocationIndex;
+        boolean singleNode = brokerMode == null || "simple".equals(brokerMode);
+        this.authorizationTtlMillis = 1000 * (singleNode
+            ? authorizationTtlSeconds
+            : Math.min(authorizationTtlSeconds, clusterAuthorizationTtlSeconds));
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    /**
+     * Returns the driver id allowed to publish for the trip, loading the trip only on the first ping of a session
+     * or after the cached grant expires.
+     */
+    public long authorize(String sessionId, Long tripId, String username) {
+        long now = System.currentTimeMillis();
+        Map<Long, PublishGrant> grants = sessionId != null
+            ? grantsBySession.computeIfAbsent(sessionId, ignored -> new ConcurrentHashMap<>())
+            : null;
+        PublishGrant grant = grants != null ? grants.get(tripId) : null;
+        if (grant != null && grant.expiresAt() > now && grant.username().equals(username)) {
+            return grant.driverId();
+        }
+
+        Trip trip = tripService.findById(tripId).orElseThrow(() -> new IllegalArgumentException("Trip not found"));
+        if (username == null || trip.getDriver() == null
+            || !trip.getDriver().getUser().getUsername().equals(username)) {
+            throw new org.springframework.security.access.AccessDeniedException("Cannot publish location for this trip");
+        }
+        long driverId = trip.getDriver().getId();
+        if (grants != null) {
+            grants.put(tripId, new PublishGrant(driverId, username, now + authorizationTtlMillis));
+        }
+        return driverId;
+    }
+
+    public void record(long driverId, BigDecimal latitude, BigDecimal longitude) {
+        if (latitude == null || longitude == null) {
+            return;
+        }
+        double lat = latitude.doubleValue();
+        double lon = longitude.doubleValue();
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new IllegalArgumentException("Invalid coordinates");
+        }
+        // Later pings simply overwrite earlier ones until the next flush
+        pendingPositions.put(driverId, new Position(lat, lon));
+        driverLocationIndex.updatePosition(driverId, lat, lon);
+    }
+
+    @Scheduled(fixedDelayString = "${app.location.flush-interval-ms:2000}")
+    public void flush() {
+        if (pendingPositions.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(Math.min(pendingPositions.size(), flushBatchSize));
+        for (Map.Entry<Long, Position> entry : pendingPositions.entrySet()) {
+            // remove(key, value) leaves a newer ping in place for the next flush
+            if (pendingPositions.remove(entry.getKey(), entry.getValue())) {
+                batch.add(new Object[]{
+                    BigDecimal.valueOf(entry.getValue().latitude()),
+                    BigDecimal.valueOf(entry.getValue().longitude()),
+                    entry.getKey()
+                });
+            }
+            if (batch.size() >= flushBatchSize) {
+                write(batch);
+                batch = new ArrayList<>(flushBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // fallbackExecution covers transitions made outside a transaction
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTripDriverReleased(TripDriverReleasedEvent event) {
+        for (Map<Long, PublishGrant> grants : grantsBySession.values()) {
+            grants.remove(event.tripId());
+        }
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        grantsBySession.remove(event.getSessionId());
+    }
+
+    int pendingCount() {
+        return pendingPositions.size();
+    }
+
+    private void write(List<Object[]> batch) {
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_POSITION_SQL, batch);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to flush {} driver positions: {}", batch.size(), e.getMessage());
+            for (Object[] row : batch) {
+                pendingPositions.putIfAbsent((Long) row[2],
+                    new Position(((BigDecimal) row[0]).doubleValue(), ((BigDecimal) row[1]).doubleValue()));
+            }
+        }
+    }
+
+    private record PublishGrant(long driverId, String username, long expiresAt) {}
+
+    private record Position(double latitude, double longitude) {}
+}
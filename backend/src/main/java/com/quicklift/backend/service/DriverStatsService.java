@@ -0,0 +1,122 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.DriverStats;
+import com.quicklift.backend.repository.DriverStatsRepository;
+import com.quicklift.backend.repository.TripRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Maintains the driver_stats projection. Trip transitions apply deltas inside their own transaction;
+ * a missing row is rebuilt from the trips table, which already reflects the change being applied.
+ * Two transactions can rebuild the same missing row at once: the row is inserted with {@code ON CONFLICT DO NOTHING},
+ * and the one that loses applies its delta to the winner's row instead of failing the trip transition.
+ */
+@Service
+public class DriverStatsService {
+
+    private final DriverStatsRepository driverStatsRepository;
+    private final TripRepository tripRepository;
+
+    public DriverStatsService(DriverStatsRepository driverStatsRepository, TripRepository tripRepository) {
+        this.driverStatsRepository = driverStatsRepository;
+        this.tripRepository = tripRepository;
+    }
+
+    @Transactional
+    public void tripAccepted(Long driverId) {
+        apply(driverId, BigDecimal.ZERO, BigDecimal.ZERO, 0, 1, 0);
+    }
+
+    @Transactional
+    public void tripCompleted(Long driverId, BigDecimal fare) {
+        apply(driverId, fare != null ? fare : BigDecimal.ZERO, BigDecimal.ZERO, 0, -1, 1);
+    }
+
+    @Transactional
+    public void tripCancelled(Long driverId, boolean wasActive) {
+        apply(driverId, BigDecimal.ZERO, BigDecimal.ZERO, 0, wasActive ? -1 : 0, 1);
+    }
+
+    @Transactional
+    public void tripRated(Long driverId, BigDecimal rating) {
+        apply(driverId, BigDecimal.ZERO, rating, 1, 0, 0);
+    }
+
+    @Transactional
+    public DriverStats getOrRebuild(Long driverId) {
+        return driverStatsRepository.findById(driverId).orElseGet(() -> {
+            DriverStats stats = rebuild(driverId);
+            return stats != null ? stats : driverStatsRepository.findById(driverId).orElseThrow();
+        });
+    }
+
+    @Transactional
+    public void delete(Long driverId) {
+        driverStatsRepository.deleteByDriverId(driverId);
+    }
+
+    public static BigDecimal averageRating(DriverStats stats) {
+        if (stats.getRatingCount() <= 0) {
+            return BigDecimal.ZERO;
+        }
+        return stats.getRatingSum().divide(BigDecimal.valueOf(stats.getRatingCount()), 2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Inserts the row rebuilt from the trips table; null when another transaction inserted it first.
+     */
+    DriverStats rebuild(Long driverId) {
+        Object[] aggregate = tripRepository.getDriverStatsAggregate(driverId);
+        // Some providers wrap a single multi-column row in an outer array
+        if (aggregate != null && aggregate.length == 1 && aggregate[0] instanceof Object[] row) {
+            aggregate = row;
+        }
+        DriverStats stats = new DriverStats(driverId);
+        if (aggregate != null && aggregate.length >= 5) {
+            stats.setEarnings(toBigDecimal(aggregate[0]));
+            stats.setRatingSum(toBigDecimal(aggregate[1]));
+            stats.setRatingCount(toLong(aggregate[2]));
+            stats.setActiveTrips(toLong(aggregate[3]));
+            stats.setHistoryTrips(toLong(aggregate[4]));
+        }
+        int inserted = driverStatsRepository.insertIfAbsent(driverId, stats.getEarnings(), stats.getRatingSum(),
+            stats.getRatingCount(), stats.getActiveTrips(), stats.getHistoryTrips());
+        return inserted > 0 ? stats : null;
+    }
+
+    private void apply(Long driverId, BigDecimal earnings, BigDecimal ratingSum, long ratingCount,
+                       long activeTrips, long historyTrips) {
+        if (driverId == null) {
+            return;
+        }
+        int updated = driverStatsRepository.applyDelta(driverId, earnings, ratingSum, ratingCount, activeTrips, historyTrips);
+        if (updated == 0 && rebuild(driverId) == null) {
+            driverStatsRepository.applyDelta(driverId, earnings, ratingSum, ratingCount, activeTrips, historyTrips);
+        }
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) return BigDecimal.ZERO;
+        if (value instanceof BigDecimal bd) return bd;
+        if (value instanceof Number num) return BigDecimal.valueOf(num.doubleValue());
+        try {
+            return new BigDecimal(value.toString());
+        } catch (Exception e) {
+            return BigDecimal.ZERO;
+        }
+    }
+
+    private static long toLong(Object value) {
+        if (value == null) return 0L;
+        if (value instanceof Number num) return num.longValue();
+        try {
+            return Long.parseLong(value.toString());
+        } catch (Exception e) {
+            return 0L;
+        }
+    }
+}
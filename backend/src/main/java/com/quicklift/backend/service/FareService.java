@@ -1,51 +1,105 @@
 package com.quicklift.backend.service;
 
 import com.quicklift.backend.dto.TripRequest;
+import com.quicklift.backend.model.VehicleType;
+import com.quicklift.backend.util.GeoMath;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 
+/**
+ * Fare engine. Distances are plain doubles and money is fixed-point paise (1/100 rupee) in a {@code long};
+ * {@link BigDecimal} only appears at the API boundary. Rates come from the compiled {@link TariffTable}.
+ */
 @Service
 public class FareService {
 
-    private static final double EARTH_RADIUS_KM = 6371;
-    
-    // Per-kilometer rate in rupees
-    private static final BigDecimal RATE_PER_KM = new BigDecimal("11.00");
+    private final TariffService tariffService;
+    private final SurgePricingService surgePricingService;
+
+    public FareService(TariffService tariffService, SurgePricingService surgePricingService) {
+        this.tariffService = tariffService;
+        this.surgePricingService = surgePricingService;
+    }
 
     public double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        return EARTH_RADIUS_KM * c;
+        return GeoMath.haversineKm(lat1, lon1, lat2, lon2);
     }
 
-    public BigDecimal calculateFare(TripRequest request) {
+    /**
+     * Prices a single trip request, computing its distance once. The tariff is picked from the pickup's
+     * nearest city and the current local time, and the pickup cell's surge multiplier is applied on top.
+     */
+    public FareEstimate estimate(TripRequest request) {
         if (request.getPickupLatitude() == null || request.getPickupLongitude() == null ||
             request.getDestinationLatitude() == null || request.getDestinationLongitude() == null) {
-            // Cannot calculate fare without coordinates, return a default or throw exception
-            // For now, let's return a default value or handle as an error.
-            // Returning zero or a default could be misleading. Let's throw an exception.
             throw new IllegalArgumentException("Pickup/destination coordinates are required to estimate fare.");
         }
-
+        double pickupLatitude = request.getPickupLatitude().doubleValue();
+        double pickupLongitude = request.getPickupLongitude().doubleValue();
         double distance = calculateDistance(
-            request.getPickupLatitude().doubleValue(),
-            request.getPickupLongitude().doubleValue(),
+            pickupLatitude,
+            pickupLongitude,
             request.getDestinationLatitude().doubleValue(),
             request.getDestinationLongitude().doubleValue()
         );
+        TariffTable.Rate rate = tariffService.rateFor(pickupLatitude, pickupLongitude);
+        double surge = surgePricingService.multiplierAt(pickupLatitude, pickupLongitude);
+        long fare = rate.fareInPaise(distance, tariffService.estimateMinutes(distance),
+            request.getVehicleType(), surge, toPaise(request.getTolls()));
+        return new FareEstimate(toRupees(fare), distance, surge);
+    }
+
+    public BigDecimal calculateFare(TripRequest request) {
+        return estimate(request).fare();
+    }
+
+    public BigDecimal calculateFare(TariffTable.Rate rate, VehicleType vehicleType, double distance, BigDecimal tolls) {
+        return toRupees(rate.fareInPaise(distance, tariffService.estimateMinutes(distance), vehicleType, toPaise(tolls)));
+    }
 
-        BigDecimal tolls = request.getTolls() != null ? request.getTolls() : BigDecimal.ZERO;
-        return calculateFare(distance, tolls);
+    /**
+     * Batch pricing for bulk jobs under one tariff, typically resolved once per region with
+     * {@link TariffService#rateFor}. Coordinates are interleaved {@code lat, lon} pairs, so trip {@code i} runs from
+     * {@code pickups[2i], pickups[2i+1]} to {@code drops[2i], drops[2i+1]}. Results are written into the caller's
+     * arrays; {@code tollsPaise} and {@code distancesKm} may be null. Nothing is allocated per trip.
+     * Surge is a live signal and is not applied here.
+     */
+    public void estimateFares(TariffTable.Rate rate, VehicleType vehicleType, double[] pickups, double[] drops,
+                              long[] tollsPaise, long[] faresPaise, double[] distancesKm) {
+        int trips = faresPaise.length;
+        if (pickups.length < 2 * trips || drops.length < 2 * trips
+            || (tollsPaise != null && tollsPaise.length < trips)
+            || (distancesKm != null && distancesKm.length < trips)) {
+            throw new IllegalArgumentException("Coordinate, toll and distance arrays must cover every fare slot");
+        }
+        for (int i = 0; i < trips; i++) {
+            double distance = GeoMath.haversineKm(pickups[2 * i], pickups[2 * i + 1], drops[2 * i], drops[2 * i + 1]);
+            faresPaise[i] = rate.fareInPaise(distance, tariffService.estimateMinutes(distance), vehicleType,
+                tollsPaise != null ? tollsPaise[i] : 0L);
+            if (distancesKm != null) {
+                distancesKm[i] = distance;
+            }
+        }
     }
 
-    public BigDecimal calculateFare(double distance, BigDecimal tolls) {
-        BigDecimal distanceCost = BigDecimal.valueOf(distance).multiply(RATE_PER_KM);
-        return distanceCost.add(tolls).setScale(2, RoundingMode.HALF_UP);
+    public long[] estimateFares(TariffTable.Rate rate, VehicleType vehicleType, double[] pickups, double[] drops) {
+        long[] fares = new long[pickups.length / 2];
+        estimateFares(rate, vehicleType, pickups, drops, null, fares, null);
+        return fares;
     }
-} 
\ No newline at end of file
+
+    public static long toPaise(BigDecimal rupees) {
+        if (rupees == null) {
+            return 0L;
+        }
+        return rupees.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toRupees(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    public record FareEstimate(BigDecimal fare, double distanceKm, double surgeMultiplier) {}
+}
@@ -0,0 +1,157 @@
+package com.quicklift.backend.service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Populated places from a GeoNames-style TSV file, memory-mapped read-only.
+ * Only coordinates and field offsets are held on the heap; names are decoded from the mapping on demand.
+ */
+final class GazetteerFile {
+    private static final int NAME = 1;
+    private static final int LATITUDE = 4;
+    private static final int LONGITUDE = 5;
+    private static final int FEATURE_CLASS = 6;
+    private static final int COUNTRY_CODE = 8;
+    private static final int ADMIN1_CODE = 10;
+
+    private final MappedByteBuffer buffer;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final int[] lineOffsets;
+    private final int count;
+
+    private GazetteerFile(MappedByteBuffer buffer, double[] latitudes, double[] longitudes, int[] lineOffsets, int count) {
+        this.buffer = buffer;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.lineOffsets = lineOffsets;
+        this.count = count;
+    }
+
+    static GazetteerFile open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Gazetteer file is larger than 2 GB: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        int capacity = 1024;
+        double[] latitudes = new double[capacity];
+        double[] longitudes = new double[capacity];
+        int[] lineOffsets = new int[capacity];
+        int count = 0;
+        int limit = buffer.limit();
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = indexOf(buffer, (byte) '\n', lineStart, limit);
+            if (isPopulatedPlace(buffer, lineStart, lineEnd)) {
+                double latitude = parseDouble(buffer, lineStart, lineEnd, LATITUDE);
+                double longitude = parseDouble(buffer, lineStart, lineEnd, LONGITUDE);
+                if (!Double.isNaN(latitude) && !Double.isNaN(longitude)) {
+                    if (count == capacity) {
+                        capacity *= 2;
+                        latitudes = Arrays.copyOf(latitudes, capacity);
+                        longitudes = Arrays.copyOf(longitudes, capacity);
+                        lineOffsets = Arrays.copyOf(lineOffsets, capacity);
+                    }
+                    latitudes[count] = latitude;
+                    longitudes[count] = longitude;
+                    lineOffsets[count] = lineStart;
+                    count++;
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return new GazetteerFile(buffer, latitudes, longitudes, lineOffsets, count);
+    }
+
+    int size() {
+        return count;
+    }
+
+    double[] latitudes() {
+        return latitudes;
+    }
+
+    double[] longitudes() {
+        return longitudes;
+    }
+
+    String name(int place) {
+        return field(place, NAME);
+    }
+
+    String countryCode(int place) {
+        return field(place, COUNTRY_CODE);
+    }
+
+    String admin1Code(int place) {
+        return field(place, ADMIN1_CODE);
+    }
+
+    private String field(int place, int field) {
+        int lineStart = lineOffsets[place];
+        int lineEnd = indexOf(buffer, (byte) '\n', lineStart, buffer.limit());
+        return decode(buffer, lineStart, lineEnd, field);
+    }
+
+    private static boolean isPopulatedPlace(MappedByteBuffer buffer, int lineStart, int lineEnd) {
+        int start = fieldStart(buffer, lineStart, lineEnd, FEATURE_CLASS);
+        return start >= 0 && start < lineEnd && buffer.get(start) == 'P';
+    }
+
+    private static double parseDouble(MappedByteBuffer buffer, int lineStart, int lineEnd, int field) {
+        String value = decode(buffer, lineStart, lineEnd, field);
+        if (value == null || value.isEmpty()) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static String decode(MappedByteBuffer buffer, int lineStart, int lineEnd, int field) {
+        int start = fieldStart(buffer, lineStart, lineEnd, field);
+        if (start < 0) {
+            return null;
+        }
+        int end = indexOf(buffer, (byte) '\t', start, lineEnd);
+        if (end > start && buffer.get(end - 1) == '\r') {
+            end--;
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int fieldStart(MappedByteBuffer buffer, int lineStart, int lineEnd, int field) {
+        int position = lineStart;
+        for (int i = 0; i < field; i++) {
+            position = indexOf(buffer, (byte) '\t', position, lineEnd);
+            if (position >= lineEnd) {
+                return -1;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    private static int indexOf(MappedByteBuffer buffer, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return to;
+    }
+}
@@ -0,0 +1,17 @@
+package com.quicklift.backend.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Upstream geocoder behind {@link GeocodingService}. Results are passed through to clients as returned.
+ */
+public interface GeocodingProvider {
+
+    /**
+     * Returns the place at the given coordinates, or {@code null} when the provider has nothing for them.
+     */
+    Map<String, Object> reverse(double latitude, double longitude);
+
+    List<Map<String, Object>> search(String query, int limit);
+}
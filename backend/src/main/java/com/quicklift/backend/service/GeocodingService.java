@@ -0,0 +1,150 @@
+package com.quicklift.backend.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caching gateway in front of the upstream geocoder.
+ * Identical lookups share one in-flight upstream call, and results are kept in bounded TTL caches
+ * keyed by coordinates rounded to four decimals (about 11 m) or by the normalized search text.
+ */
+@Service
+public class GeocodingService {
+    static final int SEARCH_LIMIT = 10;
+    private static final double COORDINATE_SCALE = 10_000d;
+
+    private final GeocodingProvider provider;
+    private final ExecutorService upstreamExecutor;
+    private final long timeoutMillis;
+    private final AsyncCache<ReverseKey, Map<String, Object>> reverseCache;
+    private final AsyncCache<String, List<Map<String, Object>>> searchCache;
+    private final Timer reverseTimer;
+    private final Timer searchTimer;
+
+    public GeocodingService(
+        GeocodingProvider provider,
+        MeterRegistry meterRegistry,
+        @Value("${app.geocoding.cache.max-size:10000}") long maxSize,
+        @Value("${app.geocoding.cache.ttl-minutes:1440}") long ttlMinutes,
+        @Value("${app.geocoding.upstream-threads:4}") int upstreamThreads,
+        @Value("${app.geocoding.timeout-ms:8000}") long timeoutMillis
+    ) {
+        this.provider = provider;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.upstreamExecutor = Executors.newFixedThreadPool(upstreamThreads, runnable -> {
+            Thread thread = new Thread(runnable, "geocoding-upstream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AsyncCache<ReverseKey, Map<String, Object>> reverseLookups = newCache(maxSize, ttlMinutes);
+        AsyncCache<String, List<Map<String, Object>>> searchLookups = newCache(maxSize, ttlMinutes);
+        this.reverseCache = CaffeineCacheMetrics.monitor(meterRegistry, reverseLookups, "geocoding.reverse");
+        this.searchCache = CaffeineCacheMetrics.monitor(meterRegistry, searchLookups, "geocoding.search");
+        this.reverseTimer = upstreamTimer(meterRegistry, "reverse");
+        this.searchTimer = upstreamTimer(meterRegistry, "search");
+    }
+
+    public Map<String, Object> reverse(double latitude, double longitude) {
+        ReverseKey key = new ReverseKey(Math.round(latitude * COORDINATE_SCALE), Math.round(longitude * COORDINATE_SCALE));
+        return lookup(reverseCache, key, k -> timed(reverseTimer,
+            () -> provider.reverse(k.latitudeE4() / COORDINATE_SCALE, k.longitudeE4() / COORDINATE_SCALE)));
+    }
+
+    public List<Map<String, Object>> search(String query) {
+        String key = normalize(query);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        List<Map<String, Object>> places = lookup(searchCache, key,
+            k -> timed(searchTimer, () -> provider.search(k, SEARCH_LIMIT)));
+        return places != null ? places : List.of();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        upstreamExecutor.shutdownNow();
+    }
+
+    static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        return query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private <K, V> AsyncCache<K, V> newCache(long maxSize, long ttlMinutes) {
+        return Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+            .executor(upstreamExecutor)
+            .recordStats()
+            .buildAsync();
+    }
+
+    private static Timer upstreamTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("geocoding.upstream")
+            .description("Latency of upstream geocoding calls")
+            .tag("operation", operation)
+            .register(meterRegistry);
+    }
+
+    private static <V> V timed(Timer timer, Supplier<V> call) {
+        return timer.record(call);
+    }
+
+    private <K, V> V lookup(AsyncCache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> future = cache.get(key, loader);
+        try {
+            return await(future);
+        } catch (RuntimeException e) {
+            // Caffeine drops failed loads asynchronously; drop this one now so an immediate retry goes upstream
+            if (future.isCompletedExceptionally()) {
+                cache.asMap().remove(key, future);
+            }
+            throw e;
+        }
+    }
+
+    private <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Geocoding lookup interrupted", e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Geocoding lookup timed out", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException wrapped && wrapped.getCause() != null
+                ? wrapped.getCause()
+                : e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Geocoding lookup failed", cause);
+        }
+    }
+
+    private record ReverseKey(long latitudeE4, long longitudeE4) {}
+}
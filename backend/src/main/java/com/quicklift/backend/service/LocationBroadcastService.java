@@ -0,0 +1,198 @@
+package com.quicklift.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quicklift.backend.dto.LocationUpdate;
+import com.quicklift.backend.util.LocationFrameCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Broadcasts trip locations, serialized once per ping, as JSON on {@code /topic/trip/{id}/location} and, when
+ * {@code app.location.binary-frames} is on, as {@link LocationFrameCodec} frames on
+ * {@code /topic/trip/{id}/location/binary}. The binary format is opt-in so deployments whose clients only read JSON
+ * do not pay a second broker send per ping. Binary frames reach native WebSocket clients as binary messages;
+ * SockJS transports are text-only, so SockJS clients stay on JSON.
+ * With the in-process broker a trip's binary frame is only sent while a session subscribes to its binary topic.
+ * A relay or cluster broker has subscribers on other nodes that this node cannot see, so every ping is sent there.
+ */
+@Service
+public class LocationBroadcastService {
+    static final String BINARY_SUFFIX = "/binary";
+    private static final Pattern BINARY_TOPIC = Pattern.compile("/topic/trip/(\\d+)/location/binary");
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final int keyFrameInterval;
+    private final boolean binaryFrames;
+    private final long streamIdleMillis;
+    private final boolean countsSubscribers;
+
+    private final Map<Long, TripStream> streams = new ConcurrentHashMap<>();
+    // "sessionId:subscriptionId" of each binary subscription, mapped to its trip
+    private final Map<String, Long> binarySubscriptions = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> binarySubscribers = new ConcurrentHashMap<>();
+
+    public LocationBroadcastService(
+        SimpMessagingTemplate messagingTemplate,
+        ObjectMapper objectMapper,
+        @Value("${app.location.key-frame-interval:10}") int keyFrameInterval,
+        @Value("${app.location.stream-idle-ms:300000}") long streamIdleMillis,
+        @Value("${app.location.binary-frames:false}") boolean binaryFrames,
+        @Value("${app.websocket.broker.mode:simple}") String brokerMode
+    ) {
+        if (keyFrameInterval < 1) {
+            throw new IllegalArgumentException("app.location.key-frame-interval must be at least 1");
+        }
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.keyFrameInterval = keyFrameInterval;
+        this.streamIdleMillis = streamIdleMillis;
+        this.binaryFrames = binaryFrames;
+        this.countsSubscribers = brokerMode == null || "simple".equalsIgnoreCase(brokerMode.trim());
+    }
+
+    public static String topic(long tripId) {
+        return "/topic/trip/" + tripId + "/location";
+    }
+
+    public void broadcast(long tripId, LocationUpdate update) {
+        if (update.getLatitude() == null || update.getLongitude() == null) {
+            return;
+        }
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(update);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize location update", e);
+        }
+        String topic = topic(tripId);
+        if (!binaryFrames) {
+            send(topic, json, MimeTypeUtils.APPLICATION_JSON);
+            return;
+        }
+        if (countsSubscribers && !binarySubscribers.containsKey(tripId)) {
+            // Nobody decodes this stream, so the next subscriber's first frame is a fresh key frame
+            streams.remove(tripId);
+            send(topic, json, MimeTypeUtils.APPLICATION_JSON);
+            return;
+        }
+        long now = System.currentTimeMillis();
+        LocationFrameCodec.Point point = LocationFrameCodec.Point.of(
+            update.getLatitude().doubleValue(),
+            update.getLongitude().doubleValue(),
+            update.getTimestamp() != null ? update.getTimestamp() : now,
+            update.getHeading(),
+            update.getSpeed()
+        );
+        TripStream stream = streams.computeIfAbsent(tripId, id -> new TripStream());
+        // Frames must enter the broker in sequence order, or every delta after a swap is discarded by clients
+        synchronized (stream) {
+            byte[] frame = stream.next(point, now);
+            send(topic, json, MimeTypeUtils.APPLICATION_JSON);
+            send(topic + BINARY_SUFFIX, frame, MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        if (!binaryFrames || destination == null || accessor.getSessionId() == null) {
+            return;
+        }
+        Matcher matcher = BINARY_TOPIC.matcher(destination);
+        if (!matcher.matches()) {
+            return;
+        }
+        long tripId = Long.parseLong(matcher.group(1));
+        if (binarySubscriptions.put(key(accessor.getSessionId(), accessor.getSubscriptionId()), tripId) == null) {
+            binarySubscribers.merge(tripId, 1, Integer::sum);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        release(binarySubscriptions.remove(key(accessor.getSessionId(), accessor.getSubscriptionId())));
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        String prefix = event.getSessionId() + ":";
+        binarySubscriptions.keySet().stream()
+            .filter(key -> key.startsWith(prefix))
+            .toList()
+            .forEach(key -> release(binarySubscriptions.remove(key)));
+    }
+
+    @Scheduled(fixedDelayString = "${app.location.stream-idle-ms:300000}")
+    public void evictIdleStreams() {
+        long cutoff = System.currentTimeMillis() - streamIdleMillis;
+        // A stream evicted mid-trip restarts with a key frame, which every client accepts
+        streams.values().removeIf(stream -> stream.lastSentAt < cutoff);
+    }
+
+    int streamCount() {
+        return streams.size();
+    }
+
+    private void release(Long tripId) {
+        if (tripId != null) {
+            binarySubscribers.computeIfPresent(tripId, (id, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private static String key(String sessionId, String subscriptionId) {
+        return sessionId + ":" + subscriptionId;
+    }
+
+    private void send(String destination, byte[] payload, MimeType contentType) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(contentType);
+        accessor.setLeaveMutable(true);
+        // Pre-serialized payload: bypasses the message converters so nothing is encoded again
+        messagingTemplate.send(destination, MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+    }
+
+    /**
+     * Encoder state of one trip; guarded by its own monitor.
+     */
+    private final class TripStream {
+        private LocationFrameCodec.Point last;
+        private int sequence = -1;
+        private int sinceKeyFrame;
+        private volatile long lastSentAt;
+
+        private byte[] next(LocationFrameCodec.Point point, long now) {
+            sequence = (sequence + 1) & 0xFFFF;
+            lastSentAt = now;
+            byte[] frame;
+            if (last != null && sinceKeyFrame < keyFrameInterval - 1 && LocationFrameCodec.canDelta(last, point)) {
+                frame = LocationFrameCodec.encodeDelta(sequence, last, point);
+                sinceKeyFrame++;
+            } else {
+                frame = LocationFrameCodec.encodeKey(sequence, point);
+                sinceKeyFrame = 0;
+            }
+            last = point;
+            return frame;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.quicklift.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class NominatimGeocodingProvider implements GeocodingProvider {
+    private static final ParameterizedTypeReference<Map<String, Object>> PLACE =
+        new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> PLACES =
+        new ParameterizedTypeReference<>() {};
+
+    private final RestTemplate restTemplate;
+    private final String baseUrl;
+    private final HttpEntity<Void> request;
+
+    public NominatimGeocodingProvider(
+        RestTemplate restTemplate,
+        @Value("${app.geocoding.nominatim.base-url:https://nominatim.openstreetmap.org}") String baseUrl,
+        @Value("${app.geocoding.nominatim.user-agent:QuickLift-App/1.0}") String userAgent
+    ) {
+        this.restTemplate = restTemplate;
+        this.baseUrl = baseUrl;
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("User-Agent", userAgent);
+        this.request = new HttpEntity<>(headers);
+    }
+
+    @Override
+    public Map<String, Object> reverse(double latitude, double longitude) {
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl)
+            .path("/reverse")
+            .queryParam("format", "json")
+            .queryParam("lat", latitude)
+            .queryParam("lon", longitude)
+            .build()
+            .toUri();
+        return restTemplate.exchange(uri, HttpMethod.GET, request, PLACE).getBody();
+    }
+
+    @Override
+    public List<Map<String, Object>> search(String query, int limit) {
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl)
+            .path("/search")
+            .queryParam("format", "json")
+            .queryParam("q", query)
+            .queryParam("limit", limit)
+            .encode()
+            .build()
+            .toUri();
+        List<Map<String, Object>> places = restTemplate.exchange(uri, HttpMethod.GET, request, PLACES).getBody();
+        return places != null ? places : List.of();
+    }
+}
@@ -1,28 +1,54 @@
 package com.quicklift.backend.service;
 
-import com.quicklift.backend.dto.NotificationResponse;
 import com.quicklift.backend.model.Notification;
 import com.quicklift.backend.model.User;
 import com.quicklift.backend.model.UserRole;
 import com.quicklift.backend.repository.NotificationRepository;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class NotificationService {
     private final NotificationRepository notificationRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationWriter notificationWriter;
+    private final UnreadNotificationCounter unreadCounter;
+    private final Validator validator;
 
-    public NotificationService(NotificationRepository notificationRepository, SimpMessagingTemplate messagingTemplate) {
+    public NotificationService(
+        NotificationRepository notificationRepository,
+        NotificationWriter notificationWriter,
+        UnreadNotificationCounter unreadCounter,
+        Validator validator
+    ) {
         this.notificationRepository = notificationRepository;
-        this.messagingTemplate = messagingTemplate;
+        this.notificationWriter = notificationWriter;
+        this.unreadCounter = unreadCounter;
+        this.validator = validator;
     }
 
-    @Transactional
+    /**
+     * Hands the notification to {@link NotificationWriter}, after the surrounding transaction commits if there is
+     * one. The returned notification has no id until the writer's batch is inserted.
+     */
     public Notification create(User user, String type, String title, String message, String targetUrl, Long tripId) {
+        Notification notification = prepare(user, type, title, message, targetUrl, tripId);
+        afterCommit(() -> enqueue(notification));
+        return notification;
+    }
+
+    /**
+     * Builds a notification for {@link #saveInTransaction} without queueing it. The writer inserts through JDBC,
+     * so the entity constraints are checked here and fail the caller the way a JPA save would.
+     */
+    public Notification prepare(User user, String type, String title, String message, String targetUrl, Long tripId) {
         Notification notification = new Notification();
         notification.setUser(user);
         notification.setType(type);
@@ -30,10 +56,16 @@ public class NotificationService {
         notification.setMessage(message);
         notification.setTargetUrl(targetUrl);
         notification.setTripId(tripId);
+        validate(notification);
+        return notification;
+    }
 
-        Notification saved = notificationRepository.save(notification);
-        messagingTemplate.convertAndSend("/topic/user/" + user.getId() + "/notifications", NotificationResponse.from(saved));
-        return saved;
+    /**
+     * Inserts prepared notifications in the current transaction instead of the write-behind queue, for callers
+     * whose own writes must not commit without them; the pushes follow the commit.
+     */
+    public void saveInTransaction(List<Notification> notifications) {
+        notificationWriter.writeInTransaction(notifications);
     }
 
     public List<Notification> findForUser(User user) {
@@ -41,7 +73,7 @@ public class NotificationService {
     }
 
     public long unreadCount(User user) {
-        return notificationRepository.countByUserIdAndReadFalse(user.getId());
+        return unreadCounter.get(user.getId());
     }
 
     @Transactional
@@ -49,6 +81,10 @@ public class NotificationService {
         Notification notification = notificationRepository.findById(notificationId)
             .orElseThrow(() -> new IllegalArgumentException("Notification not found"));
         requireAccess(notification, actor);
+        if (!notification.isRead()) {
+            Long ownerId = notification.getUser().getId();
+            afterCommit(() -> unreadCounter.read(ownerId));
+        }
         notification.setRead(true);
         return notificationRepository.save(notification);
     }
@@ -57,9 +93,40 @@ public class NotificationService {
     public List<Notification> markAllRead(User user) {
         List<Notification> unread = notificationRepository.findByUserIdAndReadFalse(user.getId());
         unread.forEach(notification -> notification.setRead(true));
+        afterCommit(() -> unreadCounter.allRead(user.getId()));
         return notificationRepository.saveAll(unread);
     }
 
+    private void validate(Notification notification) {
+        if (notification.getUser() == null || notification.getUser().getId() == null) {
+            throw new IllegalArgumentException("Notification user is required");
+        }
+        Set<ConstraintViolation<Notification>> violations = validator.validate(notification);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void enqueue(Notification notification) {
+        if (!notificationWriter.submit(notification)) {
+            // Queue is full: write this one on the caller's thread rather than lose it
+            notificationWriter.writeNow(notification);
+        }
+    }
+
     private void requireAccess(Notification notification, User actor) {
         if (actor.getRole() == UserRole.ADMIN || notification.getUser().getId().equals(actor.getId())) {
             return;
@@ -0,0 +1,279 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.dto.NotificationResponse;
+import com.quicklift.backend.model.Notification;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind queue for notifications. A single worker collects queued notifications for up to
+ * {@code app.notifications.batch-window-ms} or {@code batch-size} rows, inserts them in one JDBC batch and only
+ * then pushes each one to its user's topic, so the pushed payload always carries the row id.
+ */
+@Service
+public class NotificationWriter {
+    static final String INSERT_SQL = "INSERT INTO notifications "
+        + "(version, user_id, type, title, message, target_url, trip_id, is_read, created_at) "
+        + "VALUES (0, ?, ?, ?, ?, ?, ?, FALSE, ?)";
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationWriter.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final UnreadNotificationCounter unreadCounter;
+    private final TransactionTemplate ownTransaction;
+    private final int batchSize;
+    private final long batchWindowMillis;
+    private final BlockingQueue<Notification> queue;
+    private Thread worker;
+    private volatile boolean running;
+
+    public NotificationWriter(
+        JdbcTemplate jdbcTemplate,
+        SimpMessagingTemplate messagingTemplate,
+        UnreadNotificationCounter unreadCounter,
+        PlatformTransactionManager transactionManager,
+        @Value("${app.notifications.batch-size:200}") int batchSize,
+        @Value("${app.notifications.batch-window-ms:50}") long batchWindowMillis,
+        @Value("${app.notifications.queue-capacity:10000}") int queueCapacity
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.messagingTemplate = messagingTemplate;
+        this.unreadCounter = unreadCounter;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.batchWindowMillis = batchWindowMillis;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "notification-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Queues a notification; false when the queue is full and the caller has to write it itself.
+     */
+    public boolean submit(Notification notification) {
+        return queue.offer(notification);
+    }
+
+    /**
+     * Writes and pushes a notification on the calling thread. Runs in its own transaction because callers may be in
+     * an after-commit callback, where the finished transaction's connection is still bound; the push and the unread
+     * count follow once that transaction has committed.
+     */
+    public void writeNow(Notification notification) {
+        List<Notification> written = ownTransaction.execute(status -> write(List.of(notification), this::insert));
+        if (written != null) {
+            pushAll(written);
+        }
+    }
+
+    /**
+     * Inserts the batch in the caller's transaction, so the rows commit or roll back with the caller's own writes,
+     * and pushes them once it commits. Each insert runs under a savepoint, so a bad row is dropped without aborting
+     * the caller's transaction. Without a transaction this is a plain {@link #flush}.
+     */
+    public void writeInTransaction(List<Notification> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            flush(batch);
+            return;
+        }
+        List<Notification> written = write(batch, this::insertUnderSavepoint);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pushAll(written);
+            }
+        });
+    }
+
+    private void push(Notification notification) {
+        Long userId = notification.getUser().getId();
+        NotificationResponse response = NotificationResponse.from(notification);
+        response.setUnreadCount(unreadCounter.added(userId, 1));
+        messagingTemplate.convertAndSend("/topic/user/" + userId + "/notifications", response);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        // Whatever is still queued is written on the shutdown thread
+        List<Notification> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (int from = 0; from < rest.size(); from += batchSize) {
+            flush(rest.subList(from, Math.min(rest.size(), from + batchSize)));
+        }
+    }
+
+    int pending() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Notification first = queue.take();
+                batch.add(first);
+                // Keep collecting for a short window so a burst becomes one round trip
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchWindowMillis);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Notification next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    void flush(List<Notification> batch) {
+        // Outside a transaction the inserts are already committed when they return
+        pushAll(write(batch, this::insert));
+    }
+
+    private List<Notification> write(List<Notification> batch, Consumer<List<Notification>> inserter) {
+        List<Notification> written = batch;
+        try {
+            inserter.accept(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                logger.warn("Failed to write notification for user {}: {}", userId(batch.get(0)), e.getMessage());
+                return List.of();
+            }
+            // One bad row (e.g. a user deleted meanwhile) fails the whole batch; retry singly and drop only bad rows
+            logger.debug("Batch of {} notifications failed, retrying row by row: {}", batch.size(), e.getMessage());
+            written = insertEach(batch, inserter);
+        }
+        return written;
+    }
+
+    private void pushAll(List<Notification> written) {
+        for (Notification notification : written) {
+            try {
+                push(notification);
+            } catch (RuntimeException e) {
+                logger.debug("Failed to push notification {}: {}", notification.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private List<Notification> insertEach(List<Notification> batch, Consumer<List<Notification>> inserter) {
+        List<Notification> written = new ArrayList<>(batch.size());
+        for (Notification notification : batch) {
+            try {
+                inserter.accept(List.of(notification));
+                written.add(notification);
+            } catch (RuntimeException e) {
+                logger.warn("Dropping notification for user {}: {}", userId(notification), e.getMessage());
+            }
+        }
+        return written;
+    }
+
+    private static Long userId(Notification notification) {
+        return notification.getUser() != null ? notification.getUser().getId() : null;
+    }
+
+    // A failed statement aborts the whole transaction on PostgreSQL, so roll back to just before it instead
+    private void insertUnderSavepoint(List<Notification> batch) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                insert(batch);
+            } catch (RuntimeException e) {
+                connection.rollback(savepoint);
+                throw e;
+            }
+            connection.releaseSavepoint(savepoint);
+            return null;
+        });
+    }
+
+    private void insert(List<Notification> batch) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(INSERT_SQL, new String[] {"id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int i) throws SQLException {
+                    Notification notification = batch.get(i);
+                    statement.setLong(1, notification.getUser().getId());
+                    statement.setString(2, notification.getType());
+                    statement.setString(3, notification.getTitle());
+                    statement.setString(4, notification.getMessage());
+                    statement.setString(5, notification.getTargetUrl());
+                    if (notification.getTripId() != null) {
+                        statement.setLong(6, notification.getTripId());
+                    } else {
+                        statement.setNull(6, Types.BIGINT);
+                    }
+                    statement.setTimestamp(7, Timestamp.valueOf(notification.getCreatedAt()));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            },
+            keys
+        );
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < batch.size() && i < generated.size(); i++) {
+            Object id = generated.get(i).get("id");
+            if (id instanceof Number number) {
+                batch.get(i).setId(number.longValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.City;
+import com.quicklift.backend.util.GeoKdTree;
+import com.quicklift.backend.util.GeoMath;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Answers "nearest city/locality" reverse lookups from process memory.
+ * Seeded from the cities table via {@link CityCatalogChangedEvent} and, when configured, a GeoNames-style gazetteer file.
+ */
+@Component
+public class OfflineReverseGeocoder {
+    private static final Logger logger = LoggerFactory.getLogger(OfflineReverseGeocoder.class);
+
+    private final String gazetteerPath;
+    private final double maxDistanceKm;
+
+    private volatile CitySnapshot cities = new CitySnapshot(List.of(), new double[0], new double[0],
+        GeoKdTree.build(new double[0], new double[0], 0));
+    private volatile GazetteerSnapshot gazetteer;
+
+    public OfflineReverseGeocoder(
+        @Value("${app.geocoding.offline.gazetteer-path:}") String gazetteerPath,
+        @Value("${app.geocoding.offline.max-distance-km:50}") double maxDistanceKm
+    ) {
+        this.gazetteerPath = gazetteerPath;
+        this.maxDistanceKm = maxDistanceKm;
+    }
+
+    @PostConstruct
+    public void loadGazetteer() {
+        if (gazetteerPath == null || gazetteerPath.isBlank()) {
+            return;
+        }
+        try {
+            GazetteerFile file = GazetteerFile.open(Path.of(gazetteerPath));
+            gazetteer = new GazetteerSnapshot(file, GeoKdTree.build(file.latitudes(), file.longitudes(), file.size()));
+            logger.info("Loaded {} gazetteer places from {}", file.size(), gazetteerPath);
+        } catch (Exception e) {
+            logger.warn("Skipping gazetteer {}: {}", gazetteerPath, e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onCityCatalogChanged(CityCatalogChangedEvent event) {
+        List<City> located = event.cities().stream()
+            .filter(city -> city.getLatitude() != null && city.getLongitude() != null)
+            .toList();
+        double[] latitudes = new double[located.size()];
+        double[] longitudes = new double[located.size()];
+        for (int i = 0; i < located.size(); i++) {
+            latitudes[i] = located.get(i).getLatitude().doubleValue();
+            longitudes[i] = located.get(i).getLongitude().doubleValue();
+        }
+        cities = new CitySnapshot(located, latitudes, longitudes, GeoKdTree.build(latitudes, longitudes, located.size()));
+    }
+
+    /**
+     * Returns a Nominatim-shaped result for the nearest known city or gazetteer place,
+     * or empty when nothing lies within the configured distance.
+     */
+    public Optional<Map<String, Object>> reverse(double latitude, double longitude) {
+        CitySnapshot citySnapshot = cities;
+        GazetteerSnapshot gazetteerSnapshot = gazetteer;
+
+        int city = citySnapshot.tree().nearest(latitude, longitude);
+        double cityDistance = city < 0 ? Double.MAX_VALUE : GeoMath.haversineKm(latitude, longitude,
+            citySnapshot.latitudes()[city], citySnapshot.longitudes()[city]);
+        int place = gazetteerSnapshot == null ? -1 : gazetteerSnapshot.tree().nearest(latitude, longitude);
+        double placeDistance = place < 0 ? Double.MAX_VALUE : GeoMath.haversineKm(latitude, longitude,
+            gazetteerSnapshot.file().latitudes()[place], gazetteerSnapshot.file().longitudes()[place]);
+
+        if (Math.min(cityDistance, placeDistance) > maxDistanceKm) {
+            return Optional.empty();
+        }
+        if (cityDistance <= placeDistance) {
+            return Optional.of(fromCity(citySnapshot.cities().get(city), cityDistance));
+        }
+        return Optional.of(fromGazetteer(gazetteerSnapshot.file(), place, placeDistance));
+    }
+
+    /**
+     * Nearest catalog city within the configured distance; gazetteer places are not considered.
+     */
+    public Optional<City> nearestCity(double latitude, double longitude) {
+        CitySnapshot citySnapshot = cities;
+        int city = citySnapshot.tree().nearest(latitude, longitude);
+        if (city < 0 || GeoMath.haversineKm(latitude, longitude,
+                citySnapshot.latitudes()[city], citySnapshot.longitudes()[city]) > maxDistanceKm) {
+            return Optional.empty();
+        }
+        return Optional.of(citySnapshot.cities().get(city));
+    }
+
+    private static Map<String, Object> fromCity(City city, double distanceKm) {
+        Map<String, Object> address = new LinkedHashMap<>();
+        address.put("city", city.getName());
+        address.put("state", city.getState());
+        address.put("state_code", city.getStateCode());
+        address.put("country", city.getCountry());
+        address.put("country_code", city.getCountryCode() != null ? city.getCountryCode().toLowerCase(Locale.ROOT) : null);
+        return result(city.getName() + ", " + city.getState() + ", " + city.getCountry(),
+            city.getLatitude().toPlainString(), city.getLongitude().toPlainString(), address, distanceKm);
+    }
+
+    private static Map<String, Object> fromGazetteer(GazetteerFile file, int place, double distanceKm) {
+        String name = file.name(place);
+        String countryCode = file.countryCode(place);
+        Map<String, Object> address = new LinkedHashMap<>();
+        address.put("city", name);
+        address.put("admin1_code", file.admin1Code(place));
+        address.put("country_code", countryCode != null ? countryCode.toLowerCase(Locale.ROOT) : null);
+        return result(countryCode != null && !countryCode.isEmpty() ? name + ", " + countryCode : name,
+            String.valueOf(file.latitudes()[place]), String.valueOf(file.longitudes()[place]), address, distanceKm);
+    }
+
+    private static Map<String, Object> result(String displayName, String latitude, String longitude,
+                                              Map<String, Object> address, double distanceKm) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("display_name", displayName);
+        result.put("lat", latitude);
+        result.put("lon", longitude);
+        result.put("address", address);
+        result.put("distance_km", Math.round(distanceKm * 100) / 100.0);
+        result.put("source", "offline");
+        return result;
+    }
+
+    private record CitySnapshot(List<City> cities, double[] latitudes, double[] longitudes, GeoKdTree tree) {}
+
+    private record GazetteerSnapshot(GazetteerFile file, GeoKdTree tree) {}
+}
@@ -0,0 +1,265 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.Trip;
+import com.quicklift.backend.model.TripStatus;
+import com.quicklift.backend.model.VehicleType;
+import com.quicklift.backend.util.GeoMath;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory book of REQUESTED trips used by the driver "available trips" feed.
+ * Unassigned requests are keyed by vehicle type and pickup cell; requests sent to a specific driver are kept per driver.
+ * Changes made inside a transaction are applied only once it commits, so a rolled-back accept or cancel leaves the
+ * request in the book. The book only sees this node's writes; see {@code TripService} for multi-node deployments.
+ */
+@Component
+public class OpenTripRequestBook {
+    static final double CELL_DEGREES = 0.02;
+
+    private static final Comparator<OpenRequest> OLDEST_FIRST =
+        Comparator.comparingLong(OpenRequest::requestedAt).thenComparingLong(OpenRequest::tripId);
+
+    private final Map<Long, OpenRequest> requests = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableSet<OpenRequest>> assignedByDriver = new ConcurrentHashMap<>();
+    private final Map<VehicleType, NavigableSet<OpenRequest>> unassignedByType = new EnumMap<>(VehicleType.class);
+    private final Map<VehicleType, NavigableSet<OpenRequest>> unlocatedByType = new EnumMap<>(VehicleType.class);
+    private final Map<VehicleType, Map<Long, Set<OpenRequest>>> cellsByType = new EnumMap<>(VehicleType.class);
+    private final Map<VehicleType, AtomicInteger> unassignedCounts = new EnumMap<>(VehicleType.class);
+    // Open requests per surge cell, shared with SurgePricingService
+    private final Map<Long, Integer> demandByCell = new ConcurrentHashMap<>();
+
+    public OpenTripRequestBook() {
+        for (VehicleType type : VehicleType.values()) {
+            unassignedByType.put(type, new ConcurrentSkipListSet<>(OLDEST_FIRST));
+            unlocatedByType.put(type, new ConcurrentSkipListSet<>(OLDEST_FIRST));
+            cellsByType.put(type, new ConcurrentHashMap<>());
+            unassignedCounts.put(type, new AtomicInteger());
+        }
+    }
+
+    /**
+     * Adds or re-files a trip. Anything that is no longer REQUESTED is dropped from the book. The trip's state is
+     * captured now and filed after the current transaction commits.
+     */
+    public void open(Trip trip) {
+        if (trip == null || trip.getId() == null) {
+            return;
+        }
+        if (trip.getStatus() != TripStatus.REQUESTED || trip.getRequestedVehicleType() == null) {
+            close(trip.getId());
+            return;
+        }
+        boolean located = trip.getPickupLatitude() != null && trip.getPickupLongitude() != null;
+        double latitude = located ? trip.getPickupLatitude().doubleValue() : Double.NaN;
+        double longitude = located ? trip.getPickupLongitude().doubleValue() : Double.NaN;
+        OpenRequest request = new OpenRequest(
+            trip.getId(),
+            trip.getRequestedVehicleType(),
+            latitude,
+            longitude,
+            located ? GeoMath.cellKey(latitude, longitude, CELL_DEGREES) : 0L,
+            trip.getDriver() != null ? trip.getDriver().getId() : null,
+            trip.getRequestedAt() != null ? trip.getRequestedAt().toInstant(ZoneOffset.UTC).toEpochMilli() : 0L
+        );
+        afterCommit(() -> requests.compute(request.tripId(), (id, previous) -> {
+            if (previous != null) {
+                unlink(previous);
+            }
+            link(request);
+            return request;
+        }));
+    }
+
+    public void close(Long tripId) {
+        if (tripId == null) {
+            return;
+        }
+        afterCommit(() -> requests.computeIfPresent(tripId, (id, previous) -> {
+            unlink(previous);
+            return null;
+        }));
+    }
+
+    /**
+     * Returns one page of trip ids the driver may accept: requests sent to them first, then unassigned requests
+     * for their vehicle type, nearest first when the driver's position is known and oldest first otherwise.
+     */
+    public List<Long> findVisible(long driverId, VehicleType vehicleType, Double latitude, Double longitude,
+                                  double radiusKm, int page, int size) {
+        int offset = Math.max(page, 0) * Math.max(size, 0);
+        int wanted = offset + Math.max(size, 0);
+        List<OpenRequest> visible = new ArrayList<>(Math.min(wanted, 64));
+        for (OpenRequest request : assignedByDriver.getOrDefault(driverId, emptySet())) {
+            if (visible.size() >= wanted) {
+                break;
+            }
+            visible.add(request);
+        }
+        if (vehicleType != null && visible.size() < wanted) {
+            if (latitude != null && longitude != null) {
+                visible.addAll(nearest(vehicleType, latitude, longitude, radiusKm, wanted - visible.size()));
+                appendOldest(unlocatedByType.get(vehicleType), visible, wanted);
+            } else {
+                appendOldest(unassignedByType.get(vehicleType), visible, wanted);
+            }
+        }
+        if (offset >= visible.size()) {
+            return List.of();
+        }
+        return visible.subList(offset, Math.min(wanted, visible.size())).stream()
+            .map(OpenRequest::tripId)
+            .toList();
+    }
+
+    public long countVisible(long driverId, VehicleType vehicleType, Double latitude, Double longitude, double radiusKm) {
+        long count = assignedByDriver.getOrDefault(driverId, emptySet()).size();
+        if (vehicleType == null) {
+            return count;
+        }
+        if (latitude == null || longitude == null) {
+            return count + unassignedCounts.get(vehicleType).get();
+        }
+        return count + nearest(vehicleType, latitude, longitude, radiusKm, Integer.MAX_VALUE).size()
+            + unlocatedByType.get(vehicleType).size();
+    }
+
+    public int size() {
+        return requests.size();
+    }
+
+    /**
+     * Located open requests of any vehicle type in the {@link DriverLocationIndex#SUPPLY_CELL_DEGREES} cell with the given key.
+     */
+    public int demandInCell(long supplyCellKey) {
+        return demandByCell.getOrDefault(supplyCellKey, 0);
+    }
+
+    public Set<Long> demandCells() {
+        return java.util.Collections.unmodifiableSet(demandByCell.keySet());
+    }
+
+    private List<OpenRequest> nearest(VehicleType vehicleType, double latitude, double longitude,
+                                      double radiusKm, int limit) {
+        Map<Long, Set<OpenRequest>> cells = cellsByType.get(vehicleType);
+        int centreRow = GeoMath.cellIndex(latitude, CELL_DEGREES);
+        int centreCol = GeoMath.cellIndex(longitude, CELL_DEGREES);
+        int rowSpan = GeoMath.latCellSpan(radiusKm, CELL_DEGREES);
+        int colSpan = GeoMath.lonCellSpan(radiusKm, latitude, CELL_DEGREES);
+        List<Candidate> candidates = new ArrayList<>();
+        for (int dRow = -rowSpan; dRow <= rowSpan; dRow++) {
+            for (int dCol = -colSpan; dCol <= colSpan; dCol++) {
+                Set<OpenRequest> cell = cells.get(GeoMath.cellKey(centreRow + dRow, centreCol + dCol));
+                if (cell == null) {
+                    continue;
+                }
+                for (OpenRequest request : cell) {
+                    double distance = GeoMath.haversineKm(latitude, longitude, request.latitude(), request.longitude());
+                    if (distance <= radiusKm) {
+                        candidates.add(new Candidate(request, distance));
+                    }
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(Candidate::distanceKm));
+        return candidates.stream().limit(limit).map(Candidate::request).toList();
+    }
+
+    private static void appendOldest(NavigableSet<OpenRequest> source, List<OpenRequest> target, int wanted) {
+        for (OpenRequest request : source) {
+            if (target.size() >= wanted) {
+                return;
+            }
+            target.add(request);
+        }
+    }
+
+    private void link(OpenRequest request) {
+        if (request.located()) {
+            demandByCell.merge(demandCellKey(request), 1, Integer::sum);
+        }
+        if (request.assignedDriverId() != null) {
+            assignedByDriver.computeIfAbsent(request.assignedDriverId(), id -> new ConcurrentSkipListSet<>(OLDEST_FIRST))
+                .add(request);
+            return;
+        }
+        unassignedByType.get(request.vehicleType()).add(request);
+        unassignedCounts.get(request.vehicleType()).incrementAndGet();
+        if (request.located()) {
+            cellsByType.get(request.vehicleType()).compute(request.cellKey(), (key, cell) -> {
+                Set<OpenRequest> target = cell != null ? cell : ConcurrentHashMap.newKeySet();
+                target.add(request);
+                return target;
+            });
+        } else {
+            unlocatedByType.get(request.vehicleType()).add(request);
+        }
+    }
+
+    private void unlink(OpenRequest request) {
+        if (request.located()) {
+            demandByCell.computeIfPresent(demandCellKey(request), (key, count) -> count > 1 ? count - 1 : null);
+        }
+        if (request.assignedDriverId() != null) {
+            assignedByDriver.computeIfPresent(request.assignedDriverId(), (id, assigned) -> {
+                assigned.remove(request);
+                return assigned.isEmpty() ? null : assigned;
+            });
+            return;
+        }
+        if (unassignedByType.get(request.vehicleType()).remove(request)) {
+            unassignedCounts.get(request.vehicleType()).decrementAndGet();
+        }
+        if (request.located()) {
+            cellsByType.get(request.vehicleType()).computeIfPresent(request.cellKey(), (key, cell) -> {
+                cell.remove(request);
+                return cell.isEmpty() ? null : cell;
+            });
+        } else {
+            unlocatedByType.get(request.vehicleType()).remove(request);
+        }
+    }
+
+    private static long demandCellKey(OpenRequest request) {
+        return GeoMath.cellKey(request.latitude(), request.longitude(), DriverLocationIndex.SUPPLY_CELL_DEGREES);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static NavigableSet<OpenRequest> emptySet() {
+        return java.util.Collections.emptyNavigableSet();
+    }
+
+    private record OpenRequest(long tripId, VehicleType vehicleType, double latitude, double longitude,
+                               long cellKey, Long assignedDriverId, long requestedAt) {
+        boolean located() {
+            return !Double.isNaN(latitude);
+        }
+    }
+
+    private record Candidate(OpenRequest request, double distanceKm) {}
+}
@@ -0,0 +1,130 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.util.GeoMath;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Demand/supply surge per {@link DriverLocationIndex#SUPPLY_CELL_DEGREES} cell.
+ * Every tick samples each cell's open requests from {@link OpenTripRequestBook} and its ONLINE drivers from
+ * {@link DriverLocationIndex} into a ring buffer, and recomputes the multiplier from the averages over the sliding
+ * window. Both are kept after commit, so accepted, cancelled and rolled-back requests stop counting as demand.
+ * Like them, the samples only cover this node's writes.
+ * Multipliers are published as an immutable map, so pricing reads are a single hash lookup.
+ */
+@Service
+public class SurgePricingService {
+
+    private static final double STEP = 0.1;
+
+    private final DriverLocationIndex driverLocationIndex;
+    private final OpenTripRequestBook openTripRequestBook;
+    private final int windowBuckets;
+    private final double requestsPerDriver;
+    private final double maxMultiplier;
+
+    // Guarded by tick()
+    private final Map<Long, CellWindow> windows = new HashMap<>();
+    private volatile Map<Long, Double> multipliers = Map.of();
+
+    public SurgePricingService(
+        DriverLocationIndex driverLocationIndex,
+        OpenTripRequestBook openTripRequestBook,
+        @Value("${app.surge.window-buckets:10}") int windowBuckets,
+        @Value("${app.surge.requests-per-driver:2.0}") double requestsPerDriver,
+        @Value("${app.surge.max-multiplier:3.0}") double maxMultiplier
+    ) {
+        if (windowBuckets < 1 || requestsPerDriver <= 0 || maxMultiplier < 1) {
+            throw new IllegalArgumentException("Invalid app.surge settings");
+        }
+        this.driverLocationIndex = driverLocationIndex;
+        this.openTripRequestBook = openTripRequestBook;
+        this.windowBuckets = windowBuckets;
+        this.requestsPerDriver = requestsPerDriver;
+        this.maxMultiplier = maxMultiplier;
+    }
+
+    /**
+     * Current multiplier for a pickup; 1.0 outside surging cells.
+     */
+    public double multiplierAt(double latitude, double longitude) {
+        Double multiplier = multipliers.get(cellKey(latitude, longitude));
+        return multiplier != null ? multiplier : 1.0;
+    }
+
+    @Scheduled(fixedRateString = "${app.surge.bucket-ms:60000}")
+    public synchronized void tick() {
+        Set<Long> cells = new HashSet<>(windows.keySet());
+        cells.addAll(openTripRequestBook.demandCells());
+        Map<Long, Double> next = new HashMap<>();
+        for (long key : cells) {
+            CellWindow window = windows.computeIfAbsent(key, k -> new CellWindow(windowBuckets));
+            window.advance(openTripRequestBook.demandInCell(key), driverLocationIndex.supplyInCell(key));
+            if (window.demand == 0) {
+                windows.remove(key);
+                continue;
+            }
+            double multiplier = multiplier(window.averageDemand(), window.averageSupply());
+            if (multiplier > 1.0) {
+                next.put(key, multiplier);
+            }
+        }
+        multipliers = Map.copyOf(next);
+    }
+
+    public int surgingCells() {
+        return multipliers.size();
+    }
+
+    double multiplier(double demand, double supply) {
+        double ratio = demand / (Math.max(supply, 1.0) * requestsPerDriver);
+        double stepped = Math.floor(ratio / STEP + 1e-9) * STEP;
+        return Math.round(Math.min(Math.max(stepped, 1.0), maxMultiplier) * 10) / 10.0;
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return GeoMath.cellKey(latitude, longitude, DriverLocationIndex.SUPPLY_CELL_DEGREES);
+    }
+
+    /**
+     * Ring buffer of per-bucket open request and driver samples with running sums.
+     */
+    private static final class CellWindow {
+        private final int[] requests;
+        private final int[] drivers;
+        private int cursor;
+        private int samples;
+        private long demand;
+        private long supply;
+
+        private CellWindow(int buckets) {
+            this.requests = new int[buckets];
+            this.drivers = new int[buckets];
+        }
+
+        private void advance(int requestsNow, int driversNow) {
+            cursor = (cursor + 1) % requests.length;
+            demand -= requests[cursor];
+            supply -= drivers[cursor];
+            requests[cursor] = requestsNow;
+            drivers[cursor] = driversNow;
+            demand += requestsNow;
+            supply += driversNow;
+            samples = Math.min(samples + 1, requests.length);
+        }
+
+        private double averageDemand() {
+            return samples == 0 ? 0.0 : (double) demand / samples;
+        }
+
+        private double averageSupply() {
+            return samples == 0 ? 0.0 : (double) supply / samples;
+        }
+    }
+}
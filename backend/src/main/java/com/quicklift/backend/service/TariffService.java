@@ -0,0 +1,123 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.Tariff;
+import com.quicklift.backend.repository.TariffRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Owns the live {@link TariffTable}. The table is recompiled from the database on a timer and after every
+ * admin change, then swapped in with a single volatile write; pricing reads whichever table is current.
+ */
+@Service
+public class TariffService {
+    private static final Logger logger = LoggerFactory.getLogger(TariffService.class);
+
+    private final TariffRepository tariffRepository;
+    private final OfflineReverseGeocoder offlineReverseGeocoder;
+    private final ZoneId zone;
+    private final double averageSpeedKmh;
+
+    private volatile TariffTable table = TariffTable.EMPTY;
+
+    public TariffService(
+        TariffRepository tariffRepository,
+        OfflineReverseGeocoder offlineReverseGeocoder,
+        @Value("${app.tariff.zone:Asia/Kolkata}") String zone,
+        @Value("${app.tariff.average-speed-kmh:25}") double averageSpeedKmh
+    ) {
+        if (averageSpeedKmh <= 0) {
+            throw new IllegalArgumentException("app.tariff.average-speed-kmh must be positive");
+        }
+        this.tariffRepository = tariffRepository;
+        this.offlineReverseGeocoder = offlineReverseGeocoder;
+        this.zone = ZoneId.of(zone);
+        this.averageSpeedKmh = averageSpeedKmh;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.tariff.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.warn("Keeping previous tariff table: {}", e.getMessage());
+        }
+    }
+
+    public TariffTable reload() {
+        TariffTable compiled = TariffTable.compile(tariffRepository.findAll());
+        table = compiled;
+        return compiled;
+    }
+
+    public TariffTable currentTable() {
+        return table;
+    }
+
+    /**
+     * Rate for a pickup at the given coordinates right now, scoped by the nearest catalog city.
+     */
+    public TariffTable.Rate rateFor(double latitude, double longitude) {
+        return rateFor(latitude, longitude, minuteOfDay());
+    }
+
+    public TariffTable.Rate rateFor(double latitude, double longitude, int minuteOfDay) {
+        TariffTable current = table;
+        return offlineReverseGeocoder.nearestCity(latitude, longitude)
+            .map(city -> current.resolve(city.getState(), city.getName(), minuteOfDay))
+            .orElseGet(() -> current.resolve(null, null, minuteOfDay));
+    }
+
+    public double estimateMinutes(double distanceKm) {
+        return distanceKm / averageSpeedKmh * 60.0;
+    }
+
+    public List<Tariff> findAll() {
+        return tariffRepository.findAll();
+    }
+
+    public Tariff findById(Long id) {
+        return tariffRepository.findById(id).orElseThrow(() -> new RuntimeException("Tariff not found"));
+    }
+
+    public Tariff save(Tariff tariff) {
+        validate(tariff);
+        Tariff saved = tariffRepository.save(tariff);
+        reload();
+        return saved;
+    }
+
+    public void delete(Long id) {
+        if (!tariffRepository.existsById(id)) {
+            throw new RuntimeException("Tariff not found");
+        }
+        tariffRepository.deleteById(id);
+        reload();
+    }
+
+    private int minuteOfDay() {
+        LocalTime now = LocalTime.now(zone);
+        return now.getHour() * 60 + now.getMinute();
+    }
+
+    private static void validate(Tariff tariff) {
+        if ((tariff.getStartMinute() == null) != (tariff.getEndMinute() == null)) {
+            throw new IllegalArgumentException("Tariff window needs both startMinute and endMinute, or neither");
+        }
+        if (tariff.getStartMinute() != null && tariff.getStartMinute().equals(tariff.getEndMinute())) {
+            throw new IllegalArgumentException("Tariff window must not be empty");
+        }
+        tariff.getVehicleMultipliers().forEach((type, multiplier) -> {
+            if (multiplier == null || multiplier.signum() <= 0) {
+                throw new IllegalArgumentException("Vehicle multiplier for " + type + " must be positive");
+            }
+        });
+    }
+}
@@ -0,0 +1,214 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.Tariff;
+import com.quicklift.backend.model.VehicleType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, compiled form of the tariffs table. Rates are held as paise so pricing never touches BigDecimal,
+ * and lookups only read final fields, so a table can be shared across threads without locking.
+ * Resolution prefers city rules over state rules over country-wide rules, and timed rules over all-day ones.
+ */
+public final class TariffTable {
+
+    /** The flat 11.00/km rate used when no tariff applies. */
+    public static final Rate FALLBACK = new Rate(0, 1100, 0, 0, -1, -1, new double[0]);
+
+    public static final TariffTable EMPTY = new TariffTable(Map.of(), Map.of(), new Rate[0]);
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final Map<String, Rate[]> byCity;
+    private final Map<String, Rate[]> byState;
+    private final Rate[] everywhere;
+
+    private TariffTable(Map<String, Rate[]> byCity, Map<String, Rate[]> byState, Rate[] everywhere) {
+        this.byCity = byCity;
+        this.byState = byState;
+        this.everywhere = everywhere;
+    }
+
+    public static TariffTable compile(List<Tariff> tariffs) {
+        List<Tariff> ordered = new ArrayList<>(tariffs);
+        // Timed rules first so they shadow the all-day rule of the same scope; id keeps the order stable
+        ordered.sort(Comparator.comparing((Tariff tariff) -> tariff.getStartMinute() == null)
+            .thenComparing(Tariff::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        Map<String, List<Rate>> byCity = new HashMap<>();
+        Map<String, List<Rate>> byState = new HashMap<>();
+        List<Rate> everywhere = new ArrayList<>();
+        for (Tariff tariff : ordered) {
+            Rate rate = Rate.of(tariff);
+            if (!isBlank(tariff.getCity())) {
+                byCity.computeIfAbsent(cityKey(tariff.getState(), tariff.getCity()), key -> new ArrayList<>()).add(rate);
+            } else if (!isBlank(tariff.getState())) {
+                byState.computeIfAbsent(normalize(tariff.getState()), key -> new ArrayList<>()).add(rate);
+            } else {
+                everywhere.add(rate);
+            }
+        }
+        return new TariffTable(freeze(byCity), freeze(byState), everywhere.toArray(new Rate[0]));
+    }
+
+    /**
+     * Returns the rate for a pickup in the given state/city (either may be null) at {@code minuteOfDay}
+     * minutes after local midnight.
+     */
+    public Rate resolve(String state, String city, int minuteOfDay) {
+        Rate rate = null;
+        if (!isBlank(city)) {
+            if (!isBlank(state)) {
+                rate = first(byCity.get(cityKey(state, city)), minuteOfDay);
+            }
+            if (rate == null) {
+                rate = first(byCity.get(cityKey(null, city)), minuteOfDay);
+            }
+        }
+        if (rate == null && !isBlank(state)) {
+            rate = first(byState.get(normalize(state)), minuteOfDay);
+        }
+        if (rate == null) {
+            rate = first(everywhere, minuteOfDay);
+        }
+        return rate != null ? rate : FALLBACK;
+    }
+
+    public int size() {
+        int size = everywhere.length;
+        for (Rate[] rates : byCity.values()) {
+            size += rates.length;
+        }
+        for (Rate[] rates : byState.values()) {
+            size += rates.length;
+        }
+        return size;
+    }
+
+    private static Rate first(Rate[] rates, int minuteOfDay) {
+        if (rates == null) {
+            return null;
+        }
+        for (Rate rate : rates) {
+            if (rate.appliesAt(minuteOfDay)) {
+                return rate;
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, Rate[]> freeze(Map<String, List<Rate>> rates) {
+        Map<String, Rate[]> frozen = new HashMap<>();
+        rates.forEach((key, value) -> frozen.put(key, value.toArray(new Rate[0])));
+        return Map.copyOf(frozen);
+    }
+
+    private static String cityKey(String state, String city) {
+        return (isBlank(state) ? "" : normalize(state)) + "|" + normalize(city);
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * One compiled tariff. Money is in paise; multipliers are indexed by {@link VehicleType#ordinal()}.
+     */
+    public static final class Rate {
+        private final long baseFarePaise;
+        private final long perKmPaise;
+        private final long perMinutePaise;
+        private final long minimumFarePaise;
+        private final int startMinute;
+        private final int endMinute;
+        private final double[] multipliers;
+
+        private Rate(long baseFarePaise, long perKmPaise, long perMinutePaise, long minimumFarePaise,
+                     int startMinute, int endMinute, double[] multipliers) {
+            this.baseFarePaise = baseFarePaise;
+            this.perKmPaise = perKmPaise;
+            this.perMinutePaise = perMinutePaise;
+            this.minimumFarePaise = minimumFarePaise;
+            this.startMinute = startMinute;
+            this.endMinute = endMinute;
+            this.multipliers = multipliers;
+        }
+
+        static Rate of(Tariff tariff) {
+            double[] multipliers = new double[VehicleType.values().length];
+            for (VehicleType type : VehicleType.values()) {
+                BigDecimal multiplier = tariff.getVehicleMultipliers() != null ? tariff.getVehicleMultipliers().get(type) : null;
+                multipliers[type.ordinal()] = multiplier != null ? multiplier.doubleValue() : 1.0;
+            }
+            boolean timed = tariff.getStartMinute() != null && tariff.getEndMinute() != null;
+            return new Rate(
+                FareService.toPaise(tariff.getBaseFare()),
+                FareService.toPaise(tariff.getPerKm()),
+                FareService.toPaise(tariff.getPerMinute()),
+                FareService.toPaise(tariff.getMinimumFare()),
+                timed ? tariff.getStartMinute() : -1,
+                timed ? tariff.getEndMinute() : -1,
+                multipliers
+            );
+        }
+
+        boolean appliesAt(int minuteOfDay) {
+            if (startMinute < 0) {
+                return true;
+            }
+            int minute = Math.floorMod(minuteOfDay, MINUTES_PER_DAY);
+            if (startMinute < endMinute) {
+                return minute >= startMinute && minute < endMinute;
+            }
+            return minute >= startMinute || minute < endMinute;
+        }
+
+        public double multiplier(VehicleType vehicleType) {
+            if (vehicleType == null || vehicleType.ordinal() >= multipliers.length) {
+                return 1.0;
+            }
+            return multipliers[vehicleType.ordinal()];
+        }
+
+        public long fareInPaise(double distanceKm, double minutes, VehicleType vehicleType, long tollsPaise) {
+            return fareInPaise(distanceKm, minutes, vehicleType, 1.0, tollsPaise);
+        }
+
+        /**
+         * Metered fare scaled by the vehicle and surge multipliers and floored at the (equally scaled) minimum,
+         * plus tolls.
+         */
+        public long fareInPaise(double distanceKm, double minutes, VehicleType vehicleType, double surge, long tollsPaise) {
+            double multiplier = multiplier(vehicleType) * surge;
+            long metered = Math.round((baseFarePaise + distanceKm * perKmPaise + minutes * perMinutePaise) * multiplier);
+            long minimum = Math.round(minimumFarePaise * multiplier);
+            return Math.max(metered, minimum) + tollsPaise;
+        }
+
+        public long baseFarePaise() {
+            return baseFarePaise;
+        }
+
+        public long perKmPaise() {
+            return perKmPaise;
+        }
+
+        public long perMinutePaise() {
+            return perMinutePaise;
+        }
+
+        public long minimumFarePaise() {
+            return minimumFarePaise;
+        }
+    }
+}
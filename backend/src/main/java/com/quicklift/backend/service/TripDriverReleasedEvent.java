@@ -0,0 +1,7 @@
+package com.quicklift.backend.service;
+
+/**
+ * Published when a trip's driver loses the trip (completed, cancelled or rejected), so per-trip grants can be dropped.
+ * Listeners should act after commit.
+ */
+public record TripDriverReleasedEvent(Long tripId) {}
@@ -0,0 +1,38 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.Trip;
+import com.quicklift.backend.model.TripEvent;
+import com.quicklift.backend.model.TripEventType;
+import com.quicklift.backend.repository.TripEventRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Records trip events in the caller's transaction. Nothing is serialized or sent here; {@link TripEventRelay}
+ * publishes the rows once the transaction has committed, so a rolled-back change never reaches clients.
+ */
+@Service
+public class TripEventOutbox {
+    private final TripEventRepository tripEventRepository;
+    private final TripEventRelay tripEventRelay;
+
+    public TripEventOutbox(TripEventRepository tripEventRepository, TripEventRelay tripEventRelay) {
+        this.tripEventRepository = tripEventRepository;
+        this.tripEventRelay = tripEventRelay;
+    }
+
+    public void append(Trip trip, TripEventType type, Long driverId) {
+        tripEventRepository.save(new TripEvent(trip.getId(), type, driverId));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tripEventRelay.requestRelay();
+                }
+            });
+        } else {
+            tripEventRelay.requestRelay();
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.dto.TripResponse;
+import com.quicklift.backend.model.Driver;
+import com.quicklift.backend.model.Notification;
+import com.quicklift.backend.model.Trip;
+import com.quicklift.backend.model.TripEvent;
+import com.quicklift.backend.model.TripStatus;
+import com.quicklift.backend.repository.DriverRepository;
+import com.quicklift.backend.repository.TripEventRepository;
+import com.quicklift.backend.repository.TripRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes {@code trip_events} rows after commit: STOMP status/request messages plus the matching notifications.
+ * Batches are read oldest-first under a row lock and deleted in the same transaction, so events go out in commit
+ * order per trip, one relay at a time across nodes. Notification rows are inserted in that transaction too, so they
+ * commit together with the delete and are pushed afterwards. Delivery is at-least-once: a batch whose delete fails
+ * to commit is sent again.
+ */
+@Service
+public class TripEventRelay {
+    private static final Logger logger = LoggerFactory.getLogger(TripEventRelay.class);
+
+    private final TripEventRepository tripEventRepository;
+    private final TripRepository tripRepository;
+    private final DriverRepository driverRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Timer lag;
+
+    private final ExecutorService wakeups = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "trip-event-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean wakeupPending = new AtomicBoolean();
+
+    public TripEventRelay(
+        TripEventRepository tripEventRepository,
+        TripRepository tripRepository,
+        DriverRepository driverRepository,
+        SimpMessagingTemplate messagingTemplate,
+        NotificationService notificationService,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        @Value("${app.outbox.batch-size:200}") int batchSize
+    ) {
+        this.tripEventRepository = tripEventRepository;
+        this.tripRepository = tripRepository;
+        this.driverRepository = driverRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.notificationService = notificationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.lag = Timer.builder("trip.events.relay.lag")
+            .description("Time from a trip event being recorded to it being published")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Asks for a relay pass soon; requests arriving while one is queued are folded into it.
+     */
+    public void requestRelay() {
+        if (wakeupPending.compareAndSet(false, true)) {
+            wakeups.execute(() -> {
+                wakeupPending.set(false);
+                relayPending();
+            });
+        }
+    }
+
+    // Safety net for wake-ups lost to a restart between commit and relay
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:5000}")
+    public synchronized void relayPending() {
+        try {
+            int relayed;
+            do {
+                relayed = Objects.requireNonNull(transactionTemplate.execute(status -> relayBatch()));
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            logger.warn("Trip event relay failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wakeups.shutdownNow();
+    }
+
+    int relayBatch() {
+        List<TripEvent> events = tripEventRepository.findOldestForRelay(PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Trip> trips = tripRepository.findAllById(events.stream().map(TripEvent::getTripId).distinct().toList())
+            .stream().collect(Collectors.toMap(Trip::getId, Function.identity()));
+        List<Long> driverIds = events.stream().map(TripEvent::getDriverId).filter(Objects::nonNull).distinct().toList();
+        Map<Long, Driver> drivers = driverIds.isEmpty() ? Map.of() : driverRepository.findAllById(driverIds)
+            .stream().collect(Collectors.toMap(Driver::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = new ArrayList<>();
+        for (TripEvent event : events) {
+            Trip trip = trips.get(event.getTripId());
+            if (trip == null) {
+                continue;
+            }
+            try {
+                publish(event, trip, event.getDriverId() != null ? drivers.get(event.getDriverId()) : null,
+                    notifications);
+                lag.record(Duration.between(event.getCreatedAt(), now).abs());
+            } catch (RuntimeException e) {
+                // One bad event must not hold back the rest of the batch
+                logger.warn("Dropping trip event {} ({}): {}", event.getId(), event.getType(), e.getMessage());
+            }
+        }
+        notificationService.saveInTransaction(notifications);
+        tripEventRepository.deleteAllInBatch(events);
+        return events.size();
+    }
+
+    private void publish(TripEvent event, Trip trip, Driver driver, List<Notification> notifications) {
+        Long tripId = trip.getId();
+        switch (event.getType()) {
+            case RIDE_REQUESTED -> {
+                messagingTemplate.convertAndSend("/topic/driver/" + event.getDriverId() + "/requests",
+                    response(trip, TripStatus.REQUESTED));
+                if (driver != null) {
+                    notifications.add(notificationService.prepare(
+                        driver.getUser(),
+                        "RIDE_REQUEST",
+                        "New ride request",
+                        trip.getUser().getUsername() + " requested a QuickLift ride.",
+                        "/driver/pending-requests",
+                        tripId
+                    ));
+                }
+            }
+            case ACCEPTED -> {
+                sendStatus(trip, event, TripStatus.ACCEPTED);
+                notifications.add(notificationService.prepare(
+                    trip.getUser(),
+                    "TRIP_ACCEPTED",
+                    "Ride accepted",
+                    (driver != null ? driver.getUser().getUsername() : "Your driver") + " accepted your ride request.",
+                    "/trips/" + tripId + "/confirm",
+                    tripId
+                ));
+            }
+            case STARTED -> {
+                sendStatus(trip, event, TripStatus.STARTED);
+                notifications.add(notificationService.prepare(
+                    trip.getUser(),
+                    "TRIP_STARTED",
+                    "Trip started",
+                    "Your QuickLift trip is now in progress.",
+                    "/trips/" + tripId,
+                    tripId
+                ));
+            }
+            case COMPLETED -> {
+                sendStatus(trip, event, TripStatus.COMPLETED);
+                notifications.add(notificationService.prepare(
+                    trip.getUser(),
+                    "TRIP_COMPLETED",
+                    "Trip completed",
+                    "Your trip is complete. Please finish payment when ready.",
+                    trip.isPaid() ? "/history" : "/payment/" + tripId,
+                    tripId
+                ));
+            }
+            case CANCELLED -> {
+                sendStatus(trip, event, TripStatus.CANCELLED);
+                if (driver != null) {
+                    notifications.add(notificationService.prepare(
+                        driver.getUser(),
+                        "TRIP_CANCELLED",
+                        "Trip cancelled",
+                        "A QuickLift trip was cancelled.",
+                        "/driver/history",
+                        tripId
+                    ));
+                }
+                notifications.add(notificationService.prepare(
+                    trip.getUser(),
+                    "TRIP_CANCELLED",
+                    "Trip cancelled",
+                    "Your QuickLift trip was cancelled.",
+                    "/history",
+                    tripId
+                ));
+            }
+            case REJECTED -> {
+                messagingTemplate.convertAndSend("/topic/trip/" + tripId + "/status", Map.of(
+                    "id", tripId,
+                    "status", "REJECTED",
+                    "driverId", event.getDriverId()
+                ));
+                notifications.add(notificationService.prepare(
+                    trip.getUser(),
+                    "TRIP_REJECTED",
+                    "Driver declined",
+                    "The driver declined your request. Please choose another driver.",
+                    "/select-driver/" + tripId,
+                    tripId
+                ));
+            }
+        }
+    }
+
+    private void sendStatus(Trip trip, TripEvent event, TripStatus status) {
+        TripResponse payload = response(trip, status);
+        messagingTemplate.convertAndSend("/topic/trip/" + trip.getId() + "/status", payload);
+        if (event.getDriverId() != null) {
+            messagingTemplate.convertAndSend("/topic/driver/" + event.getDriverId() + "/status", payload);
+        }
+    }
+
+    // The trip may have moved on since the event; the payload still reports the status this event announces
+    private static TripResponse response(Trip trip, TripStatus status) {
+        TripResponse response = TripResponse.from(trip);
+        response.setStatus(status.name());
+        return response;
+    }
+}
@@ -0,0 +1,79 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.dto.TripHistoryItem;
+import com.quicklift.backend.dto.TripHistoryPage;
+import com.quicklift.backend.repository.TripRepository;
+import com.quicklift.backend.util.TripHistoryCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Newest-first trip history in keyset pages. Each page reads one row past the requested size to tell whether
+ * another page exists; the cursor of the last returned row is handed back for the next request.
+ */
+@Service
+public class TripHistoryService {
+    private final TripRepository tripRepository;
+    private final int defaultSize;
+    private final int maxSize;
+
+    public TripHistoryService(
+        TripRepository tripRepository,
+        @Value("${app.trips.history.default-size:20}") int defaultSize,
+        @Value("${app.trips.history.max-size:100}") int maxSize
+    ) {
+        this.tripRepository = tripRepository;
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    public TripHistoryPage forUser(Long userId, String cursor, Integer size) {
+        Pageable page = probe(size);
+        TripHistoryCursor after = decode(cursor);
+        return page(after == null
+            ? tripRepository.findUserHistory(userId, page)
+            : tripRepository.findUserHistoryBefore(userId, after.requestedAt(), after.id(), page), page);
+    }
+
+    public TripHistoryPage forDriver(Long driverId, String cursor, Integer size) {
+        Pageable page = probe(size);
+        TripHistoryCursor after = decode(cursor);
+        return page(after == null
+            ? tripRepository.findDriverHistory(driverId, page)
+            : tripRepository.findDriverHistoryBefore(driverId, after.requestedAt(), after.id(), page), page);
+    }
+
+    public TripHistoryPage all(String cursor, Integer size) {
+        Pageable page = probe(size);
+        TripHistoryCursor after = decode(cursor);
+        return page(after == null
+            ? tripRepository.findHistory(page)
+            : tripRepository.findHistoryBefore(after.requestedAt(), after.id(), page), page);
+    }
+
+    private Pageable probe(Integer size) {
+        int requested = size == null ? defaultSize : size;
+        if (requested < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return PageRequest.of(0, Math.min(requested, maxSize) + 1);
+    }
+
+    private static TripHistoryCursor decode(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : TripHistoryCursor.decode(cursor);
+    }
+
+    private static TripHistoryPage page(List<TripHistoryItem> rows, Pageable probe) {
+        int size = probe.getPageSize() - 1;
+        if (rows.size() <= size) {
+            return new TripHistoryPage(rows, null);
+        }
+        List<TripHistoryItem> items = rows.subList(0, size);
+        TripHistoryItem last = items.get(size - 1);
+        return new TripHistoryPage(List.copyOf(items), new TripHistoryCursor(last.getRequestedAt(), last.getId()).encode());
+    }
+}
@@ -1,15 +1,16 @@
 package com.quicklift.backend.service;
 
 import com.quicklift.backend.dto.TripRequest;
-import com.quicklift.backend.dto.TripResponse;
 import com.quicklift.backend.model.Driver;
 import com.quicklift.backend.model.DriverStatus;
 import com.quicklift.backend.model.Trip;
+import com.quicklift.backend.model.TripEventType;
 import com.quicklift.backend.model.TripStatus;
 import com.quicklift.backend.model.User;
 import com.quicklift.backend.model.VehicleType;
 import com.quicklift.backend.repository.DriverRepository;
 import com.quicklift.backend.repository.TripRepository;
+import com.quicklift.backend.util.GeoMath;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,8 +18,12 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,10 +38,31 @@ public class TripService {
     private DriverRepository driverRepository;
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private TripEventOutbox tripEventOutbox;
 
     @Autowired
-    private NotificationService notificationService;
+    private DriverLocationIndex driverLocationIndex;
+
+    @Value("${app.dispatch.search-radius-km:5}")
+    private double dispatchSearchRadiusKm;
+
+    @Value("${app.dispatch.candidate-limit:10}")
+    private int dispatchCandidateLimit;
+
+    @Autowired
+    private OpenTripRequestBook openTripRequestBook;
+
+    @Autowired
+    private DriverStatsService driverStatsService;
+
+    @Value("${app.dispatch.request-radius-km:10}")
+    private double openRequestRadiusKm;
+
+    @Value("${app.websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Trip createTrip(Trip trip) {
@@ -45,7 +71,9 @@ public class TripService {
         if (trip.getPaymentMethod() != null) {
             trip.setPaymentMethod(normalizePaymentMethod(trip.getPaymentMethod()));
         }
-        return tripRepository.save(trip);
+        Trip savedTrip = tripRepository.save(trip);
+        openTripRequestBook.open(savedTrip);
+        return savedTrip;
     }
 
     public Optional<Trip> findById(Long id) {
@@ -64,6 +92,38 @@ public class TripService {
         return tripRepository.findByStatus(status);
     }
 
+    /**
+     * Page of REQUESTED trips the driver can accept, served from the open-request book rather than a table scan.
+     * With a relay or cluster broker there are several nodes and each book only holds its own node's requests,
+     * so the page is read from the database instead (oldest first, without the pickup radius).
+     */
+    public List<Trip> findOpenRequestsForDriver(Driver driver, int page, int size) {
+        if (!singleNodeBroker()) {
+            return tripRepository.findOpenRequestsForDriver(driver.getId(), driver.getVehicleType(),
+                PageRequest.of(page, size));
+        }
+        List<Long> tripIds = openTripRequestBook.findVisible(driver.getId(), driver.getVehicleType(),
+            toDouble(driver.getCurrentLatitude()), toDouble(driver.getCurrentLongitude()),
+            openRequestRadiusKm, page, size);
+        if (tripIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Trip> tripsById = tripRepository.findAllById(tripIds).stream()
+            .collect(Collectors.toMap(Trip::getId, Function.identity()));
+        return tripIds.stream()
+            .map(tripsById::get)
+            .filter(trip -> trip != null && trip.getStatus() == TripStatus.REQUESTED)
+            .toList();
+    }
+
+    public long countOpenRequestsForDriver(Driver driver) {
+        if (!singleNodeBroker()) {
+            return tripRepository.countOpenRequestsForDriver(driver.getId(), driver.getVehicleType());
+        }
+        return openTripRequestBook.countVisible(driver.getId(), driver.getVehicleType(),
+            toDouble(driver.getCurrentLatitude()), toDouble(driver.getCurrentLongitude()), openRequestRadiusKm);
+    }
+
     public List<Trip> findByUserIdAndStatus(Long userId, TripStatus status) {
         return tripRepository.findByUserIdAndStatus(userId, status);
     }
@@ -94,19 +154,12 @@ public class TripService {
         trip.setAcceptedAt(LocalDateTime.now());
         driver.setStatus(DriverStatus.BUSY);
         driverRepository.save(driver);
+        driverLocationIndex.track(driver);
 
         Trip updatedTrip = tripRepository.save(trip);
-        TripResponse payload = TripResponse.from(updatedTrip);
-        messagingTemplate.convertAndSend("/topic/trip/" + tripId + "/status", payload);
-        messagingTemplate.convertAndSend("/topic/driver/" + driverId + "/status", payload);
-        notificationService.create(
-            trip.getUser(),
-            "TRIP_ACCEPTED",
-            "Ride accepted",
-            driver.getUser().getUsername() + " accepted your ride request.",
-            "/trips/" + tripId + "/confirm",
-            tripId
-        );
+        openTripRequestBook.close(tripId);
+        driverStatsService.tripAccepted(driverId);
+        tripEventOutbox.append(updatedTrip, TripEventType.ACCEPTED, driverId);
         return updatedTrip;
     }
 
@@ -121,20 +174,7 @@ public class TripService {
         trip.setStatus(TripStatus.STARTED);
         trip.setStartedAt(LocalDateTime.now());
         Trip updatedTrip = tripRepository.save(trip);
-
-        TripResponse payload = TripResponse.from(updatedTrip);
-        messagingTemplate.convertAndSend("/topic/trip/" + tripId + "/status", payload);
-        if (trip.getDriver() != null) {
-            messagingTemplate.convertAndSend("/topic/driver/" + trip.getDriver().getId() + "/status", payload);
-        }
-        notificationService.create(
-            trip.getUser(),
-            "TRIP_STARTED",
-            "Trip started",
-            "Your QuickLift trip is now in progress.",
-            "/trips/" + tripId,
-            tripId
-        );
+        tripEventOutbox.append(updatedTrip, TripEventType.STARTED, driverId(trip));
         return updatedTrip;
     }
 
@@ -157,22 +197,15 @@ public class TripService {
             driver.setStatus(DriverStatus.ONLINE);
             driver.setTotalRides(driver.getTotalRides() + 1);
             driverRepository.save(driver);
+            driverLocationIndex.track(driver);
         }
 
         Trip updatedTrip = tripRepository.save(trip);
-        TripResponse payload = TripResponse.from(updatedTrip);
-        messagingTemplate.convertAndSend("/topic/trip/" + tripId + "/status", payload);
         if (trip.getDriver() != null) {
-            messagingTemplate.convertAndSend("/topic/driver/" + trip.getDriver().getId() + "/status", payload);
-        }
-        notificationService.create(
-            trip.getUser(),
-            "TRIP_COMPLETED",
-            "Trip completed",
-            "Your trip is complete. Please finish payment when ready.",
-            trip.isPaid() ? "/history" : "/payment/" + tripId,
-            tripId
-        );
+            driverStatsService.tripCompleted(trip.getDriver().getId(), fare);
+        }
+        tripEventOutbox.append(updatedTrip, TripEventType.COMPLETED, driverId(trip));
+        eventPublisher.publishEvent(new TripDriverReleasedEvent(tripId));
         return updatedTrip;
     }
 
@@ -191,30 +224,17 @@ public class TripService {
             Driver driver = trip.getDriver();
             driver.setStatus(DriverStatus.ONLINE);
             driverRepository.save(driver);
+            driverLocationIndex.track(driver);
         }
 
         Trip updatedTrip = tripRepository.save(trip);
-        TripResponse payload = TripResponse.from(updatedTrip);
-        messagingTemplate.convertAndSend("/topic/trip/" + tripId + "/status", payload);
+        openTripRequestBook.close(tripId);
         if (trip.getDriver() != null) {
-            messagingTemplate.convertAndSend("/topic/driver/" + trip.getDriver().getId() + "/status", payload);
-            notificationService.create(
-                trip.getDriver().getUser(),
-                "TRIP_CANCELLED",
-                "Trip cancelled",
-                "A QuickLift trip was cancelled.",
-                "/driver/history",
-                tripId
-            );
-        }
-        notificationService.create(
-            trip.getUser(),
-            "TRIP_CANCELLED",
-            "Trip cancelled",
-            "Your QuickLift trip was cancelled.",
-            "/history",
-            tripId
-        );
+            driverStatsService.tripCancelled(trip.getDriver().getId(),
+                previousStatus == TripStatus.ACCEPTED || previousStatus == TripStatus.STARTED);
+        }
+        tripEventOutbox.append(updatedTrip, TripEventType.CANCELLED, driverId(trip));
+        eventPublisher.publishEvent(new TripDriverReleasedEvent(tripId));
         return updatedTrip;
     }
 
@@ -222,6 +242,48 @@ public class TripService {
         return driverRepository.findByVehicleTypeAndStatus(vehicleType, DriverStatus.ONLINE);
     }
 
+    /**
+     * ONLINE drivers within the dispatch radius, nearest first, looked up in the resident location index.
+     * The index only holds the status changes made on this node, so with a relay or cluster broker the candidates
+     * are ranked from the drivers table instead.
+     */
+    public List<Driver> findNearestAvailableDrivers(VehicleType vehicleType, BigDecimal latitude, BigDecimal longitude) {
+        if (latitude == null || longitude == null) {
+            return List.of();
+        }
+        if (!singleNodeBroker()) {
+            return findNearestAvailableDriversInDatabase(vehicleType, latitude.doubleValue(), longitude.doubleValue());
+        }
+        List<Long> candidateIds = driverLocationIndex.findNearest(
+                vehicleType, latitude.doubleValue(), longitude.doubleValue(),
+                dispatchSearchRadiusKm, dispatchCandidateLimit)
+            .stream()
+            .map(DriverLocationIndex.NearbyDriver::driverId)
+            .toList();
+        if (candidateIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Driver> driversById = driverRepository.findAllById(candidateIds).stream()
+            .collect(Collectors.toMap(Driver::getId, Function.identity()));
+        // The index can briefly lag a status change, so re-check against the loaded rows
+        return candidateIds.stream()
+            .map(driversById::get)
+            .filter(driver -> driver != null && driver.getStatus() == DriverStatus.ONLINE)
+            .toList();
+    }
+
+    private List<Driver> findNearestAvailableDriversInDatabase(VehicleType vehicleType, double latitude, double longitude) {
+        return findAvailableDrivers(vehicleType).stream()
+            .filter(driver -> driver.getCurrentLatitude() != null && driver.getCurrentLongitude() != null)
+            .map(driver -> Map.entry(driver, GeoMath.haversineKm(latitude, longitude,
+                driver.getCurrentLatitude().doubleValue(), driver.getCurrentLongitude().doubleValue())))
+            .filter(candidate -> candidate.getValue() <= dispatchSearchRadiusKm)
+            .sorted(Map.Entry.comparingByValue())
+            .limit(dispatchCandidateLimit)
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
     @Transactional
     public Trip rateTrip(Long tripId, BigDecimal rating, String review) {
         Trip trip = tripRepository.findByIdForUpdate(tripId)
@@ -237,7 +299,11 @@ public class TripService {
         }
         trip.setRating(rating);
         trip.setReview(review);
-        return tripRepository.save(trip);
+        Trip savedTrip = tripRepository.save(trip);
+        if (trip.getDriver() != null) {
+            driverStatsService.tripRated(trip.getDriver().getId(), rating);
+        }
+        return savedTrip;
     }
 
     @Transactional
@@ -253,19 +319,9 @@ public class TripService {
 
         trip.setDriver(null);
         Trip savedTrip = tripRepository.save(trip);
-        messagingTemplate.convertAndSend("/topic/trip/" + tripId + "/status", Map.of(
-            "id", tripId,
-            "status", "REJECTED",
-            "driverId", driverId
-        ));
-        notificationService.create(
-            trip.getUser(),
-            "TRIP_REJECTED",
-            "Driver declined",
-            "The driver declined your request. Please choose another driver.",
-            "/select-driver/" + tripId,
-            tripId
-        );
+        openTripRequestBook.open(savedTrip);
+        tripEventOutbox.append(savedTrip, TripEventType.REJECTED, driverId);
+        eventPublisher.publishEvent(new TripDriverReleasedEvent(tripId));
         return savedTrip;
     }
 
@@ -291,15 +347,8 @@ public class TripService {
 
         trip.setDriver(driver);
         Trip savedTrip = tripRepository.save(trip);
-        messagingTemplate.convertAndSend("/topic/driver/" + driverId + "/requests", TripResponse.from(savedTrip));
-        notificationService.create(
-            driver.getUser(),
-            "RIDE_REQUEST",
-            "New ride request",
-            user.getUsername() + " requested a QuickLift ride.",
-            "/driver/pending-requests",
-            tripId
-        );
+        openTripRequestBook.open(savedTrip);
+        tripEventOutbox.append(savedTrip, TripEventType.RIDE_REQUESTED, driverId);
         return savedTrip;
     }
 
@@ -328,39 +377,27 @@ public class TripService {
         }
         trip.setDriver(driver);
         Trip savedTrip = tripRepository.save(trip);
-        messagingTemplate.convertAndSend("/topic/driver/" + driverId + "/requests", TripResponse.from(savedTrip));
-        notificationService.create(
-            driver.getUser(),
-            "RIDE_REQUEST",
-            "New ride request",
-            user.getUsername() + " requested a QuickLift ride.",
-            "/driver/pending-requests",
-            savedTrip.getId()
-        );
+        openTripRequestBook.open(savedTrip);
+        tripEventOutbox.append(savedTrip, TripEventType.RIDE_REQUESTED, driverId);
         return savedTrip;
     }
 
     @Transactional
     public Trip createTripAndAssignDriver(Trip trip) {
-        List<Driver> availableDrivers = driverRepository.findByVehicleTypeAndStatus(
-            trip.getRequestedVehicleType(), DriverStatus.ONLINE);
-        if (availableDrivers.isEmpty()) {
-            throw new RuntimeException("No drivers available");
-        }
-        Driver selectedDriver = availableDrivers.get(0);
+        Driver selectedDriver = findNearestAvailableDrivers(
+                trip.getRequestedVehicleType(), trip.getPickupLatitude(), trip.getPickupLongitude())
+            .stream()
+            .findFirst()
+            // Drivers without a reported position are not indexed; fall back to any ONLINE driver
+            .orElseGet(() -> findAvailableDrivers(trip.getRequestedVehicleType()).stream()
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("No drivers available")));
         trip.setDriver(selectedDriver);
         trip.setStatus(TripStatus.REQUESTED);
         trip.setRequestedAt(LocalDateTime.now());
         Trip savedTrip = tripRepository.save(trip);
-        messagingTemplate.convertAndSend("/topic/driver/" + selectedDriver.getId() + "/requests", TripResponse.from(savedTrip));
-        notificationService.create(
-            selectedDriver.getUser(),
-            "RIDE_REQUEST",
-            "New ride request",
-            trip.getUser().getUsername() + " requested a QuickLift ride.",
-            "/driver/pending-requests",
-            savedTrip.getId()
-        );
+        openTripRequestBook.open(savedTrip);
+        tripEventOutbox.append(savedTrip, TripEventType.RIDE_REQUESTED, selectedDriver.getId());
         return savedTrip;
     }
 
@@ -407,4 +444,16 @@ public class TripService {
         }
         return normalized;
     }
+
+    private static Long driverId(Trip trip) {
+        return trip.getDriver() != null ? trip.getDriver().getId() : null;
+    }
+
+    private boolean singleNodeBroker() {
+        return brokerMode == null || "simple".equalsIgnoreCase(brokerMode.trim());
+    }
+
+    private static Double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : null;
+    }
 }
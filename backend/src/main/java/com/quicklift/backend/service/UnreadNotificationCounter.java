@@ -0,0 +1,103 @@
+package com.quicklift.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.quicklift.backend.dto.UnreadCountResponse;
+import com.quicklift.backend.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-user unread notification counts kept in a bounded cache. A miss is loaded from the database; after that the
+ * count is adjusted in memory as notifications are written and read, and the new value is pushed to the user's
+ * notification topic. Entries are reloaded once they are older than the TTL, which bounds any drift from races
+ * between a load and a concurrent write.
+ * <p>
+ * The cache only sees this instance's writes and reads, so it is used with the in-process broker only. With the
+ * {@code relay} or {@code cluster} broker modes several instances share the table and every count is read from the
+ * database instead.
+ */
+@Component
+public class UnreadNotificationCounter {
+    private final NotificationRepository notificationRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final Cache<Long, Long> counts;
+    private final boolean cached;
+
+    public UnreadNotificationCounter(
+        NotificationRepository notificationRepository,
+        SimpMessagingTemplate messagingTemplate,
+        @Value("${app.notifications.unread-cache-ttl-seconds:600}") long ttlSeconds,
+        @Value("${app.notifications.unread-cache-size:100000}") long maxSize,
+        @Value("${app.websocket.broker.mode:simple}") String brokerMode
+    ) {
+        this.notificationRepository = notificationRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.cached = brokerMode == null || "simple".equals(brokerMode);
+        long ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.counts = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            // Age is measured from the load, so frequent updates do not keep an entry from being reconciled
+            .expireAfter(new Expiry<Long, Long>() {
+                @Override
+                public long expireAfterCreate(Long userId, Long count, long currentTime) {
+                    return ttlNanos;
+                }
+
+                @Override
+                public long expireAfterUpdate(Long userId, Long count, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(Long userId, Long count, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    }
+
+    public long get(Long userId) {
+        if (!cached) {
+            return notificationRepository.countByUserIdAndReadFalse(userId);
+        }
+        return counts.get(userId, notificationRepository::countByUserIdAndReadFalse);
+    }
+
+    /**
+     * Counts newly written and committed unread notifications; returns the new count, or null when the user is not
+     * cached.
+     */
+    public Long added(Long userId, int unread) {
+        if (!cached) {
+            return null;
+        }
+        return counts.asMap().computeIfPresent(userId, (id, count) -> count + unread);
+    }
+
+    public void read(Long userId) {
+        if (!cached) {
+            push(userId, notificationRepository.countByUserIdAndReadFalse(userId));
+            return;
+        }
+        Long count = counts.asMap().computeIfPresent(userId, (id, current) -> Math.max(0L, current - 1));
+        if (count != null) {
+            push(userId, count);
+        }
+    }
+
+    public void allRead(Long userId) {
+        if (cached) {
+            counts.put(userId, 0L);
+        }
+        push(userId, 0L);
+    }
+
+    private void push(Long userId, long count) {
+        messagingTemplate.convertAndSend("/topic/user/" + userId + "/notifications", new UnreadCountResponse(count));
+    }
+}
@@ -24,6 +24,9 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AuthenticatedUserCache authenticatedUserCache;
+
     public User createUser(User user, UserRole role) {
         String normalizedUsername = normalize(user.getUsername());
         String normalizedEmail = normalize(user.getEmail());
@@ -71,11 +74,15 @@ public class UserService implements UserDetailsService {
     }
 
     public User updateUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // the username itself may have changed, so the previous cache key is unknown here
+        authenticatedUserCache.evictAll();
+        return saved;
     }
 
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        authenticatedUserCache.evictAll();
     }
 
     public boolean existsByUsername(String username) {
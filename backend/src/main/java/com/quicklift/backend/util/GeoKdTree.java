@@ -0,0 +1,139 @@
+package com.quicklift.backend.util;
+
+/**
+ * Immutable 3-d tree over points on the unit sphere, answering exact nearest-neighbour queries.
+ * Points are stored as unit vectors, so straight-line (chord) distance orders them the same way as great-circle distance.
+ */
+public final class GeoKdTree {
+    private static final double DEG_TO_RAD = Math.PI / 180;
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final int[] ids;
+
+    private GeoKdTree(double[] xs, double[] ys, double[] zs, int[] ids) {
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+        this.ids = ids;
+    }
+
+    /**
+     * Builds a tree over {@code count} points; results refer to points by their position in the input arrays.
+     */
+    public static GeoKdTree build(double[] latitudes, double[] longitudes, int count) {
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        double[] zs = new double[count];
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            double lat = latitudes[i] * DEG_TO_RAD;
+            double lon = longitudes[i] * DEG_TO_RAD;
+            xs[i] = Math.cos(lat) * Math.cos(lon);
+            ys[i] = Math.cos(lat) * Math.sin(lon);
+            zs[i] = Math.sin(lat);
+            ids[i] = i;
+        }
+        GeoKdTree tree = new GeoKdTree(xs, ys, zs, ids);
+        tree.arrange(0, count, 0);
+        return tree;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Returns the input index of the point nearest to the given coordinates, or -1 for an empty tree.
+     */
+    public int nearest(double latitude, double longitude) {
+        if (ids.length == 0) {
+            return -1;
+        }
+        double lat = latitude * DEG_TO_RAD;
+        double lon = longitude * DEG_TO_RAD;
+        double[] query = {Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat)};
+        Best best = new Best();
+        search(0, ids.length, 0, query, best);
+        return ids[best.slot];
+    }
+
+    private void search(int from, int to, int axis, double[] query, Best best) {
+        if (from >= to) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        double dx = xs[mid] - query[0];
+        double dy = ys[mid] - query[1];
+        double dz = zs[mid] - query[2];
+        double distance = dx * dx + dy * dy + dz * dz;
+        if (distance < best.distance) {
+            best.distance = distance;
+            best.slot = mid;
+        }
+        double delta = query[axis] - coordinate(mid, axis);
+        int next = (axis + 1) % 3;
+        if (delta < 0) {
+            search(from, mid, next, query, best);
+            if (delta * delta < best.distance) {
+                search(mid + 1, to, next, query, best);
+            }
+        } else {
+            search(mid + 1, to, next, query, best);
+            if (delta * delta < best.distance) {
+                search(from, mid, next, query, best);
+            }
+        }
+    }
+
+    // Recursively places the median of [from, to) on the current axis at the midpoint
+    private void arrange(int from, int to, int axis) {
+        if (to - from <= 1) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        select(from, to - 1, mid, axis);
+        int next = (axis + 1) % 3;
+        arrange(from, mid, next);
+        arrange(mid + 1, to, next);
+    }
+
+    private void select(int left, int right, int k, int axis) {
+        while (right > left) {
+            double pivot = coordinate((left + right) >>> 1, axis);
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (coordinate(i, axis) < pivot) i++;
+                while (coordinate(j, axis) > pivot) j--;
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private double coordinate(int slot, int axis) {
+        return axis == 0 ? xs[slot] : axis == 1 ? ys[slot] : zs[slot];
+    }
+
+    private void swap(int a, int b) {
+        double x = xs[a]; xs[a] = xs[b]; xs[b] = x;
+        double y = ys[a]; ys[a] = ys[b]; ys[b] = y;
+        double z = zs[a]; zs[a] = zs[b]; zs[b] = z;
+        int id = ids[a]; ids[a] = ids[b]; ids[b] = id;
+    }
+
+    private static final class Best {
+        private double distance = Double.MAX_VALUE;
+        private int slot;
+    }
+}
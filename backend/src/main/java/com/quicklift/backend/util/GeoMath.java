@@ -0,0 +1,55 @@
+package com.quicklift.backend.util;
+
+/**
+ * Distance and grid-cell helpers shared by the in-memory geo indexes.
+ * Cells are fixed lat/lon squares whose row and column are packed into a single long key.
+ */
+public final class GeoMath {
+    public static final double EARTH_RADIUS_KM = 6371;
+    public static final double KM_PER_DEGREE_LAT = 111.32;
+    private static final double DEG_TO_RAD = Math.PI / 180;
+
+    private GeoMath() {}
+
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double sinLat = Math.sin((lat2 - lat1) * DEG_TO_RAD / 2);
+        double sinLon = Math.sin((lon2 - lon1) * DEG_TO_RAD / 2);
+        double a = sinLat * sinLat
+                + Math.cos(lat1 * DEG_TO_RAD) * Math.cos(lat2 * DEG_TO_RAD) * sinLon * sinLon;
+        return 2 * EARTH_RADIUS_KM * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+
+    public static int cellIndex(double degrees, double cellDegrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    public static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    public static long cellKey(double lat, double lon, double cellDegrees) {
+        return cellKey(cellIndex(lat, cellDegrees), cellIndex(lon, cellDegrees));
+    }
+
+    public static int cellRow(long key) {
+        return (int) (key >> 32);
+    }
+
+    public static int cellCol(long key) {
+        return (int) key;
+    }
+
+    // Number of cell rows either side of the centre needed to cover radiusKm
+    public static int latCellSpan(double radiusKm, double cellDegrees) {
+        return (int) Math.ceil(radiusKm / (KM_PER_DEGREE_LAT * cellDegrees));
+    }
+
+    // Number of cell columns either side of the centre needed to cover radiusKm at the given latitude
+    public static int lonCellSpan(double radiusKm, double lat, double cellDegrees) {
+        return (int) Math.ceil(radiusKm / (kmPerDegreeLon(lat) * cellDegrees));
+    }
+
+    public static double kmPerDegreeLon(double lat) {
+        return KM_PER_DEGREE_LAT * Math.max(Math.cos(lat * DEG_TO_RAD), 0.01);
+    }
+}
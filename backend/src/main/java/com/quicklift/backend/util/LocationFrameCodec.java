@@ -0,0 +1,130 @@
+package com.quicklift.backend.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary frames for trip location broadcasts. All fields are big-endian.
+ * <pre>
+ * key frame   (23 bytes): type=1 u8, seq u16, lat i32, lon i32, timestamp i64, heading u16, speed u16
+ * delta frame (13 bytes): type=2 u8, seq u16, dLat i16, dLon i16, dTime u16, heading u16, speed u16
+ * </pre>
+ * Coordinates are micro-degrees, timestamps epoch millis, heading centi-degrees and speed cm/s; 0xFFFF marks an
+ * unknown heading or speed. A delta applies to the point of the frame with the preceding sequence number, so a
+ * receiver that misses a frame waits for the next key frame.
+ */
+public final class LocationFrameCodec {
+    public static final byte KEY_FRAME = 1;
+    public static final byte DELTA_FRAME = 2;
+    public static final int KEY_FRAME_SIZE = 23;
+    public static final int DELTA_FRAME_SIZE = 13;
+    public static final int UNKNOWN = 0xFFFF;
+
+    private LocationFrameCodec() {}
+
+    public static byte[] encodeKey(int sequence, Point point) {
+        return ByteBuffer.allocate(KEY_FRAME_SIZE)
+            .put(KEY_FRAME)
+            .putShort((short) sequence)
+            .putInt(point.latE6())
+            .putInt(point.lonE6())
+            .putLong(point.timestamp())
+            .putShort((short) point.heading())
+            .putShort((short) point.speed())
+            .array();
+    }
+
+    /**
+     * True when {@code point} fits in a delta frame against {@code previous}.
+     */
+    public static boolean canDelta(Point previous, Point point) {
+        long dTime = point.timestamp() - previous.timestamp();
+        return fitsShort((long) point.latE6() - previous.latE6())
+            && fitsShort((long) point.lonE6() - previous.lonE6())
+            && dTime >= 0 && dTime <= 0xFFFF;
+    }
+
+    public static byte[] encodeDelta(int sequence, Point previous, Point point) {
+        return ByteBuffer.allocate(DELTA_FRAME_SIZE)
+            .put(DELTA_FRAME)
+            .putShort((short) sequence)
+            .putShort((short) (point.latE6() - previous.latE6()))
+            .putShort((short) (point.lonE6() - previous.lonE6()))
+            .putShort((short) (point.timestamp() - previous.timestamp()))
+            .putShort((short) point.heading())
+            .putShort((short) point.speed())
+            .array();
+    }
+
+    public static int sequence(byte[] frame) {
+        return ByteBuffer.wrap(frame).getShort(1) & 0xFFFF;
+    }
+
+    /**
+     * Decodes a frame; {@code previous} is only read for delta frames.
+     */
+    public static Point decode(byte[] frame, Point previous) {
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        byte type = buffer.get();
+        buffer.getShort();
+        if (type == KEY_FRAME && frame.length == KEY_FRAME_SIZE) {
+            return new Point(buffer.getInt(), buffer.getInt(), buffer.getLong(),
+                buffer.getShort() & 0xFFFF, buffer.getShort() & 0xFFFF);
+        }
+        if (type == DELTA_FRAME && frame.length == DELTA_FRAME_SIZE) {
+            if (previous == null) {
+                throw new IllegalArgumentException("Delta frame without a previous point");
+            }
+            return new Point(previous.latE6() + buffer.getShort(), previous.lonE6() + buffer.getShort(),
+                previous.timestamp() + (buffer.getShort() & 0xFFFF), buffer.getShort() & 0xFFFF, buffer.getShort() & 0xFFFF);
+        }
+        throw new IllegalArgumentException("Not a location frame");
+    }
+
+    private static boolean fitsShort(long value) {
+        return value >= Short.MIN_VALUE && value <= Short.MAX_VALUE;
+    }
+
+    public record Point(int latE6, int lonE6, long timestamp, int heading, int speed) {
+
+        public static Point of(double latitude, double longitude, long timestamp, Double headingDegrees, Double speedMps) {
+            return new Point(
+                (int) Math.round(latitude * 1e6),
+                (int) Math.round(longitude * 1e6),
+                timestamp,
+                headingDegrees == null ? UNKNOWN : (int) Math.floorMod(Math.round(headingDegrees * 100), 36000L),
+                speedMps == null || speedMps < 0 ? UNKNOWN : (int) Math.min(UNKNOWN - 1, Math.round(speedMps * 100))
+            );
+        }
+
+        public double latitude() {
+            return latE6 / 1e6;
+        }
+
+        public double longitude() {
+            return lonE6 / 1e6;
+        }
+    }
+
+    /**
+     * Receiver-side state for one subscription: applies frames in sequence and skips deltas after a gap.
+     */
+    public static final class Decoder {
+        private Point last;
+        private int lastSequence = -1;
+
+        /**
+         * Returns the decoded point, or null when the frame cannot be applied until the next key frame.
+         */
+        public Point accept(byte[] frame) {
+            int sequence = sequence(frame);
+            boolean key = frame[0] == KEY_FRAME;
+            if (!key && (last == null || sequence != ((lastSequence + 1) & 0xFFFF))) {
+                last = null;
+                return null;
+            }
+            last = decode(frame, last);
+            lastSequence = sequence;
+            return last;
+        }
+    }
+}
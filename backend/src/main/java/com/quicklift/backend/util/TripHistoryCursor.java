@@ -0,0 +1,28 @@
+package com.quicklift.backend.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in a trip history listing: the (requested_at, id) of the last row a client has seen.
+ */
+public record TripHistoryCursor(LocalDateTime requestedAt, long id) {
+
+    public static TripHistoryCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('_');
+            return new TripHistoryCursor(LocalDateTime.parse(value.substring(0, separator)),
+                Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid history cursor");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((requestedAt + "_" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
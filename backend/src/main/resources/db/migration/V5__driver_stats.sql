@@ -0,0 +1,24 @@
+CREATE TABLE IF NOT EXISTS driver_stats (
+    driver_id BIGINT PRIMARY KEY,
+    version BIGINT,
+    earnings NUMERIC(12, 2) NOT NULL DEFAULT 0,
+    rating_sum NUMERIC(12, 2) NOT NULL DEFAULT 0,
+    rating_count BIGINT NOT NULL DEFAULT 0,
+    active_trips BIGINT NOT NULL DEFAULT 0,
+    history_trips BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT fk_driver_stats_driver FOREIGN KEY (driver_id) REFERENCES drivers(id)
+);
+
+INSERT INTO driver_stats (driver_id, version, earnings, rating_sum, rating_count, active_trips, history_trips)
+SELECT
+    d.id,
+    0,
+    COALESCE(SUM(CASE WHEN t.status = 'COMPLETED' THEN t.fare END), 0),
+    COALESCE(SUM(CASE WHEN t.status = 'COMPLETED' THEN t.rating END), 0),
+    COUNT(CASE WHEN t.status = 'COMPLETED' AND t.rating IS NOT NULL THEN 1 END),
+    COUNT(CASE WHEN t.status IN ('ACCEPTED', 'STARTED') THEN 1 END),
+    COUNT(CASE WHEN t.status IN ('COMPLETED', 'CANCELLED') THEN 1 END)
+FROM drivers d
+LEFT JOIN trips t ON t.driver_id = d.id
+GROUP BY d.id
+ON CONFLICT (driver_id) DO NOTHING;
@@ -0,0 +1,31 @@
+CREATE TABLE tariffs (
+    id BIGSERIAL PRIMARY KEY,
+    version BIGINT,
+    state VARCHAR(255),
+    city VARCHAR(255),
+    start_minute INTEGER,
+    end_minute INTEGER,
+    base_fare NUMERIC(10, 2) NOT NULL DEFAULT 0,
+    per_km NUMERIC(10, 2) NOT NULL DEFAULT 0,
+    per_minute NUMERIC(10, 2) NOT NULL DEFAULT 0,
+    minimum_fare NUMERIC(10, 2) NOT NULL DEFAULT 0,
+    CONSTRAINT ck_tariffs_window CHECK (
+        (start_minute IS NULL AND end_minute IS NULL)
+        OR (start_minute BETWEEN 0 AND 1439 AND end_minute BETWEEN 0 AND 1440 AND start_minute <> end_minute)
+    )
+);
+
+CREATE TABLE tariff_vehicle_multipliers (
+    tariff_id BIGINT NOT NULL,
+    vehicle_type VARCHAR(32) NOT NULL,
+    multiplier NUMERIC(6, 3) NOT NULL,
+    PRIMARY KEY (tariff_id, vehicle_type),
+    CONSTRAINT fk_tariff_vehicle_multipliers_tariff FOREIGN KEY (tariff_id) REFERENCES tariffs(id) ON DELETE CASCADE,
+    CONSTRAINT ck_tariff_vehicle_multipliers_type CHECK (vehicle_type IN ('SEDAN', 'SUV', 'LUXURY', 'MOTORCYCLE', 'VAN'))
+);
+
+CREATE INDEX idx_tariffs_state_city ON tariffs(state, city);
+
+-- Country-wide default, matching the flat 11.00/km rate used before tariffs existed
+INSERT INTO tariffs (version, state, city, base_fare, per_km, per_minute, minimum_fare)
+VALUES (0, NULL, NULL, 0, 11.00, 0, 0);
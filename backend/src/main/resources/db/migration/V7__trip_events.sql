@@ -0,0 +1,8 @@
+-- Transactional outbox: written with the trip change, published and deleted by TripEventRelay after commit
+CREATE TABLE trip_events (
+    id BIGSERIAL PRIMARY KEY,
+    trip_id BIGINT NOT NULL,
+    event_type VARCHAR(32) NOT NULL,
+    driver_id BIGINT,
+    created_at TIMESTAMP NOT NULL
+);
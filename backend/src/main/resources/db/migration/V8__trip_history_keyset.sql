@@ -0,0 +1,8 @@
+-- Trip history pages seek on (requested_at, id); a NULL requested_at would drop out of every page
+UPDATE trips
+SET requested_at = COALESCE(accepted_at, started_at, completed_at, cancelled_at, CURRENT_TIMESTAMP)
+WHERE requested_at IS NULL;
+ALTER TABLE trips ALTER COLUMN requested_at SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_trips_driver_requested ON trips(driver_id, requested_at);
+CREATE INDEX IF NOT EXISTS idx_trips_requested ON trips(requested_at);
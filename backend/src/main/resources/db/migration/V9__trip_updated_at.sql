@@ -0,0 +1,12 @@
+-- Incremental trip exports filter on one indexed column instead of ORing five lifecycle timestamps
+ALTER TABLE trips ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP;
+UPDATE trips
+SET updated_at = GREATEST(requested_at,
+                          COALESCE(accepted_at, requested_at),
+                          COALESCE(started_at, requested_at),
+                          COALESCE(completed_at, requested_at),
+                          COALESCE(cancelled_at, requested_at))
+WHERE updated_at IS NULL;
+ALTER TABLE trips ALTER COLUMN updated_at SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_trips_updated ON trips(updated_at);
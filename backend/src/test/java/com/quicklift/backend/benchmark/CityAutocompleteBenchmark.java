@@ -0,0 +1,146 @@
+package com.quicklift.backend.benchmark;
+
+import com.quicklift.backend.model.City;
+import com.quicklift.backend.service.CityAutocompleteIndex;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link CityAutocompleteIndex} against the SQL that {@code CityRepository.searchCities} generates, on in-memory H2.
+ * City names are synthetic syllable strings; queries are short prefixes, mid-word fragments and one-typo prefixes.
+ * Run with {@code ./mvnw -Pbenchmark verify -Dbenchmark=CityAutocompleteBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CityAutocompleteBenchmark {
+    private static final String[] SYLLABLES = {
+        "ban", "ga", "lore", "mum", "bai", "del", "hi", "pu", "ne", "che", "nna", "kol", "ka", "ta", "hy", "der",
+        "abad", "pur", "nag", "ma", "dur", "ai", "vi", "sa", "kha", "pat", "nam", "ra", "jk", "ot", "an", "ur"
+    };
+    private static final String[] STATES = {
+        "Karnataka", "Maharashtra", "Delhi", "Tamil Nadu", "West Bengal", "Telangana", "Gujarat", "Rajasthan"
+    };
+    private static final String SEARCH_SQL = "SELECT * FROM cities c WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', ?, '%'))"
+        + " OR LOWER(c.state) LIKE LOWER(CONCAT('%', ?, '%'))";
+    private static final int QUERIES = 256;
+
+    @Param({"500", "10000", "100000"})
+    private int cities;
+
+    private CityAutocompleteIndex index;
+    private Connection connection;
+    private PreparedStatement search;
+    private final String[] queries = new String[QUERIES];
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        Random random = new Random(42);
+        List<City> catalog = new ArrayList<>(cities);
+        connection = DriverManager.getConnection("jdbc:h2:mem:city-bench-" + cities + ";DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS cities");
+            statement.execute("CREATE TABLE cities (id BIGINT PRIMARY KEY, name VARCHAR(255), state VARCHAR(255),"
+                + " state_code VARCHAR(8), latitude NUMERIC(9, 6), longitude NUMERIC(9, 6))");
+            statement.execute("CREATE INDEX idx_cities_name ON cities(name)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO cities VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < cities; i++) {
+                StringBuilder name = new StringBuilder();
+                int parts = 2 + random.nextInt(3);
+                for (int p = 0; p < parts; p++) {
+                    name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+                }
+                name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+                String state = STATES[random.nextInt(STATES.length)];
+                BigDecimal latitude = BigDecimal.valueOf(8 + random.nextDouble() * 25);
+                BigDecimal longitude = BigDecimal.valueOf(68 + random.nextDouble() * 29);
+                catalog.add(new City(name.toString(), state, state.substring(0, 2), latitude, longitude));
+                insert.setLong(1, i + 1);
+                insert.setString(2, name.toString());
+                insert.setString(3, state);
+                insert.setString(4, state.substring(0, 2));
+                insert.setBigDecimal(5, latitude);
+                insert.setBigDecimal(6, longitude);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        search = connection.prepareStatement(SEARCH_SQL);
+
+        index = new CityAutocompleteIndex();
+        index.rebuild(catalog);
+
+        for (int i = 0; i < QUERIES; i++) {
+            String name = catalog.get(random.nextInt(catalog.size())).getName().toLowerCase();
+            String query = name.substring(0, Math.min(name.length(), 3 + random.nextInt(4)));
+            if (i % 4 == 3 && query.length() > 4) {
+                // swap two letters to exercise the fuzzy path
+                char[] chars = query.toCharArray();
+                char swapped = chars[2];
+                chars[2] = chars[3];
+                chars[3] = swapped;
+                query = new String(chars);
+            }
+            queries[i] = query;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        search.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE cities");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public List<City> autocompleteIndexTopTen() {
+        return index.search(next(), 10);
+    }
+
+    @Benchmark
+    public int jpqlLikeScan() throws SQLException {
+        String query = next();
+        search.setString(1, query);
+        search.setString(2, query);
+        int rows = 0;
+        try (ResultSet resultSet = search.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private String next() {
+        return queries[cursor++ & (QUERIES - 1)];
+    }
+}
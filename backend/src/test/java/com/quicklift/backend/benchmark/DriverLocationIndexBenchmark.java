@@ -0,0 +1,75 @@
+package com.quicklift.backend.benchmark;
+
+import com.quicklift.backend.model.VehicleType;
+import com.quicklift.backend.service.DriverLocationIndex;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Nearest-K dispatch lookups against {@link DriverLocationIndex}.
+ * Drivers are spread over a few metro-sized boxes so cell density resembles real city traffic.
+ * Run with {@code ./mvnw -Pbenchmark verify -Dbenchmark=DriverLocationIndexBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DriverLocationIndexBenchmark {
+    private static final double[][] METROS = {
+        {12.9716, 77.5946}, {19.0760, 72.8777}, {28.6139, 77.2090}, {13.0827, 80.2707}, {17.3850, 78.4867}
+    };
+    private static final int QUERIES = 1024;
+
+    @Param({"10000", "100000", "1000000"})
+    private int drivers;
+
+    private DriverLocationIndex index;
+    private final double[] queryLatitudes = new double[QUERIES];
+    private final double[] queryLongitudes = new double[QUERIES];
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new DriverLocationIndex();
+        Random random = new Random(42);
+        VehicleType[] types = VehicleType.values();
+        for (int i = 0; i < drivers; i++) {
+            double[] metro = METROS[i % METROS.length];
+            index.put(i, types[random.nextInt(types.length)],
+                metro[0] + (random.nextDouble() - 0.5) * 0.4,
+                metro[1] + (random.nextDouble() - 0.5) * 0.4);
+        }
+        for (int i = 0; i < QUERIES; i++) {
+            double[] metro = METROS[i % METROS.length];
+            queryLatitudes[i] = metro[0] + (random.nextDouble() - 0.5) * 0.3;
+            queryLongitudes[i] = metro[1] + (random.nextDouble() - 0.5) * 0.3;
+        }
+    }
+
+    @Benchmark
+    public List<DriverLocationIndex.NearbyDriver> nearestFiveWithinFiveKm() {
+        int i = cursor++ & (QUERIES - 1);
+        return index.findNearest(VehicleType.SEDAN, queryLatitudes[i], queryLongitudes[i], 5, 5);
+    }
+
+    @Benchmark
+    public void moveDriver() {
+        int i = cursor++ & (QUERIES - 1);
+        index.put(i % drivers, VehicleType.SEDAN, queryLatitudes[i], queryLongitudes[i]);
+    }
+}
@@ -0,0 +1,92 @@
+package com.quicklift.backend.benchmark;
+
+import com.quicklift.backend.model.VehicleType;
+import com.quicklift.backend.service.DriverLocationIndex;
+import com.quicklift.backend.service.FareService;
+import com.quicklift.backend.service.OfflineReverseGeocoder;
+import com.quicklift.backend.service.OpenTripRequestBook;
+import com.quicklift.backend.service.SurgePricingService;
+import com.quicklift.backend.service.TariffService;
+import com.quicklift.backend.service.TariffTable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Batch pricing through {@link FareService#estimateFares} next to the previous BigDecimal-per-trip formula.
+ * With the default GC profiler, {@code gc.alloc.rate.norm} for {@code primitiveBatch} should stay at ~0 B/op.
+ * Run with {@code ./mvnw -Pbenchmark verify -Dbenchmark=FareEngineBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FareEngineBenchmark {
+    private static final BigDecimal LEGACY_RATE_PER_KM = new BigDecimal("11.00");
+
+    @Param({"1", "1000", "100000"})
+    private int trips;
+
+    private final FareService fareService = new FareService(
+        new TariffService(null, new OfflineReverseGeocoder("", 50), "Asia/Kolkata", 25),
+        new SurgePricingService(new DriverLocationIndex(), new OpenTripRequestBook(), 10, 2.0, 3.0));
+    private double[] pickups;
+    private double[] drops;
+    private long[] fares;
+    private double[] distances;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        pickups = new double[2 * trips];
+        drops = new double[2 * trips];
+        for (int i = 0; i < trips; i++) {
+            pickups[2 * i] = 12.9716 + (random.nextDouble() - 0.5) * 0.4;
+            pickups[2 * i + 1] = 77.5946 + (random.nextDouble() - 0.5) * 0.4;
+            drops[2 * i] = 12.9716 + (random.nextDouble() - 0.5) * 0.4;
+            drops[2 * i + 1] = 77.5946 + (random.nextDouble() - 0.5) * 0.4;
+        }
+        fares = new long[trips];
+        distances = new double[trips];
+    }
+
+    @Benchmark
+    public long[] primitiveBatch() {
+        fareService.estimateFares(TariffTable.FALLBACK, VehicleType.SEDAN, pickups, drops, null, fares, distances);
+        return fares;
+    }
+
+    @Benchmark
+    public void legacyBigDecimal(Blackhole blackhole) {
+        for (int i = 0; i < trips; i++) {
+            double distance = legacyDistance(pickups[2 * i], pickups[2 * i + 1], drops[2 * i], drops[2 * i + 1]);
+            blackhole.consume(BigDecimal.valueOf(distance).multiply(LEGACY_RATE_PER_KM)
+                .add(BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP));
+        }
+    }
+
+    private static double legacyDistance(double lat1, double lon1, double lat2, double lon2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+        return 6371 * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
@@ -0,0 +1,123 @@
+package com.quicklift.backend.benchmark;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+/**
+ * Multi-node fan-out latency: subscribers connect to one node, a publisher SENDs timestamped frames to
+ * {@code /topic/loadtest} on another, and the end-to-end latency of every delivery is reported as percentiles.
+ * Start two backends on the same broker mode (relay or cluster) first; both nodes must share a JWT secret.
+ * <pre>
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.quicklift.backend.benchmark.StompFanoutLoadTest \
+ *   -Dexec.args="ws://localhost:8080/ws/websocket ws://localhost:8081/ws/websocket $TOKEN 500 200"
+ * </pre>
+ * Arguments: subscriber node URL, publisher node URL, bearer token, subscribers, messages.
+ */
+public class StompFanoutLoadTest {
+
+    private static final String TOPIC = "/topic/loadtest";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("usage: StompFanoutLoadTest <subscriberUrl> <publisherUrl> <token> [subscribers] [messages]");
+            System.exit(1);
+        }
+        String subscriberUrl = args[0];
+        String publisherUrl = args[1];
+        String token = args[2];
+        int subscribers = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+        int messages = args.length > 4 ? Integer.parseInt(args[4]) : 100;
+
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.initialize();
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new ByteArrayMessageConverter());
+        client.setTaskScheduler(scheduler);
+
+        ConcurrentLinkedQueue<Long> latenciesMicros = new ConcurrentLinkedQueue<>();
+        CountDownLatch received = new CountDownLatch(subscribers * messages);
+        AtomicLong late = new AtomicLong();
+        List<StompSession> sessions = new ArrayList<>();
+        for (int i = 0; i < subscribers; i++) {
+            StompSession session = connect(client, subscriberUrl, token);
+            session.subscribe(TOPIC, new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return byte[].class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    long sentMicros = Long.parseLong(new String((byte[]) payload, StandardCharsets.UTF_8));
+                    long latency = nowMicros() - sentMicros;
+                    if (latency < 0) {
+                        late.incrementAndGet();
+                    }
+                    latenciesMicros.add(Math.max(0, latency));
+                    received.countDown();
+                }
+            });
+            sessions.add(session);
+        }
+        // Give SUBSCRIBE frames (and, in cluster mode, the Redis subscription) time to settle
+        Thread.sleep(1000);
+
+        StompSession publisher = connect(client, publisherUrl, token);
+        for (int i = 0; i < messages; i++) {
+            publisher.send(TOPIC, Long.toString(nowMicros()).getBytes(StandardCharsets.UTF_8));
+            Thread.sleep(10);
+        }
+
+        boolean complete = received.await(30, TimeUnit.SECONDS);
+        long[] sorted = latenciesMicros.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        System.out.printf("subscribers=%d messages=%d delivered=%d/%d complete=%s clockSkewed=%d%n",
+            subscribers, messages, sorted.length, subscribers * messages, complete, late.get());
+        if (sorted.length > 0) {
+            System.out.printf("latency ms  p50=%.2f  p90=%.2f  p99=%.2f  p99.9=%.2f  max=%.2f%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), sorted[sorted.length - 1] / 1000.0);
+        }
+
+        publisher.disconnect();
+        sessions.forEach(StompSession::disconnect);
+        client.stop();
+        scheduler.shutdown();
+    }
+
+    private static StompSession connect(WebSocketStompClient client, String url, String token) throws Exception {
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        return client.connectAsync(url, new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {})
+            .get(10, TimeUnit.SECONDS);
+    }
+
+    private static long nowMicros() {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1000.0;
+    }
+}
@@ -0,0 +1,132 @@
+package com.quicklift.backend.benchmark;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+/**
+ * Soak test for the bounded client channels: opens {@code subscribers} sessions (20k by default) spread over
+ * {@code /topic/trip/{id}/location} topics, publishes one ~200 byte location per trip every second, and makes a
+ * fraction of the subscribers stall on every frame. Healthy sessions should keep receiving while the stalled ones
+ * are closed by the send buffer/time limits; watch {@code websocket.channel.queue}, {@code websocket.channel.dispatch}
+ * and {@code websocket.sessions.slow.closed} on {@code /actuator/metrics} meanwhile.
+ * <pre>
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *   -Dexec.mainClass=com.quicklift.backend.benchmark.StompSoakTest \
+ *   -Dexec.args="ws://localhost:8080/ws/websocket $TOKEN 20000 2000 300 1"
+ * </pre>
+ * Arguments: URL, bearer token, subscribers, trips, seconds, percent of stalled subscribers.
+ * Raise the open file limit ({@code ulimit -n}) on both ends first.
+ */
+public class StompSoakTest {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: StompSoakTest <url> <token> [subscribers] [trips] [seconds] [stalledPercent]");
+            System.exit(1);
+        }
+        String url = args[0];
+        String token = args[1];
+        int subscribers = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+        int trips = args.length > 3 ? Integer.parseInt(args[3]) : 2_000;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 300;
+        int stalledPercent = args.length > 5 ? Integer.parseInt(args[5]) : 1;
+
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(4);
+        scheduler.initialize();
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new ByteArrayMessageConverter());
+        client.setTaskScheduler(scheduler);
+        client.setDefaultHeartbeat(new long[] {10_000, 10_000});
+
+        AtomicLong received = new AtomicLong();
+        AtomicLong closed = new AtomicLong();
+        List<StompSession> sessions = new ArrayList<>(subscribers);
+        for (int i = 0; i < subscribers; i++) {
+            boolean stalled = i % 100 < stalledPercent;
+            StompSession session = connect(client, url, token, closed);
+            session.subscribe("/topic/trip/" + (i % trips) + "/location", new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return byte[].class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    received.incrementAndGet();
+                    if (stalled) {
+                        // Never returning promptly stops this connection from reading, so the server's buffer fills
+                        sleep(60_000);
+                    }
+                }
+            });
+            sessions.add(session);
+            if (i % 1000 == 999) {
+                System.out.printf("connected %d%n", i + 1);
+            }
+        }
+
+        StompSession publisher = connect(client, url, token, closed);
+        byte[] location = ("{\"latitude\":12.971599,\"longitude\":77.594566,\"heading\":181.5,\"speed\":8.4,"
+            + "\"accuracy\":4.0,\"timestamp\":1700000000000,\"padding\":\"" + "x".repeat(60) + "\"}")
+            .getBytes(StandardCharsets.UTF_8);
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+        ticker.scheduleAtFixedRate(() -> {
+            for (int trip = 0; trip < trips; trip++) {
+                publisher.send("/topic/trip/" + trip + "/location", location);
+            }
+        }, 0, 1, TimeUnit.SECONDS);
+
+        long previous = 0;
+        for (int second = 10; second <= seconds; second += 10) {
+            Thread.sleep(10_000);
+            long now = received.get();
+            long connected = sessions.stream().filter(StompSession::isConnected).count();
+            System.out.printf("t=%ds frames/s=%d connected=%d closed=%d heapMb=%d%n", second, (now - previous) / 10,
+                connected, closed.get(), (Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) >> 20);
+            previous = now;
+        }
+
+        ticker.shutdownNow();
+        publisher.disconnect();
+        sessions.stream().filter(StompSession::isConnected).forEach(StompSession::disconnect);
+        client.stop();
+        scheduler.shutdown();
+        System.exit(0);
+    }
+
+    private static StompSession connect(WebSocketStompClient client, String url, String token, AtomicLong closed)
+            throws Exception {
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        return client.connectAsync(url, new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+            @Override
+            public void handleTransportError(StompSession session, Throwable exception) {
+                closed.incrementAndGet();
+            }
+        }).get(30, TimeUnit.SECONDS);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.quicklift.backend.config;
+
+import com.quicklift.backend.util.LocationFrameCodec;
+import com.quicklift.backend.util.LocationFrameCodec.Point;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.OrderedMessageChannelDecorator;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocationFanoutThrottleTest {
+    private final List<Message<?>> delivered = new CopyOnWriteArrayList<>();
+    // Records and immediately handles each frame, like an idle outbound executor
+    private final LocationFanoutThrottle throttle = new LocationFanoutThrottle((message, timeout) -> {
+        delivered.add(message);
+        this.throttle.afterMessageHandled(message, null, null, null);
+        return true;
+    }, 500, 60_000);
+
+    @AfterEach
+    void shutdown() {
+        throttle.shutdown();
+    }
+
+    @Test
+    void riderGetsFirstPointNowAndOnlyTheLatestAfterTheInterval() throws Exception {
+        subscribe("s1", "sub-0", "/topic/trip/5/location", "USER");
+
+        handled(throttle.preSend(json("s1", "sub-0", "p0"), null));
+        assertThat(throttle.preSend(json("s1", "sub-0", "p1"), null)).isNull();
+        assertThat(throttle.preSend(json("s1", "sub-0", "p2"), null)).isNull();
+        assertThat(throttle.preSend(json("s1", "sub-0", "p3"), null)).isNull();
+
+        awaitDeliveries(1);
+        Thread.sleep(150);
+        assertThat(delivered).hasSize(1);
+        assertThat(new String((byte[]) delivered.get(0).getPayload(), StandardCharsets.UTF_8)).isEqualTo("p3");
+    }
+
+    @Test
+    void adminDashboardsUseTheSlowerInterval() {
+        subscribe("admin", "sub-0", "/topic/trip/5/location", "ADMIN");
+
+        assertThat(throttle.preSend(json("admin", "sub-0", "p0"), null)).isNotNull();
+        assertThat(throttle.preSend(json("admin", "sub-0", "p1"), null)).isNull();
+    }
+
+    @Test
+    void otherDestinationsAndUnknownSubscriptionsPassThrough() {
+        subscribe("s1", "sub-1", "/topic/trip/5/status", "USER");
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(throttle.preSend(json("s1", "sub-1", "status"), null)).isNotNull();
+            assertThat(throttle.preSend(json("s2", "sub-0", "p"), null)).isNotNull();
+        }
+        assertThat(throttle.subscriptionCount()).isZero();
+    }
+
+    @Test
+    void binarySubscriberThatMissedFramesGetsTheLatestPointAsAKeyFrame() throws Exception {
+        subscribe("s1", "sub-0", "/topic/trip/5/location/binary", "USER");
+        Point p0 = Point.of(12.0, 77.0, 0L, null, null);
+        Point p1 = Point.of(12.0001, 77.0001, 100L, null, null);
+        Point p2 = Point.of(12.0002, 77.0002, 200L, null, null);
+        Point p3 = Point.of(12.0003, 77.0003, 300L, null, null);
+        LocationFrameCodec.Decoder client = new LocationFrameCodec.Decoder();
+
+        Message<?> first = handled(throttle.preSend(binary("s1", "sub-0", LocationFrameCodec.encodeKey(0, p0)), null));
+        throttle.preSend(binary("s1", "sub-0", LocationFrameCodec.encodeDelta(1, p0, p1)), null);
+        throttle.preSend(binary("s1", "sub-0", LocationFrameCodec.encodeDelta(2, p1, p2)), null);
+        throttle.preSend(binary("s1", "sub-0", LocationFrameCodec.encodeDelta(3, p2, p3)), null);
+
+        awaitDeliveries(1);
+        byte[] latest = (byte[]) delivered.get(0).getPayload();
+        assertThat(client.accept((byte[]) first.getPayload())).isEqualTo(p0);
+        assertThat(latest[0]).isEqualTo(LocationFrameCodec.KEY_FRAME);
+        assertThat(LocationFrameCodec.sequence(latest)).isEqualTo(3);
+        assertThat(client.accept(latest)).isEqualTo(p3);
+    }
+
+    @Test
+    void mailboxFramesWaitForTheFrameInFlight() throws Exception {
+        subscribe("s1", "sub-0", "/topic/trip/5/location", "USER");
+
+        Message<?> first = throttle.preSend(json("s1", "sub-0", "p0"), null);
+        throttle.preSend(json("s1", "sub-0", "p1"), null);
+        Thread.sleep(700);
+        assertThat(delivered).isEmpty();
+
+        handled(first);
+        awaitDeliveries(1);
+        assertThat(new String((byte[]) delivered.get(0).getPayload(), StandardCharsets.UTF_8)).isEqualTo("p1");
+    }
+
+    @Test
+    void saturatedOutboundExecutorHoldsOneFramePerSubscription() throws Exception {
+        // Nothing runs until the test drains the executor queue, as if every outbound thread were busy
+        BlockingQueue<Runnable> queued = new LinkedBlockingQueue<>();
+        ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel(queued::add);
+        OrderedMessageChannelDecorator.configureInterceptor(channel, true);
+        LocationFrameCodec.Decoder client = new LocationFrameCodec.Decoder();
+        List<Point> received = new ArrayList<>();
+        channel.subscribe(message -> received.add(client.accept((byte[]) message.getPayload())));
+        LocationFanoutThrottle saturated = new LocationFanoutThrottle(channel, 50, 60_000);
+        channel.addInterceptor(saturated);
+        subscribeTo(saturated, "s1", "sub-0", "/topic/trip/5/location/binary", "USER");
+        OrderedMessageChannelDecorator session = new OrderedMessageChannelDecorator(channel,
+            LogFactory.getLog(getClass()));
+        Point p0 = Point.of(12.0, 77.0, 0L, null, null);
+        Point p1 = Point.of(12.0001, 77.0001, 100L, null, null);
+        Point p2 = Point.of(12.0002, 77.0002, 200L, null, null);
+
+        try {
+            session.send(binary("s1", "sub-0", LocationFrameCodec.encodeKey(0, p0)));
+            queued.take().run();
+            session.send(binary("s1", "sub-0", LocationFrameCodec.encodeDelta(1, p0, p1)));
+            Thread.sleep(150);
+            assertThat(queued).hasSize(1);
+
+            // The ordered path must not overtake the mailbox frame still waiting for a thread
+            session.send(binary("s1", "sub-0", LocationFrameCodec.encodeDelta(2, p1, p2)));
+            Thread.sleep(150);
+            assertThat(queued).hasSize(1);
+
+            Runnable next;
+            while ((next = queued.poll(500, TimeUnit.MILLISECONDS)) != null) {
+                next.run();
+            }
+        } finally {
+            saturated.shutdown();
+        }
+
+        assertThat(received).containsExactly(p0, p1, p2);
+    }
+
+    @Test
+    void unsubscribeAndDisconnectDropTheState() {
+        subscribe("s1", "sub-0", "/topic/trip/5/location", "USER");
+        subscribe("s1", "sub-1", "/topic/trip/6/location", "USER");
+        subscribe("s2", "sub-0", "/topic/trip/6/location", "USER");
+
+        SimpMessageHeaderAccessor unsubscribe = SimpMessageHeaderAccessor.create(SimpMessageType.UNSUBSCRIBE);
+        unsubscribe.setSessionId("s2");
+        unsubscribe.setSubscriptionId("sub-0");
+        throttle.onUnsubscribe(new SessionUnsubscribeEvent(this, MessageBuilder.createMessage(new byte[0], unsubscribe.getMessageHeaders())));
+        SimpMessageHeaderAccessor disconnect = SimpMessageHeaderAccessor.create(SimpMessageType.DISCONNECT);
+        disconnect.setSessionId("s1");
+        throttle.onDisconnect(new SessionDisconnectEvent(this, MessageBuilder.createMessage(new byte[0], disconnect.getMessageHeaders()),
+            "s1", CloseStatus.NORMAL));
+
+        assertThat(throttle.subscriptionCount()).isZero();
+    }
+
+    private void subscribe(String sessionId, String subscriptionId, String destination, String role) {
+        subscribeTo(throttle, sessionId, subscriptionId, destination, role);
+    }
+
+    private void subscribeTo(LocationFanoutThrottle target, String sessionId, String subscriptionId, String destination,
+                             String role) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        UsernamePasswordAuthenticationToken user = new UsernamePasswordAuthenticationToken(sessionId, null,
+            List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+        target.onSubscribe(new SessionSubscribeEvent(this, MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), user));
+    }
+
+    // A frame the throttle let through has been written to the client
+    private Message<?> handled(Message<?> message) {
+        assertThat(message).isNotNull();
+        throttle.afterMessageHandled(message, null, null, null);
+        return message;
+    }
+
+    private static Message<?> json(String sessionId, String subscriptionId, String body) {
+        return binary(sessionId, subscriptionId, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Message<?> binary(String sessionId, String subscriptionId, byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        // The broker leaves outbound headers mutable for the per-session ordering header
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+
+    private void awaitDeliveries(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (delivered.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(delivered).hasSizeGreaterThanOrEqualTo(count);
+    }
+}
@@ -0,0 +1,155 @@
+package com.quicklift.backend.config;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+    private final MutableClock clock = new MutableClock();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void storeAdmitsBurstThenOneRequestPerInterval() {
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(properties(), clock);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(store.tryAcquire("k", 1000, 2000)).isZero();
+        }
+        assertThat(store.tryAcquire("k", 1000, 2000)).isEqualTo(1000);
+
+        clock.advance(400);
+        assertThat(store.tryAcquire("k", 1000, 2000)).isEqualTo(600);
+        clock.advance(600);
+        assertThat(store.tryAcquire("k", 1000, 2000)).isZero();
+        assertThat(store.tryAcquire("other", 1000, 2000)).isZero();
+    }
+
+    @Test
+    void storeForgetsIdleKeysAndStaysBounded() {
+        RateLimitProperties properties = properties();
+        properties.setMaxKeys(10);
+        InMemoryRateLimitStore store = new InMemoryRateLimitStore(properties, Clock.systemUTC());
+
+        for (int i = 0; i < 1000; i++) {
+            store.tryAcquire("key-" + i, 1000, 0);
+        }
+
+        assertThat(store.size()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void filterRejectsOverLimitPerPolicyAndCountsRejections() throws Exception {
+        RateLimitFilter filter = filter(properties());
+
+        assertThat(call(filter, "/api/v1/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(call(filter, "/api/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        MockHttpServletResponse rejected = call(filter, "/api/v1/auth/login", "10.0.0.1");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("30");
+        assertThat(call(filter, "/api/v1/auth/login", "10.0.0.2").getStatus()).isEqualTo(200);
+        assertThat(call(filter, "/api/v1/trips/my-trips", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("rate.limit.rejections").tag("policy", "login").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void userPoliciesCountPerUserAndHonourOverrides() throws Exception {
+        RateLimitProperties properties = properties();
+        RateLimitProperties.Policy estimate = policy("estimate", "/api/**/trips/estimate", 1);
+        estimate.setKey(RateLimitProperties.KeyType.USER);
+        estimate.setUserLimits(Map.of("partner", 3));
+        properties.setPolicies(List.of(estimate));
+        RateLimitFilter filter = filter(properties);
+
+        authenticate("alice");
+        assertThat(call(filter, "/api/v1/trips/estimate", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(call(filter, "/api/v1/trips/estimate", "10.0.0.2").getStatus()).isEqualTo(429);
+
+        authenticate("partner");
+        for (int i = 0; i < 3; i++) {
+            assertThat(call(filter, "/api/v1/trips/estimate", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+        assertThat(call(filter, "/api/v1/trips/estimate", "10.0.0.1").getStatus()).isEqualTo(429);
+    }
+
+    private RateLimitFilter filter(RateLimitProperties properties) {
+        return new RateLimitFilter(JsonMapper.builder().findAndAddModules().build(),
+            new InMemoryRateLimitStore(properties, clock), properties, meterRegistry);
+    }
+
+    private static MockHttpServletResponse call(RateLimitFilter filter, String path, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+
+    private static RateLimitProperties properties() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setPolicies(List.of(policy("login", "/api/**/auth/login", 2)));
+        return properties;
+    }
+
+    private static RateLimitProperties.Policy policy(String name, String path, int limit) {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setName(name);
+        policy.setPaths(List.of(path, path.replace("/**", "")));
+        policy.setLimit(limit);
+        policy.setPeriod(Duration.ofMinutes(1));
+        return policy;
+    }
+
+    private static final class MutableClock extends Clock {
+        private long millis = 1_000_000L;
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.quicklift.backend.config;
+
+import com.quicklift.backend.util.JwtTokenUtil;
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class StompAuthChannelInterceptorTest {
+    private JwtTokenUtil jwtTokenUtil;
+    private StompAuthChannelInterceptor interceptor;
+    private final Map<String, Object> session = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(jwtTokenUtil, "secret", "test-secret-key-for-quicklift-tests-change-is-not-needed-1234567890");
+        ReflectionTestUtils.setField(jwtTokenUtil, "accessTokenExpirationSeconds", 900L);
+        ReflectionTestUtils.setField(jwtTokenUtil, "verifiedCacheSize", 100L);
+        jwtTokenUtil.init();
+        jwtTokenUtil = spy(jwtTokenUtil);
+        interceptor = new StompAuthChannelInterceptor(jwtTokenUtil);
+    }
+
+    @Test
+    void connectBindsPrincipalOnceAndLaterFramesSkipVerification() {
+        String token = jwtTokenUtil.generateToken("driver1", List.of("DRIVER"));
+        StompHeaderAccessor connect = accessor(StompCommand.CONNECT);
+        connect.addNativeHeader("Authorization", "Bearer " + token);
+
+        interceptor.preSend(message(connect), null);
+        for (int i = 0; i < 100; i++) {
+            interceptor.preSend(message(accessor(StompCommand.SEND)), null);
+        }
+
+        Principal user = connect.getUser();
+        assertThat(user).isInstanceOf(UsernamePasswordAuthenticationToken.class);
+        assertThat(user.getName()).isEqualTo("driver1");
+        assertThat(((UsernamePasswordAuthenticationToken) user).getAuthorities())
+            .extracting(Object::toString).containsExactly("ROLE_DRIVER");
+        assertThat(session).containsKey(StompAuthChannelInterceptor.EXPIRES_AT_ATTRIBUTE);
+        verify(jwtTokenUtil, times(1)).verify(token);
+    }
+
+    @Test
+    void handshakeTokenIsUsedWhenConnectFrameHasNone() {
+        session.put(StompAuthChannelInterceptor.AUTHORIZATION_ATTRIBUTE,
+            "Bearer " + jwtTokenUtil.generateToken("rider1", List.of("USER")));
+        StompHeaderAccessor connect = accessor(StompCommand.CONNECT);
+
+        interceptor.preSend(message(connect), null);
+
+        assertThat(connect.getUser().getName()).isEqualTo("rider1");
+        assertThat(session).doesNotContainKey(StompAuthChannelInterceptor.AUTHORIZATION_ATTRIBUTE);
+    }
+
+    @Test
+    void framesAfterTokenExpiryAreRejected() {
+        session.put(StompAuthChannelInterceptor.EXPIRES_AT_ATTRIBUTE, System.currentTimeMillis() - 1);
+
+        assertThatThrownBy(() -> interceptor.preSend(message(accessor(StompCommand.SEND)), null))
+            .isInstanceOf(AccessDeniedException.class);
+        assertThat(interceptor.preSend(message(accessor(StompCommand.DISCONNECT)), null)).isNotNull();
+    }
+
+    @Test
+    void invalidTokenLeavesSessionAnonymous() {
+        StompHeaderAccessor connect = accessor(StompCommand.CONNECT);
+        connect.addNativeHeader("Authorization", "Bearer forged");
+
+        interceptor.preSend(message(connect), null);
+
+        assertThat(connect.getUser()).isNull();
+        assertThat(interceptor.preSend(message(accessor(StompCommand.SUBSCRIBE)), null)).isNotNull();
+    }
+
+    private StompHeaderAccessor accessor(StompCommand command) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId("s1");
+        accessor.setSessionAttributes(session);
+        accessor.setLeaveMutable(true);
+        return accessor;
+    }
+
+    private static Message<byte[]> message(StompHeaderAccessor accessor) {
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
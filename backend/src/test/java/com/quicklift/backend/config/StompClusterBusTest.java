@@ -0,0 +1,108 @@
+package com.quicklift.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class StompClusterBusTest {
+    private static final String CHANNEL = "quicklift:stomp";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final List<StompClusterBus> nodes = new ArrayList<>();
+    private final List<List<Message<?>>> delivered = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Fake Redis pub/sub: every publish reaches every node, the publisher included
+        doAnswer(invocation -> {
+            byte[] body = invocation.getArgument(1, String.class).getBytes(StandardCharsets.UTF_8);
+            for (StompClusterBus node : nodes) {
+                node.onMessage(new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body), null);
+            }
+            return 1L;
+        }).when(redisTemplate).convertAndSend(eq(CHANNEL), anyString());
+        addNode();
+        addNode();
+    }
+
+    @Test
+    void topicMessageFromOneNodeIsReplayedOnTheOthersOnly() {
+        Message<?> message = topicMessage("/topic/trip/7/location", "{\"lat\":12.9}");
+
+        Message<?> passed = nodes.get(0).preSend(message, null);
+
+        assertThat(passed).isSameAs(message);
+        assertThat(delivered.get(0)).isEmpty();
+        assertThat(delivered.get(1)).hasSize(1);
+        Message<?> replayed = delivered.get(1).get(0);
+        assertThat(SimpMessageHeaderAccessor.getDestination(replayed.getHeaders())).isEqualTo("/topic/trip/7/location");
+        assertThat(replayed.getHeaders().get(MessageHeaders.CONTENT_TYPE)).isEqualTo(MimeTypeUtils.APPLICATION_JSON);
+        assertThat(new String((byte[]) replayed.getPayload(), StandardCharsets.UTF_8)).isEqualTo("{\"lat\":12.9}");
+        assertThat(replayed.getHeaders().get(StompClusterBus.ORIGIN_HEADER)).isEqualTo(nodes.get(0).nodeId());
+    }
+
+    @Test
+    void replayedMessagesAreNotPublishedAgain() {
+        nodes.get(0).preSend(topicMessage("/topic/admin/trips", "{}"), null);
+        Message<?> replayed = delivered.get(1).get(0);
+
+        nodes.get(1).preSend(replayed, null);
+
+        verify(redisTemplate, times(1)).convertAndSend(eq(CHANNEL), anyString());
+    }
+
+    @Test
+    void nonTopicAndControlFramesStayLocal() {
+        nodes.get(0).preSend(topicMessage("/app/driver/location", "{}"), null);
+        SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        subscribe.setDestination("/topic/trip/1/location");
+        nodes.get(0).preSend(MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders()), null);
+
+        verify(redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    void malformedFramesAreDropped() {
+        nodes.get(1).onMessage(new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+            "not json".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(delivered.get(1)).isEmpty();
+    }
+
+    private void addNode() {
+        List<Message<?>> sink = new ArrayList<>();
+        MessageChannel brokerChannel = (message, timeout) -> sink.add(message);
+        delivered.add(sink);
+        nodes.add(new StompClusterBus(redisTemplate, mock(RedisConnectionFactory.class), brokerChannel, objectMapper, CHANNEL));
+    }
+
+    private static Message<?> topicMessage(String destination, String json) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(json.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+}
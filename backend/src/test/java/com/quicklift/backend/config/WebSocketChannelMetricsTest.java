@@ -0,0 +1,81 @@
+package com.quicklift.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class WebSocketChannelMetricsTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WebSocketChannelMetrics metrics = new WebSocketChannelMetrics(meterRegistry);
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void queueDepthAndDispatchTimeAreReportedPerChannel() throws Exception {
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.initialize();
+        ExecutorChannelInterceptor interceptor = metrics.monitor("outbound", executor);
+        ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel(executor);
+        channel.addInterceptor(interceptor);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch handled = new CountDownLatch(3);
+        channel.subscribe(message -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            handled.countDown();
+        });
+
+        channel.send(MessageBuilder.withPayload("m0").build());
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        channel.send(MessageBuilder.withPayload("m1").build());
+        channel.send(MessageBuilder.withPayload("m2").build());
+        // One message is being handled, the other two wait in the queue
+        assertThat(meterRegistry.get("websocket.channel.queue").tag("channel", "outbound").gauge().value()).isEqualTo(2.0);
+
+        release.countDown();
+        assertThat(handled.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.getThreadPoolExecutor().shutdown();
+        executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS);
+        assertThat(meterRegistry.get("websocket.channel.dispatch").tag("channel", "outbound").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void queueGaugeReadsZeroBeforeExecutorStarts() {
+        metrics.monitor("inbound", executor);
+
+        assertThat(meterRegistry.get("websocket.channel.queue").tag("channel", "inbound").gauge().value()).isZero();
+    }
+
+    @Test
+    void onlySessionsClosedAsUnreliableCountAsSlow() throws Exception {
+        WebSocketHandler handler = metrics.decorate(mock(WebSocketHandler.class));
+
+        handler.afterConnectionClosed(mock(WebSocketSession.class), CloseStatus.SESSION_NOT_RELIABLE);
+        handler.afterConnectionClosed(mock(WebSocketSession.class), CloseStatus.NORMAL);
+
+        assertThat(meterRegistry.get("websocket.sessions.slow.closed").counter().count()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,93 @@
+package com.quicklift.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quicklift.backend.model.City;
+import com.quicklift.backend.service.CityCatalogChangedEvent;
+import com.quicklift.backend.service.CityCatalogResponses;
+import com.quicklift.backend.service.CityService;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class CityControllerCatalogTest {
+
+    @Mock
+    private CityService cityService;
+
+    private CityCatalogResponses catalogResponses;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        catalogResponses = new CityCatalogResponses(new ObjectMapper());
+        CityController controller = new CityController();
+        ReflectionTestUtils.setField(controller, "cityService", cityService);
+        ReflectionTestUtils.setField(controller, "catalogResponses", catalogResponses);
+        ReflectionTestUtils.setField(controller, "cacheMaxAgeSeconds", 3600L);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void publishedCatalogIsServedWithEtagAndWithoutTheDatabase() throws Exception {
+        catalogResponses.onCityCatalogChanged(new CityCatalogChangedEvent(1, List.of(city(1L, "Pune", "Maharashtra"))));
+
+        mockMvc.perform(get("/api/v1/cities/state/Maharashtra"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, catalogResponses.citiesByState("Maharashtra").etag()))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"))
+            .andExpect(jsonPath("$[0].name").value("Pune"));
+
+        verifyNoInteractions(cityService);
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnsweredWithNotModified() throws Exception {
+        catalogResponses.onCityCatalogChanged(new CityCatalogChangedEvent(1, List.of(city(1L, "Pune", "Maharashtra"))));
+        MvcResult first = mockMvc.perform(get("/api/cities/states")).andExpect(status().isOk()).andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/cities/states").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, etag))
+            .andExpect(content().bytes(new byte[0]));
+
+        catalogResponses.onCityCatalogChanged(new CityCatalogChangedEvent(2, List.of(city(2L, "Panaji", "Goa"))));
+        mockMvc.perform(get("/api/cities/states").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0]").value("Goa"));
+    }
+
+    @Test
+    void unpublishedCatalogFallsBackToTheDatabase() throws Exception {
+        when(cityService.getAllCities()).thenReturn(List.of(city(1L, "Pune", "Maharashtra")));
+
+        mockMvc.perform(get("/api/cities"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$[0].name").value("Pune"));
+    }
+
+    private static City city(Long id, String name, String state) {
+        City city = new City(name, state, state.substring(0, 2).toUpperCase(), BigDecimal.ZERO, BigDecimal.ZERO);
+        city.setId(id);
+        return city;
+    }
+}
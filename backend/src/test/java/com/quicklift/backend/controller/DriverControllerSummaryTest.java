@@ -2,13 +2,13 @@ package com.quicklift.backend.controller;
 
 import com.quicklift.backend.dto.DriverSummaryResponse;
 import com.quicklift.backend.model.Driver;
+import com.quicklift.backend.model.DriverStats;
 import com.quicklift.backend.model.User;
 import com.quicklift.backend.repository.DriverRepository;
-import com.quicklift.backend.repository.TripRepository;
+import com.quicklift.backend.service.DriverStatsService;
 import com.quicklift.backend.service.TripService;
 import com.quicklift.backend.service.UserService;
 import java.math.BigDecimal;
-import java.util.Collections;
 import java.util.Optional;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -40,7 +40,7 @@ class DriverControllerSummaryTest {
     private DriverRepository driverRepository;
 
     @Mock
-    private TripRepository tripRepository;
+    private DriverStatsService driverStatsService;
 
     private DriverController driverController;
 
@@ -50,7 +50,7 @@ class DriverControllerSummaryTest {
         ReflectionTestUtils.setField(driverController, "tripService", tripService);
         ReflectionTestUtils.setField(driverController, "userService", userService);
         ReflectionTestUtils.setField(driverController, "driverRepository", driverRepository);
-        ReflectionTestUtils.setField(driverController, "tripRepository", tripRepository);
+        ReflectionTestUtils.setField(driverController, "driverStatsService", driverStatsService);
 
         Authentication authentication = mock(Authentication.class);
         when(authentication.getName()).thenReturn("driver-user");
@@ -65,18 +65,19 @@ class DriverControllerSummaryTest {
     }
 
     @Test
-    void getDriverSummaryHandlesMixedNumericAggregateTypes() {
+    void getDriverSummaryReadsStatsProjection() {
         User user = user(1L, "driver-user");
         Driver driver = driver(7L, user);
+        DriverStats stats = new DriverStats(7L);
+        stats.setEarnings(new BigDecimal("1250.50"));
+        stats.setRatingSum(new BigDecimal("17.00"));
+        stats.setRatingCount(4);
+        stats.setActiveTrips(2);
+        stats.setHistoryTrips(11);
         when(userService.findByUsername("driver-user")).thenReturn(Optional.of(user));
         when(driverRepository.findByUserId(1L)).thenReturn(Optional.of(driver));
-        when(tripRepository.getDriverSummaryAggregate(7L)).thenReturn(new Object[]{
-            new BigDecimal("1250.50"),
-            4.25d,
-            2L,
-            5,
-            11L,
-        });
+        when(driverStatsService.getOrRebuild(7L)).thenReturn(stats);
+        when(tripService.countOpenRequestsForDriver(driver)).thenReturn(5L);
 
         ResponseEntity<?> response = driverController.getDriverSummary();
 
@@ -91,13 +92,12 @@ class DriverControllerSummaryTest {
     }
 
     @Test
-    void getDriverSummaryDefaultsToZeroWhenAggregateIsNull() {
+    void getDriverSummaryDefaultsToZeroForEmptyStats() {
         User user = user(1L, "driver-user");
         Driver driver = driver(7L, user);
         when(userService.findByUsername("driver-user")).thenReturn(Optional.of(user));
         when(driverRepository.findByUserId(1L)).thenReturn(Optional.of(driver));
-        when(tripRepository.getDriverSummaryAggregate(7L)).thenReturn(null);
-        when(tripRepository.findByDriverId(7L)).thenReturn(Collections.emptyList());
+        when(driverStatsService.getOrRebuild(7L)).thenReturn(new DriverStats(7L));
 
         ResponseEntity<?> response = driverController.getDriverSummary();
 
@@ -111,33 +111,6 @@ class DriverControllerSummaryTest {
         assertEquals(0L, summary.getHistoryTrips());
     }
 
-    @Test
-    void getDriverSummaryFallsBackToZeroForMalformedAggregateValues() {
-        User user = user(1L, "driver-user");
-        Driver driver = driver(7L, user);
-        when(userService.findByUsername("driver-user")).thenReturn(Optional.of(user));
-        when(driverRepository.findByUserId(1L)).thenReturn(Optional.of(driver));
-        when(tripRepository.getDriverSummaryAggregate(7L)).thenReturn(new Object[]{
-            "999.99",
-            "4.25x",
-            "2",
-            "invalid",
-            null,
-        });
-        // No fallback needed since earnings parse successfully to 999.99
-
-        ResponseEntity<?> response = driverController.getDriverSummary();
-
-        assertEquals(200, response.getStatusCode().value());
-        DriverSummaryResponse summary = (DriverSummaryResponse) response.getBody();
-        assertNotNull(summary);
-        assertEquals(0, new BigDecimal("999.99").compareTo(summary.getEarnings()));
-        assertEquals(0, BigDecimal.ZERO.compareTo(summary.getRating()));
-        assertEquals(2L, summary.getActiveTrips());
-        assertEquals(0L, summary.getPendingRequests());
-        assertEquals(0L, summary.getHistoryTrips());
-    }
-
     private static User user(Long id, String username) {
         User user = new User();
         user.setId(id);
@@ -0,0 +1,69 @@
+package com.quicklift.backend.repository;
+
+import com.quicklift.backend.model.Driver;
+import com.quicklift.backend.model.DriverStats;
+import com.quicklift.backend.model.DriverStatus;
+import com.quicklift.backend.model.User;
+import com.quicklift.backend.model.UserRole;
+import com.quicklift.backend.model.VehicleType;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The rebuild insert of driver_stats must leave an existing row alone instead of failing on the primary key.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class DriverStatsUpsertTest {
+    @Autowired
+    private DriverStatsRepository driverStatsRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void secondRebuildInsertIsIgnored() {
+        Long driverId = driver().getId();
+
+        assertThat(driverStatsRepository.insertIfAbsent(driverId, new BigDecimal("120.00"), BigDecimal.ZERO, 0, 1, 2))
+            .isEqualTo(1);
+        assertThat(driverStatsRepository.insertIfAbsent(driverId, new BigDecimal("999.00"), BigDecimal.ZERO, 0, 0, 0))
+            .isZero();
+        entityManager.clear();
+
+        DriverStats stats = driverStatsRepository.findById(driverId).orElseThrow();
+        assertThat(stats.getEarnings()).isEqualByComparingTo("120.00");
+        assertThat(stats.getActiveTrips()).isEqualTo(1);
+        assertThat(stats.getHistoryTrips()).isEqualTo(2);
+        assertThat(stats.getVersion()).isZero();
+    }
+
+    private Driver driver() {
+        User user = new User();
+        user.setUsername("stats-driver");
+        user.setEmail("stats-driver@example.com");
+        user.setPassword("hash");
+        user.setFirstName("First");
+        user.setLastName("Last");
+        user.setRole(UserRole.DRIVER);
+        entityManager.persist(user);
+        Driver driver = new Driver();
+        driver.setUser(user);
+        driver.setLicenseNumber("STATS-DL-1");
+        driver.setLicensePlate("STATS-KA-1");
+        driver.setVehicleType(VehicleType.SEDAN);
+        driver.setVehicleModel("Dzire");
+        driver.setVehicleColor("White");
+        driver.setStatus(DriverStatus.ONLINE);
+        entityManager.persist(driver);
+        return driver;
+    }
+}
@@ -0,0 +1,96 @@
+package com.quicklift.backend.repository;
+
+import com.quicklift.backend.model.Driver;
+import com.quicklift.backend.model.DriverStatus;
+import com.quicklift.backend.model.Trip;
+import com.quicklift.backend.model.TripStatus;
+import com.quicklift.backend.model.User;
+import com.quicklift.backend.model.UserRole;
+import com.quicklift.backend.model.VehicleType;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The database fallback of the available-trips feed used when the in-memory book is not authoritative.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class OpenRequestQueryTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private int sequence;
+
+    @Test
+    void driverSeesOwnRequestsFirstThenUnassignedRequestsForTheirVehicleType() {
+        User rider = user(UserRole.USER);
+        Driver driver = driver();
+        Driver otherDriver = driver();
+        Trip oldUnassigned = trip(rider, null, VehicleType.SEDAN, TripStatus.REQUESTED, 30);
+        Trip newUnassigned = trip(rider, null, VehicleType.SEDAN, TripStatus.REQUESTED, 10);
+        Trip assigned = trip(rider, driver, VehicleType.SUV, TripStatus.REQUESTED, 5);
+        trip(rider, otherDriver, VehicleType.SEDAN, TripStatus.REQUESTED, 40);
+        trip(rider, null, VehicleType.SUV, TripStatus.REQUESTED, 50);
+        trip(rider, null, VehicleType.SEDAN, TripStatus.ACCEPTED, 60);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(tripRepository.findOpenRequestsForDriver(driver.getId(), VehicleType.SEDAN, PageRequest.of(0, 20)))
+            .extracting(Trip::getId)
+            .containsExactly(assigned.getId(), oldUnassigned.getId(), newUnassigned.getId());
+        assertThat(tripRepository.findOpenRequestsForDriver(driver.getId(), VehicleType.SEDAN, PageRequest.of(1, 2)))
+            .extracting(Trip::getId)
+            .containsExactly(newUnassigned.getId());
+        assertThat(tripRepository.countOpenRequestsForDriver(driver.getId(), VehicleType.SEDAN)).isEqualTo(3);
+        assertThat(tripRepository.countOpenRequestsForDriver(driver.getId(), null)).isEqualTo(1);
+    }
+
+    private Trip trip(User rider, Driver driver, VehicleType vehicleType, TripStatus status, int minutesAgo) {
+        Trip trip = new Trip(rider, "Pickup", "Destination", vehicleType);
+        trip.setDriver(driver);
+        trip.setStatus(status);
+        trip.setRequestedAt(NOW.minusMinutes(minutesAgo));
+        entityManager.persist(trip);
+        return trip;
+    }
+
+    private Driver driver() {
+        Driver driver = new Driver();
+        driver.setUser(user(UserRole.DRIVER));
+        driver.setLicenseNumber("OPEN-DL-" + sequence);
+        driver.setLicensePlate("OPEN-KA-" + sequence);
+        driver.setVehicleType(VehicleType.SEDAN);
+        driver.setVehicleModel("Dzire");
+        driver.setVehicleColor("White");
+        driver.setStatus(DriverStatus.ONLINE);
+        entityManager.persist(driver);
+        return driver;
+    }
+
+    private User user(UserRole role) {
+        int n = ++sequence;
+        User user = new User();
+        user.setUsername("open" + n);
+        user.setEmail("open" + n + "@example.com");
+        user.setPassword("hash");
+        user.setFirstName("First");
+        user.setLastName("Last");
+        user.setRole(role);
+        entityManager.persist(user);
+        return user;
+    }
+}
@@ -0,0 +1,101 @@
+package com.quicklift.backend.repository;
+
+import com.quicklift.backend.model.City;
+import com.quicklift.backend.model.User;
+import com.quicklift.backend.model.UserRole;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.function.Function;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Each lookup runs in its own persistence context and transaction, the way separate requests would, so repeated
+ * reads can only be served by the second-level cache. Rows are committed and removed again after each test.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long cityId;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        inTransaction(em -> {
+            City city = new City("Cache Town", "Cache State", "CS", new BigDecimal("12.0000"), new BigDecimal("77.0000"));
+            em.persist(city);
+            User user = new User();
+            user.setUsername("cache-test-user");
+            user.setEmail("cache-test-user@example.com");
+            user.setPassword("hash");
+            user.setFirstName("First");
+            user.setLastName("Last");
+            user.setRole(UserRole.USER);
+            em.persist(user);
+            cityId = city.getId();
+            userId = user.getId();
+            return null;
+        });
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        inTransaction(em -> {
+            em.remove(em.find(User.class, userId));
+            em.remove(em.find(City.class, cityId));
+            return null;
+        });
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void repeatedCityLookupsAreServedFromTheCache() {
+        for (int i = 0; i < 3; i++) {
+            inTransaction(em -> em.find(City.class, cityId));
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        CacheRegionStatistics cities = statistics.getDomainDataRegionStatistics("cities");
+        assertThat(cities.getMissCount()).isEqualTo(1);
+        assertThat(cities.getHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    void mutableEntitiesAreAlwaysReadFromTheDatabase() {
+        for (int i = 0; i < 2; i++) {
+            inTransaction(em -> em.find(User.class, userId));
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(entityManagerFactory.getCache().contains(User.class, userId)).isFalse();
+    }
+
+    private <T> T inTransaction(Function<EntityManager, T> work) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            T result = work.apply(em);
+            em.getTransaction().commit();
+            return result;
+        } finally {
+            em.close();
+        }
+    }
+}
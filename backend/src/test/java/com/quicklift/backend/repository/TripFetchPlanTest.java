@@ -0,0 +1,149 @@
+package com.quicklift.backend.repository;
+
+import com.quicklift.backend.dto.DriverResponse;
+import com.quicklift.backend.dto.TripResponse;
+import com.quicklift.backend.model.Driver;
+import com.quicklift.backend.model.DriverStatus;
+import com.quicklift.backend.model.Trip;
+import com.quicklift.backend.model.TripStatus;
+import com.quicklift.backend.model.User;
+import com.quicklift.backend.model.UserRole;
+import com.quicklift.backend.model.VehicleType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the statements behind each list use case, mapped the way the endpoints map them, for a small and a larger
+ * data set. With the fetch plans in place the count must not grow with the number of rows. Statistics are shared by
+ * the whole session factory, so the outbox poller and the tariff refresh are held off to keep them out of the counts.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "app.outbox.poll-interval-ms=3600000",
+    "app.tariff.refresh-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+@Transactional
+class TripFetchPlanTest {
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private int sequence;
+
+    @Test
+    void tripListsCostTheSameNumberOfQueriesForAnyResultSize() {
+        Fixture small = seed(2);
+        long[] smallCounts = tripListCounts(small);
+        Fixture large = seed(12);
+        long[] largeCounts = tripListCounts(large);
+
+        assertThat(largeCounts).containsExactly(smallCounts);
+        assertThat(smallCounts).containsOnly(1L);
+    }
+
+    @Test
+    void driverListsCostTheSameNumberOfQueriesForAnyResultSize() {
+        seed(2);
+        long small = statements(() -> driverRepository.findByStatus(DriverStatus.ONLINE).stream().map(DriverResponse::from).toList());
+        seed(12);
+        long large = statements(() -> driverRepository.findByStatus(DriverStatus.ONLINE).stream().map(DriverResponse::from).toList());
+
+        assertThat(large).isEqualTo(small).isEqualTo(1L);
+    }
+
+    private long[] tripListCounts(Fixture fixture) {
+        return new long[] {
+            statements(() -> map(tripRepository.findAll())),
+            statements(() -> map(tripRepository.findByUserId(fixture.rider().getId()))),
+            statements(() -> map(tripRepository.findByDriverId(fixture.driver().getId()))),
+            statements(() -> map(tripRepository.findByStatus(TripStatus.ACCEPTED))),
+            statements(() -> map(tripRepository.findAllById(fixture.tripIds())))
+        };
+    }
+
+    private long statements(Supplier<?> action) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static List<TripResponse> map(List<Trip> trips) {
+        return trips.stream().map(TripResponse::from).toList();
+    }
+
+    /**
+     * One rider and one driver owning {@code count} trips each, plus {@code count} more trips by distinct riders
+     * and drivers so that every list also spans many different associated rows.
+     */
+    private Fixture seed(int count) {
+        User rider = user(UserRole.USER);
+        Driver driver = driver();
+        List<Long> tripIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tripIds.add(trip(rider, driver).getId());
+            tripIds.add(trip(user(UserRole.USER), driver()).getId());
+        }
+        entityManager.flush();
+        return new Fixture(rider, driver, tripIds);
+    }
+
+    private Trip trip(User rider, Driver driver) {
+        Trip trip = new Trip(rider, "Pickup", "Destination", VehicleType.SEDAN);
+        trip.setDriver(driver);
+        trip.setStatus(TripStatus.ACCEPTED);
+        entityManager.persist(trip);
+        return trip;
+    }
+
+    private Driver driver() {
+        Driver driver = new Driver();
+        driver.setUser(user(UserRole.DRIVER));
+        driver.setLicenseNumber("DL-" + sequence);
+        driver.setLicensePlate("KA-01-" + sequence);
+        driver.setVehicleType(VehicleType.SEDAN);
+        driver.setVehicleModel("Dzire");
+        driver.setVehicleColor("White");
+        driver.setStatus(DriverStatus.ONLINE);
+        entityManager.persist(driver);
+        return driver;
+    }
+
+    private User user(UserRole role) {
+        int n = ++sequence;
+        User user = new User();
+        user.setUsername("user" + n);
+        user.setEmail("user" + n + "@example.com");
+        user.setPassword("hash");
+        user.setFirstName("First");
+        user.setLastName("Last");
+        user.setRole(role);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private record Fixture(User rider, Driver driver, List<Long> tripIds) {
+    }
+}
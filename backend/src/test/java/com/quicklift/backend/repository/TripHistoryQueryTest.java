@@ -0,0 +1,119 @@
+package com.quicklift.backend.repository;
+
+import com.quicklift.backend.dto.TripHistoryItem;
+import com.quicklift.backend.dto.TripStatsResponse;
+import com.quicklift.backend.model.Driver;
+import com.quicklift.backend.model.DriverStatus;
+import com.quicklift.backend.model.Trip;
+import com.quicklift.backend.model.TripStatus;
+import com.quicklift.backend.model.User;
+import com.quicklift.backend.model.UserRole;
+import com.quicklift.backend.model.VehicleType;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The queries behind the admin dashboard and the history pages, run against the test database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TripHistoryQueryTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private int sequence;
+
+    @Test
+    void adminTotalsAreAggregatedInTheDatabase() {
+        TripStatsResponse before = tripRepository.getTripStats();
+        User rider = user(UserRole.USER);
+        trip(rider, TripStatus.COMPLETED, "250.00", 30);
+        trip(rider, TripStatus.COMPLETED, "120.50", 20);
+        trip(rider, TripStatus.CANCELLED, null, 10);
+        trip(rider, TripStatus.REQUESTED, "80.00", 5);
+        entityManager.flush();
+
+        TripStatsResponse after = tripRepository.getTripStats();
+
+        assertThat(after.getTotalTrips() - before.getTotalTrips()).isEqualTo(4);
+        assertThat(after.getCompletedTrips() - before.getCompletedTrips()).isEqualTo(2);
+        assertThat(after.getRevenue().subtract(before.getRevenue())).isEqualByComparingTo("450.50");
+    }
+
+    @Test
+    void driverHistoryListsOnlyFinishedTripsOnEveryPage() {
+        User rider = user(UserRole.USER);
+        Driver driver = driver();
+        Trip newest = trip(rider, driver, TripStatus.CANCELLED, null, 10);
+        trip(rider, driver, TripStatus.STARTED, "90.00", 20);
+        Trip middle = trip(rider, driver, TripStatus.COMPLETED, "120.00", 30);
+        trip(rider, driver, TripStatus.ACCEPTED, "60.00", 40);
+        Trip oldest = trip(rider, driver, TripStatus.COMPLETED, "75.00", 50);
+        trip(rider, null, TripStatus.COMPLETED, "40.00", 60);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(tripRepository.findDriverHistory(driver.getId(), PageRequest.of(0, 2)))
+            .extracting(TripHistoryItem::getId)
+            .containsExactly(newest.getId(), middle.getId());
+        assertThat(tripRepository.findDriverHistoryBefore(driver.getId(), middle.getRequestedAt(), middle.getId(),
+                PageRequest.of(0, 2)))
+            .extracting(TripHistoryItem::getId)
+            .containsExactly(oldest.getId());
+    }
+
+    private Trip trip(User rider, TripStatus status, String fare, int minutesAgo) {
+        return trip(rider, null, status, fare, minutesAgo);
+    }
+
+    private Trip trip(User rider, Driver driver, TripStatus status, String fare, int minutesAgo) {
+        Trip trip = new Trip(rider, "Pickup", "Destination", VehicleType.SEDAN);
+        trip.setDriver(driver);
+        trip.setStatus(status);
+        trip.setFare(fare != null ? new BigDecimal(fare) : null);
+        trip.setRequestedAt(NOW.minusMinutes(minutesAgo));
+        entityManager.persist(trip);
+        return trip;
+    }
+
+    private Driver driver() {
+        Driver driver = new Driver();
+        driver.setUser(user(UserRole.DRIVER));
+        driver.setLicenseNumber("HISTORY-DL-" + sequence);
+        driver.setLicensePlate("HISTORY-KA-" + sequence);
+        driver.setVehicleType(VehicleType.SEDAN);
+        driver.setVehicleModel("Dzire");
+        driver.setVehicleColor("White");
+        driver.setStatus(DriverStatus.ONLINE);
+        entityManager.persist(driver);
+        return driver;
+    }
+
+    private User user(UserRole role) {
+        int n = ++sequence;
+        User user = new User();
+        user.setUsername("history" + n);
+        user.setEmail("history" + n + "@example.com");
+        user.setPassword("hash");
+        user.setFirstName("First");
+        user.setLastName("Last");
+        user.setRole(role);
+        entityManager.persist(user);
+        return user;
+    }
+}
@@ -0,0 +1,119 @@
+package com.quicklift.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdminExportServiceTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 5, 1, 9, 0);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private EmbeddedDatabase database;
+    private AdminExportService service;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("""
+            CREATE TABLE users (id BIGINT PRIMARY KEY, username VARCHAR(50), email VARCHAR(100), first_name VARCHAR(50),
+                last_name VARCHAR(50), phone_number VARCHAR(20), role VARCHAR(32), enabled BOOLEAN, password VARCHAR(120))
+            """);
+        jdbc.execute("""
+            CREATE TABLE trips (id BIGINT PRIMARY KEY, user_id BIGINT, driver_id BIGINT, pickup_location VARCHAR(255),
+                destination VARCHAR(255), status VARCHAR(32), requested_vehicle_type VARCHAR(32), fare NUMERIC(12, 2),
+                requested_at TIMESTAMP, accepted_at TIMESTAMP, started_at TIMESTAMP, completed_at TIMESTAMP,
+                cancelled_at TIMESTAMP, rating NUMERIC(3, 2), paid BOOLEAN, payment_method VARCHAR(32),
+                updated_at TIMESTAMP NOT NULL)
+            """);
+        jdbc.update("INSERT INTO users VALUES (1, 'asha', 'asha@example.com', 'Asha', 'Rao', NULL, 'USER', TRUE, 'hash')");
+        jdbc.update("INSERT INTO users VALUES (2, 'ravi', 'ravi@example.com', '=HYPERLINK(\"x\")', 'Das, Jr', NULL, 'DRIVER', TRUE, 'hash')");
+        jdbc.update("INSERT INTO trips (id, user_id, pickup_location, destination, status, requested_vehicle_type, requested_at, completed_at, updated_at) "
+            + "VALUES (10, 1, 'MG Road', 'Airport', 'COMPLETED', 'SEDAN', ?, ?, ?)", BASE, BASE.plusDays(3), BASE.plusDays(3));
+        jdbc.update("INSERT INTO trips (id, user_id, pickup_location, destination, status, requested_vehicle_type, requested_at, updated_at) "
+            + "VALUES (11, 1, 'Airport', 'MG Road', 'REQUESTED', 'SUV', ?, ?)", BASE.plusDays(1), BASE.plusDays(1));
+        jdbc.update("INSERT INTO trips (id, user_id, pickup_location, destination, status, requested_vehicle_type, requested_at, updated_at) "
+            + "VALUES (12, 1, 'Indiranagar', 'Whitefield', 'REQUESTED', 'SUV', ?, ?)", BASE, BASE);
+        // Rated well after it completed: only updated_at is past the watermark
+        jdbc.update("INSERT INTO trips (id, user_id, pickup_location, destination, status, requested_vehicle_type, requested_at, completed_at, rating, updated_at) "
+            + "VALUES (13, 1, 'Koramangala', 'Airport', 'COMPLETED', 'SEDAN', ?, ?, 4.5, ?)", BASE, BASE, BASE.plusDays(2));
+        service = new AdminExportService(jdbc, objectMapper, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void usersExportAsNdjsonWithoutPasswords() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportUsers(AdminExportService.Format.NDJSON, null, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("username").asText()).isEqualTo("asha");
+        assertThat(first.has("password")).isFalse();
+    }
+
+    @Test
+    void csvQuotesFieldsAndDefusesFormulas() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportUsers(AdminExportService.Format.CSV, 1L, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines.get(0)).isEqualTo("id,username,email,first_name,last_name,phone_number,role,enabled");
+        assertThat(lines.get(1)).isEqualTo("2,ravi,ravi@example.com,\"'=HYPERLINK(\"\"x\"\")\",\"Das, Jr\",,DRIVER,true");
+        assertThat(lines).hasSize(2);
+    }
+
+    @Test
+    void tripsSinceIncludesTripsChangedAfterTheWatermark() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportTrips(AdminExportService.Format.NDJSON, BASE.plusHours(1), null, out);
+
+        List<Long> ids = out.toString(StandardCharsets.UTF_8).lines()
+            .map(line -> {
+                try {
+                    return objectMapper.readTree(line).get("id").asLong();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            })
+            .toList();
+        assertThat(ids).containsExactly(10L, 11L, 13L);
+    }
+
+    @Test
+    void emptyCsvExportStillHasAHeader() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.exportTrips(AdminExportService.Format.CSV, null, 99L, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).lines().toList()).hasSize(1);
+    }
+
+    @Test
+    void unknownFormatIsRejected() {
+        assertThatThrownBy(() -> AdminExportService.Format.from("xml")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
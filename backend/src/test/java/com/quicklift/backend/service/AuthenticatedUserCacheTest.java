@@ -0,0 +1,45 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.User;
+import com.quicklift.backend.repository.UserRepository;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticatedUserCacheTest {
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void repeatLookupsHitTheRepositoryOnceUntilEvicted() {
+        AuthenticatedUserCache cache = new AuthenticatedUserCache(userRepository, 60, 100);
+        User alice = new User("Alice", "alice@example.com", "secret", "Alice", "Doe");
+        when(userRepository.findByNormalizedUsername("alice")).thenReturn(Optional.of(alice));
+
+        assertThat(cache.findByUsername("Alice")).containsSame(alice);
+        assertThat(cache.findByUsername(" alice ")).containsSame(alice);
+        verify(userRepository, times(1)).findByNormalizedUsername("alice");
+
+        cache.evict("ALICE");
+        assertThat(cache.findByUsername("alice")).containsSame(alice);
+        verify(userRepository, times(2)).findByNormalizedUsername("alice");
+    }
+
+    @Test
+    void unknownUsersAreNotCached() {
+        AuthenticatedUserCache cache = new AuthenticatedUserCache(userRepository, 60, 100);
+        when(userRepository.findByNormalizedUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThat(cache.findByUsername("ghost")).isEmpty();
+        assertThat(cache.findByUsername("ghost")).isEmpty();
+        verify(userRepository, times(2)).findByNormalizedUsername("ghost");
+    }
+}
@@ -0,0 +1,72 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.City;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CityAutocompleteIndexTest {
+    private final CityAutocompleteIndex index = new CityAutocompleteIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.onCityCatalogChanged(new CityCatalogChangedEvent(1, List.of(
+            city("Mumbai", "Maharashtra"),
+            city("Navi Mumbai", "Maharashtra"),
+            city("Mysore", "Karnataka"),
+            city("Bangalore", "Karnataka"),
+            city("Delhi", "Delhi"),
+            city("New Delhi", "Delhi"),
+            city("Visakhapatnam", "Andhra Pradesh"),
+            city("Hyderabad", "Telangana"),
+            city("Ahmedabad", "Gujarat")
+        )));
+    }
+
+    @Test
+    void searchRanksExactAndPrefixNamesBeforeWordAndStateMatches() {
+        assertThat(names(index.search("delhi", 10))).containsExactly("Delhi", "New Delhi");
+        assertThat(names(index.search("MUM", 10))).containsExactly("Mumbai", "Navi Mumbai");
+        assertThat(names(index.search("maha", 10))).containsExactly("Mumbai", "Navi Mumbai");
+    }
+
+    @Test
+    void searchKeepsInfixMatchesAfterPrefixMatches() {
+        assertThat(names(index.search("bad", 10))).containsExactly("Ahmedabad", "Hyderabad", "Bangalore");
+        assertThat(names(index.search("umba", 10))).containsExactly("Mumbai", "Navi Mumbai");
+        assertThat(names(index.search("anga", 10))).containsExactly("Bangalore", "Hyderabad");
+    }
+
+    @Test
+    void searchToleratesTypos() {
+        assertThat(names(index.search("banglore", 10))).containsExactly("Bangalore");
+        assertThat(names(index.search("vizakhap", 10))).containsExactly("Visakhapatnam");
+    }
+
+    @Test
+    void searchHonoursLimitAndIgnoresBlankQueries() {
+        assertThat(index.search("m", 1)).hasSize(1);
+        assertThat(index.search("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void findByNamesKeepsRequestedOrderAndRebuildsOnCatalogChange() {
+        assertThat(names(index.findByNames(List.of("Bangalore", "Mumbai", "Atlantis")))).containsExactly("Bangalore", "Mumbai");
+
+        index.onCityCatalogChanged(new CityCatalogChangedEvent(2, List.of(city("Pune", "Maharashtra"))));
+
+        assertThat(index.findByNames(List.of("Bangalore"))).isEmpty();
+        assertThat(names(index.search("pun", 10))).containsExactly("Pune");
+    }
+
+    private static List<String> names(List<City> cities) {
+        return cities.stream().map(City::getName).toList();
+    }
+
+    private static City city(String name, String state) {
+        return new City(name, state, state.substring(0, 2).toUpperCase(), BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,99 @@
+package com.quicklift.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quicklift.backend.model.City;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CityCatalogResponsesTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CityCatalogResponses responses = new CityCatalogResponses(objectMapper);
+    private long nextId = 1;
+
+    @BeforeEach
+    void setUp() {
+        responses.onCityCatalogChanged(new CityCatalogChangedEvent(1, catalog()));
+    }
+
+    @Test
+    void bodiesAreEmptyUntilTheCatalogIsPublished() {
+        CityCatalogResponses fresh = new CityCatalogResponses(objectMapper);
+
+        assertThat(fresh.allCities()).isNull();
+        assertThat(fresh.states()).isNull();
+        assertThat(fresh.citiesByState("Karnataka")).isNull();
+        assertThat(fresh.popularCities()).isNull();
+    }
+
+    @Test
+    void bodiesMatchTheEndpointQueries() throws IOException {
+        assertThat(names(responses.allCities())).containsExactly("Pune", "Mumbai", "Mysore", "Bangalore", "Delhi");
+        assertThat(texts(responses.states())).containsExactly("Delhi", "Karnataka", "Maharashtra");
+        assertThat(names(responses.citiesByState("Maharashtra"))).containsExactly("Mumbai", "Pune");
+        assertThat(names(responses.popularCities())).containsExactly("Mumbai", "Delhi", "Bangalore", "Pune");
+        assertThat(new String(responses.citiesByState("Goa").json())).isEqualTo("[]");
+    }
+
+    @Test
+    void etagsAreStrongAndDependOnlyOnTheContent() {
+        CityCatalogResponses other = new CityCatalogResponses(objectMapper);
+        nextId = 1;
+        other.onCityCatalogChanged(new CityCatalogChangedEvent(7, catalog()));
+
+        assertThat(responses.allCities().etag()).startsWith("\"").doesNotStartWith("W/");
+        assertThat(other.allCities().etag()).isEqualTo(responses.allCities().etag());
+        assertThat(responses.states().etag()).isNotEqualTo(responses.allCities().etag());
+    }
+
+    @Test
+    void bodiesAreRebuiltOnlyForANewerVersion() throws IOException {
+        CityCatalogResponses.Body before = responses.allCities();
+
+        responses.onCityCatalogChanged(new CityCatalogChangedEvent(1, List.of(city("Goa Velha", "Goa"))));
+        assertThat(responses.allCities()).isSameAs(before);
+
+        responses.onCityCatalogChanged(new CityCatalogChangedEvent(2, List.of(city("Goa Velha", "Goa"))));
+        assertThat(names(responses.allCities())).containsExactly("Goa Velha");
+        assertThat(responses.allCities().etag()).isNotEqualTo(before.etag());
+        assertThat(new String(responses.citiesByState("Maharashtra").json())).isEqualTo("[]");
+    }
+
+    private List<City> catalog() {
+        return List.of(
+            city("Pune", "Maharashtra"),
+            city("Mumbai", "Maharashtra"),
+            city("Mysore", "Karnataka"),
+            city("Bangalore", "Karnataka"),
+            city("Delhi", "Delhi")
+        );
+    }
+
+    private List<String> names(CityCatalogResponses.Body body) throws IOException {
+        List<String> names = new ArrayList<>();
+        for (JsonNode city : objectMapper.readTree(body.json())) {
+            names.add(city.get("name").asText());
+        }
+        return names;
+    }
+
+    private List<String> texts(CityCatalogResponses.Body body) throws IOException {
+        List<String> values = new ArrayList<>();
+        for (JsonNode value : objectMapper.readTree(body.json())) {
+            values.add(value.asText());
+        }
+        return values;
+    }
+
+    private City city(String name, String state) {
+        City city = new City(name, state, state.substring(0, 2).toUpperCase(), BigDecimal.ZERO, BigDecimal.ZERO);
+        city.setId(nextId++);
+        return city;
+    }
+}
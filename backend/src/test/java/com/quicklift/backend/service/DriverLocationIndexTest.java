@@ -0,0 +1,118 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.Driver;
+import com.quicklift.backend.model.DriverStatus;
+import com.quicklift.backend.model.VehicleType;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DriverLocationIndexTest {
+    private final DriverLocationIndex index = new DriverLocationIndex();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void findNearestReturnsClosestDriversFirstWithinRadius() {
+        index.put(1L, VehicleType.SEDAN, 12.9716, 77.5946);
+        index.put(2L, VehicleType.SEDAN, 12.9816, 77.5946);
+        index.put(3L, VehicleType.SEDAN, 12.9736, 77.5946);
+        index.put(4L, VehicleType.SEDAN, 13.3000, 77.5946);
+
+        List<DriverLocationIndex.NearbyDriver> nearest = index.findNearest(VehicleType.SEDAN, 12.9716, 77.5946, 5, 10);
+
+        assertThat(nearest).extracting(DriverLocationIndex.NearbyDriver::driverId).containsExactly(1L, 3L, 2L);
+    }
+
+    @Test
+    void findNearestHonoursLimitAndVehicleType() {
+        index.put(1L, VehicleType.SEDAN, 12.9716, 77.5946);
+        index.put(2L, VehicleType.SUV, 12.9717, 77.5946);
+        index.put(3L, VehicleType.SEDAN, 12.9730, 77.5946);
+
+        List<DriverLocationIndex.NearbyDriver> nearest = index.findNearest(VehicleType.SEDAN, 12.9716, 77.5946, 5, 1);
+
+        assertThat(nearest).extracting(DriverLocationIndex.NearbyDriver::driverId).containsExactly(1L);
+    }
+
+    @Test
+    void movingDriverReplacesPreviousCell() {
+        index.put(1L, VehicleType.SEDAN, 12.9716, 77.5946);
+        index.put(1L, VehicleType.SEDAN, 19.0760, 72.8777);
+
+        assertThat(index.findNearest(VehicleType.SEDAN, 12.9716, 77.5946, 5, 10)).isEmpty();
+        assertThat(index.findNearest(VehicleType.SEDAN, 19.0760, 72.8777, 5, 10)).hasSize(1);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void trackRemovesDriversThatAreNoLongerOnline() {
+        Driver driver = new Driver();
+        driver.setId(9L);
+        driver.setVehicleType(VehicleType.SEDAN);
+        driver.setStatus(DriverStatus.ONLINE);
+        driver.setCurrentLatitude(new BigDecimal("12.9716"));
+        driver.setCurrentLongitude(new BigDecimal("77.5946"));
+        index.track(driver);
+        assertThat(index.contains(9L)).isTrue();
+
+        driver.setStatus(DriverStatus.BUSY);
+        index.track(driver);
+
+        assertThat(index.contains(9L)).isFalse();
+        assertThat(index.findNearest(VehicleType.SEDAN, 12.9716, 77.5946, 5, 10)).isEmpty();
+    }
+
+    @Test
+    void trackInsideTransactionIsAppliedOnlyAfterCommit() {
+        Driver driver = new Driver();
+        driver.setId(9L);
+        driver.setVehicleType(VehicleType.SEDAN);
+        driver.setStatus(DriverStatus.ONLINE);
+        driver.setCurrentLatitude(new BigDecimal("12.9716"));
+        driver.setCurrentLongitude(new BigDecimal("77.5946"));
+        index.track(driver);
+
+        // Accept that loses the optimistic lock and rolls back: the driver must stay available
+        TransactionSynchronizationManager.initSynchronization();
+        driver.setStatus(DriverStatus.BUSY);
+        index.track(driver);
+        assertThat(index.contains(9L)).isTrue();
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(index.findNearest(VehicleType.SEDAN, 12.9716, 77.5946, 5, 10)).hasSize(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.track(driver);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(index.contains(9L)).isFalse();
+
+        TransactionSynchronizationManager.initSynchronization();
+        driver.setStatus(DriverStatus.ONLINE);
+        index.track(driver);
+        driver.setStatus(DriverStatus.BUSY);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        // the state captured at track time is what gets indexed
+        assertThat(index.contains(9L)).isTrue();
+    }
+
+    private static void complete(int status) {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.Driver;
+import com.quicklift.backend.model.Trip;
+import com.quicklift.backend.model.User;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DriverLocationIngestionServiceTest {
+    @Mock
+    private TripService tripService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private DriverLocationIngestionService ingestionService;
+
+    @BeforeEach
+    void setUp() {
+        ingestionService = new DriverLocationIngestionService(tripService, jdbcTemplate, new DriverLocationIndex(), 60, 500,
+            "simple", 5);
+    }
+
+    @Test
+    void authorizeLoadsTripOncePerSession() {
+        when(tripService.findById(11L)).thenReturn(Optional.of(trip(11L, 2L, "driver")));
+
+        assertThat(ingestionService.authorize("session-1", 11L, "driver")).isEqualTo(2L);
+        assertThat(ingestionService.authorize("session-1", 11L, "driver")).isEqualTo(2L);
+
+        verify(tripService, times(1)).findById(11L);
+    }
+
+    @Test
+    void releasedTripIsAuthorizedAgainFromTheDatabase() {
+        when(tripService.findById(11L)).thenReturn(Optional.of(trip(11L, 2L, "driver")));
+        ingestionService.authorize("session-1", 11L, "driver");
+
+        ingestionService.onTripDriverReleased(new TripDriverReleasedEvent(11L));
+        Trip reassigned = trip(11L, 4L, "other-driver");
+        when(tripService.findById(11L)).thenReturn(Optional.of(reassigned));
+
+        assertThatThrownBy(() -> ingestionService.authorize("session-1", 11L, "driver"))
+            .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void multiNodeBrokerModesCapTheGrantLifetime() {
+        ingestionService = new DriverLocationIngestionService(tripService, jdbcTemplate, new DriverLocationIndex(), 60, 500,
+            "cluster", 0);
+        when(tripService.findById(11L)).thenReturn(Optional.of(trip(11L, 2L, "driver")));
+
+        ingestionService.authorize("session-1", 11L, "driver");
+        ingestionService.authorize("session-1", 11L, "driver");
+
+        verify(tripService, times(2)).findById(11L);
+    }
+
+    @Test
+    void authorizeRejectsDriversNotAssignedToTrip() {
+        when(tripService.findById(11L)).thenReturn(Optional.of(trip(11L, 2L, "driver")));
+
+        assertThatThrownBy(() -> ingestionService.authorize("session-1", 11L, "someone-else"))
+            .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushWritesOnlyLatestPositionPerDriver() {
+        ingestionService.record(2L, new BigDecimal("12.9716"), new BigDecimal("77.5946"));
+        ingestionService.record(2L, new BigDecimal("12.9800"), new BigDecimal("77.6000"));
+        ingestionService.record(3L, new BigDecimal("19.0760"), new BigDecimal("72.8777"));
+
+        ingestionService.flush();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(DriverLocationIngestionService.UPDATE_POSITION_SQL), batch.capture());
+        assertThat(batch.getValue()).hasSize(2);
+        Object[] driverTwo = batch.getValue().stream().filter(row -> row[2].equals(2L)).findFirst().orElseThrow();
+        assertThat(driverTwo[0]).isEqualTo(BigDecimal.valueOf(12.98));
+        assertThat(ingestionService.pendingCount()).isZero();
+    }
+
+    @Test
+    void flushIsNoOpWithoutPendingPositions() {
+        ingestionService.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static Trip trip(Long id, Long driverId, String driverUsername) {
+        User driverUser = new User();
+        driverUser.setUsername(driverUsername);
+        Driver driver = new Driver();
+        driver.setId(driverId);
+        driver.setUser(driverUser);
+        Trip trip = new Trip();
+        trip.setId(id);
+        trip.setDriver(driver);
+        return trip;
+    }
+}
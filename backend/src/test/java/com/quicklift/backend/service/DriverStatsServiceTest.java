@@ -0,0 +1,100 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.DriverStats;
+import com.quicklift.backend.repository.DriverStatsRepository;
+import com.quicklift.backend.repository.TripRepository;
+import java.math.BigDecimal;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DriverStatsServiceTest {
+
+    @Mock
+    private DriverStatsRepository driverStatsRepository;
+
+    @Mock
+    private TripRepository tripRepository;
+
+    private DriverStatsService driverStatsService;
+
+    @BeforeEach
+    void setUp() {
+        driverStatsService = new DriverStatsService(driverStatsRepository, tripRepository);
+    }
+
+    @Test
+    void completingTripAppliesDeltaToExistingRow() {
+        when(driverStatsRepository.applyDelta(7L, new BigDecimal("250.00"), BigDecimal.ZERO, 0, -1, 1)).thenReturn(1);
+
+        driverStatsService.tripCompleted(7L, new BigDecimal("250.00"));
+
+        verify(tripRepository, never()).getDriverStatsAggregate(any());
+    }
+
+    @Test
+    void missingRowIsRebuiltFromMixedNumericAggregateTypes() {
+        when(driverStatsRepository.applyDelta(eq(7L), any(), any(), eq(1L), eq(0L), eq(0L))).thenReturn(0);
+        when(tripRepository.getDriverStatsAggregate(7L)).thenReturn(new Object[]{
+            new BigDecimal("1250.50"),
+            17.0d,
+            4,
+            2L,
+            "11",
+        });
+        when(driverStatsRepository.insertIfAbsent(eq(7L), any(), any(), eq(4L), eq(2L), eq(11L))).thenReturn(1);
+
+        driverStatsService.tripRated(7L, new BigDecimal("4.50"));
+
+        ArgumentCaptor<BigDecimal> earnings = ArgumentCaptor.forClass(BigDecimal.class);
+        ArgumentCaptor<BigDecimal> ratingSum = ArgumentCaptor.forClass(BigDecimal.class);
+        verify(driverStatsRepository).insertIfAbsent(eq(7L), earnings.capture(), ratingSum.capture(), eq(4L), eq(2L),
+            eq(11L));
+        assertEquals(0, new BigDecimal("1250.50").compareTo(earnings.getValue()));
+        assertEquals(0, new BigDecimal("17").compareTo(ratingSum.getValue()));
+        verify(driverStatsRepository).applyDelta(eq(7L), any(), any(), eq(1L), eq(0L), eq(0L));
+    }
+
+    @Test
+    void concurrentRebuildThatLosesTheInsertAppliesItsDeltaToTheWinnersRow() {
+        when(driverStatsRepository.applyDelta(7L, new BigDecimal("250.00"), BigDecimal.ZERO, 0, -1, 1))
+            .thenReturn(0, 1);
+        when(tripRepository.getDriverStatsAggregate(7L)).thenReturn(new Object[]{BigDecimal.ZERO, 0, 0, 1, 0});
+        when(driverStatsRepository.insertIfAbsent(eq(7L), any(), any(), eq(0L), eq(1L), eq(0L))).thenReturn(0);
+
+        driverStatsService.tripCompleted(7L, new BigDecimal("250.00"));
+
+        verify(driverStatsRepository, times(2)).applyDelta(7L, new BigDecimal("250.00"), BigDecimal.ZERO, 0, -1, 1);
+    }
+
+    @Test
+    void rebuildFallsBackToZeroForMalformedAggregateValues() {
+        when(driverStatsRepository.findById(7L)).thenReturn(Optional.empty());
+        when(tripRepository.getDriverStatsAggregate(7L)).thenReturn(new Object[]{
+            new Object[]{"999.99", "4.25x", "invalid", "2", null}
+        });
+        when(driverStatsRepository.insertIfAbsent(eq(7L), any(), any(), eq(0L), eq(2L), eq(0L))).thenReturn(1);
+
+        DriverStats stats = driverStatsService.getOrRebuild(7L);
+
+        assertEquals(0, new BigDecimal("999.99").compareTo(stats.getEarnings()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(stats.getRatingSum()));
+        assertEquals(0L, stats.getRatingCount());
+        assertEquals(2L, stats.getActiveTrips());
+        assertEquals(0L, stats.getHistoryTrips());
+        assertEquals(0, BigDecimal.ZERO.compareTo(DriverStatsService.averageRating(stats)));
+    }
+}
@@ -0,0 +1,160 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.dto.TripRequest;
+import com.quicklift.backend.model.City;
+import com.quicklift.backend.model.Tariff;
+import com.quicklift.backend.model.Trip;
+import com.quicklift.backend.model.TripStatus;
+import com.quicklift.backend.model.VehicleType;
+import com.quicklift.backend.repository.TariffRepository;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FareServiceTest {
+    private final TariffRepository tariffRepository = mock(TariffRepository.class);
+    private final OfflineReverseGeocoder offlineReverseGeocoder = new OfflineReverseGeocoder("", 50);
+    private final TariffService tariffService = new TariffService(tariffRepository, offlineReverseGeocoder, "Asia/Kolkata", 30);
+    private final DriverLocationIndex driverLocationIndex = new DriverLocationIndex();
+    private final OpenTripRequestBook openTripRequestBook = new OpenTripRequestBook();
+    private final SurgePricingService surgePricingService =
+        new SurgePricingService(driverLocationIndex, openTripRequestBook, 10, 2.0, 3.0);
+    private final FareService fareService = new FareService(tariffService, surgePricingService);
+
+    @Test
+    void estimateComputesFareInPaiseFromOneDistance() {
+        TripRequest request = new TripRequest();
+        request.setPickupLatitude(new BigDecimal("12.9716"));
+        request.setPickupLongitude(new BigDecimal("77.5946"));
+        request.setDestinationLatitude(new BigDecimal("13.0827"));
+        request.setDestinationLongitude(new BigDecimal("80.2707"));
+        request.setTolls(new BigDecimal("45.50"));
+
+        FareService.FareEstimate estimate = fareService.estimate(request);
+
+        long expectedPaise = Math.round(estimate.distanceKm() * 1100) + 4550;
+        assertThat(estimate.distanceKm()).isBetween(290.0, 292.0);
+        assertThat(estimate.fare()).isEqualByComparingTo(BigDecimal.valueOf(expectedPaise, 2));
+        assertThat(estimate.fare().scale()).isEqualTo(2);
+        assertThat(estimate.surgeMultiplier()).isEqualTo(1.0);
+    }
+
+    @Test
+    void estimateAppliesSurgeOfPickupCell() {
+        for (long id = 1; id <= 5; id++) {
+            Trip trip = new Trip();
+            trip.setId(id);
+            trip.setStatus(TripStatus.REQUESTED);
+            trip.setRequestedVehicleType(VehicleType.SEDAN);
+            trip.setPickupLatitude(new BigDecimal("12.9716"));
+            trip.setPickupLongitude(new BigDecimal("77.5946"));
+            openTripRequestBook.open(trip);
+        }
+        surgePricingService.tick();
+        TripRequest request = new TripRequest();
+        request.setPickupLatitude(new BigDecimal("12.9716"));
+        request.setPickupLongitude(new BigDecimal("77.5946"));
+        request.setDestinationLatitude(new BigDecimal("12.9352"));
+        request.setDestinationLongitude(new BigDecimal("77.6245"));
+
+        FareService.FareEstimate estimate = fareService.estimate(request);
+
+        // five open requests against no drivers, two requests per driver: 2.5x
+        assertThat(estimate.surgeMultiplier()).isEqualTo(2.5);
+        assertThat(estimate.fare()).isEqualByComparingTo(FareService.toRupees(Math.round(estimate.distanceKm() * 1100 * 2.5)));
+    }
+
+    @Test
+    void estimateAppliesTariffOfPickupCity() {
+        offlineReverseGeocoder.onCityCatalogChanged(new CityCatalogChangedEvent(1, List.of(
+            new City("Bangalore", "Karnataka", "KA", new BigDecimal("12.9716"), new BigDecimal("77.5946"))
+        )));
+        Tariff bangalore = new Tariff();
+        bangalore.setId(1L);
+        bangalore.setState("Karnataka");
+        bangalore.setCity("Bangalore");
+        bangalore.setBaseFare(new BigDecimal("50.00"));
+        bangalore.setPerKm(new BigDecimal("14.00"));
+        bangalore.setPerMinute(new BigDecimal("1.00"));
+        bangalore.setMinimumFare(new BigDecimal("100.00"));
+        bangalore.setVehicleMultipliers(Map.of(VehicleType.LUXURY, new BigDecimal("2.000")));
+        when(tariffRepository.findAll()).thenReturn(List.of(bangalore));
+        tariffService.reload();
+
+        TripRequest request = new TripRequest();
+        request.setPickupLatitude(new BigDecimal("12.9716"));
+        request.setPickupLongitude(new BigDecimal("77.5946"));
+        request.setDestinationLatitude(new BigDecimal("12.9352"));
+        request.setDestinationLongitude(new BigDecimal("77.6245"));
+        request.setVehicleType(VehicleType.LUXURY);
+
+        FareService.FareEstimate estimate = fareService.estimate(request);
+
+        double minutes = estimate.distanceKm() / 30 * 60;
+        double metered = 5000 + estimate.distanceKm() * 1400 + minutes * 100;
+        assertThat(estimate.fare()).isEqualByComparingTo(FareService.toRupees(Math.max(Math.round(metered * 2), 20000)));
+    }
+
+    @Test
+    void estimateRejectsMissingCoordinates() {
+        assertThatThrownBy(() -> fareService.estimate(new TripRequest()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void batchEstimateMatchesSingleTripPricing() {
+        double[] pickups = {12.9716, 77.5946, 19.0760, 72.8777};
+        double[] drops = {12.9352, 77.6245, 19.2183, 72.9781};
+        long[] tolls = {0, 2500};
+        long[] fares = new long[2];
+        double[] distances = new double[2];
+
+        TariffTable.Rate rate = TariffTable.FALLBACK;
+
+        fareService.estimateFares(rate, VehicleType.SEDAN, pickups, drops, tolls, fares, distances);
+
+        assertThat(FareService.toRupees(fares[0]))
+            .isEqualByComparingTo(fareService.calculateFare(rate, VehicleType.SEDAN, distances[0], BigDecimal.ZERO));
+        assertThat(FareService.toRupees(fares[1]))
+            .isEqualByComparingTo(fareService.calculateFare(rate, VehicleType.SEDAN, distances[1], new BigDecimal("25.00")));
+        assertThat(fareService.estimateFares(rate, VehicleType.SEDAN, pickups, drops)).containsExactly(fares[0], fares[1] - 2500);
+    }
+
+    @Test
+    void batchEstimateDoesNotAllocate() {
+        assumeThat(ManagementFactory.getThreadMXBean()).isInstanceOf(com.sun.management.ThreadMXBean.class);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeThat(threads.isThreadAllocatedMemorySupported()).isTrue();
+        int trips = 10_000;
+        double[] pickups = new double[2 * trips];
+        double[] drops = new double[2 * trips];
+        for (int i = 0; i < trips; i++) {
+            pickups[2 * i] = 12.9 + i * 1e-5;
+            pickups[2 * i + 1] = 77.5;
+            drops[2 * i] = 13.0;
+            drops[2 * i + 1] = 77.6 + i * 1e-5;
+        }
+        long[] fares = new long[trips];
+        double[] distances = new double[trips];
+        TariffTable.Rate rate = TariffTable.FALLBACK;
+        fareService.estimateFares(rate, VehicleType.SUV, pickups, drops, null, fares, distances);
+
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int round = 0; round < 20; round++) {
+            fareService.estimateFares(rate, VehicleType.SUV, pickups, drops, null, fares, distances);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // 200k priced trips; anything per-trip would show up as megabytes
+        assertThat(allocated).isLessThan(64 * 1024);
+    }
+}
@@ -0,0 +1,95 @@
+package com.quicklift.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GeocodingServiceTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StubProvider provider = new StubProvider();
+    private final GeocodingService geocodingService =
+        new GeocodingService(provider, meterRegistry, 100, 60, 2, 2000);
+
+    @AfterEach
+    void tearDown() {
+        geocodingService.shutdown();
+    }
+
+    @Test
+    void reverseLookupsAreCachedByRoundedCoordinates() {
+        Map<String, Object> first = geocodingService.reverse(12.97161, 77.59461);
+        Map<String, Object> second = geocodingService.reverse(12.97159, 77.59458);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(provider.reverseCalls.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "geocoding.reverse").tag("result", "hit")
+            .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("geocoding.upstream").tag("operation", "reverse").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void identicalInFlightSearchesShareOneUpstreamCall() throws Exception {
+        provider.searchGate = new CountDownLatch(1);
+
+        CompletableFuture<List<Map<String, Object>>> first =
+            CompletableFuture.supplyAsync(() -> geocodingService.search("MG Road"));
+        CompletableFuture<List<Map<String, Object>>> second =
+            CompletableFuture.supplyAsync(() -> geocodingService.search("  mg   road "));
+        Thread.sleep(100);
+        provider.searchGate.countDown();
+
+        assertThat(first.get(2, TimeUnit.SECONDS)).isEqualTo(second.get(2, TimeUnit.SECONDS));
+        assertThat(provider.searchCalls.get()).isEqualTo(1);
+        assertThat(provider.lastQuery).isEqualTo("mg road");
+    }
+
+    @Test
+    void failedLookupsAreNotCached() {
+        provider.failReverse = true;
+        assertThatThrownBy(() -> geocodingService.reverse(12.9716, 77.5946))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("upstream unavailable");
+
+        provider.failReverse = false;
+        assertThat(geocodingService.reverse(12.9716, 77.5946)).containsEntry("display_name", "12.9716,77.5946");
+        assertThat(provider.reverseCalls.get()).isEqualTo(2);
+    }
+
+    private static class StubProvider implements GeocodingProvider {
+        private final AtomicInteger reverseCalls = new AtomicInteger();
+        private final AtomicInteger searchCalls = new AtomicInteger();
+        private volatile CountDownLatch searchGate = new CountDownLatch(0);
+        private volatile boolean failReverse;
+        private volatile String lastQuery;
+
+        @Override
+        public Map<String, Object> reverse(double latitude, double longitude) {
+            reverseCalls.incrementAndGet();
+            if (failReverse) {
+                throw new IllegalStateException("upstream unavailable");
+            }
+            return Map.of("display_name", latitude + "," + longitude);
+        }
+
+        @Override
+        public List<Map<String, Object>> search(String query, int limit) {
+            searchCalls.incrementAndGet();
+            lastQuery = query;
+            try {
+                searchGate.await(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of(Map.of("display_name", query));
+        }
+    }
+}
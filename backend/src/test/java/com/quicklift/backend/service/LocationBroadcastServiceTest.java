@@ -0,0 +1,176 @@
+package com.quicklift.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quicklift.backend.dto.LocationUpdate;
+import com.quicklift.backend.util.LocationFrameCodec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class LocationBroadcastServiceTest {
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private LocationBroadcastService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LocationBroadcastService(messagingTemplate, new ObjectMapper(), 3, 300_000, true, "simple");
+        subscribe(service, "s1", "sub-42", "/topic/trip/42/location/binary");
+        subscribe(service, "s1", "sub-7", "/topic/trip/7/location/binary");
+    }
+
+    @Test
+    void eachPingIsSentOnceAsJsonAndOnceAsABinaryFrame() throws Exception {
+        service.broadcast(42L, update("12.971599", "77.594566", 1_000L));
+
+        Message<byte[]> json = sent("/topic/trip/42/location").get(0);
+        Message<byte[]> binary = sent("/topic/trip/42/location/binary").get(0);
+        assertThat(json.getHeaders().get(MessageHeaders.CONTENT_TYPE)).isEqualTo(MimeTypeUtils.APPLICATION_JSON);
+        assertThat(new ObjectMapper().readTree(new String(json.getPayload(), StandardCharsets.UTF_8)).get("latitude").decimalValue())
+            .isEqualByComparingTo("12.971599");
+        assertThat(binary.getHeaders().get(MessageHeaders.CONTENT_TYPE)).isEqualTo(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        assertThat(binary.getPayload()).hasSize(LocationFrameCodec.KEY_FRAME_SIZE);
+    }
+
+    @Test
+    void framesAreDeltasBetweenPeriodicKeyFramesAndDecodeInOrder() {
+        for (int i = 0; i < 5; i++) {
+            service.broadcast(7L, update("12.97" + i, "77.59" + i, 1_000L * i));
+        }
+
+        List<Message<byte[]>> frames = sent("/topic/trip/7/location/binary");
+        assertThat(frames).extracting(frame -> frame.getPayload()[0]).containsExactly(
+            LocationFrameCodec.KEY_FRAME, LocationFrameCodec.DELTA_FRAME, LocationFrameCodec.DELTA_FRAME,
+            LocationFrameCodec.KEY_FRAME, LocationFrameCodec.DELTA_FRAME);
+        LocationFrameCodec.Decoder decoder = new LocationFrameCodec.Decoder();
+        LocationFrameCodec.Point last = null;
+        for (Message<byte[]> frame : frames) {
+            last = decoder.accept(frame.getPayload());
+        }
+        assertThat(last.latitude()).isEqualTo(12.974);
+        assertThat(last.longitude()).isEqualTo(77.594);
+        assertThat(last.timestamp()).isEqualTo(4_000L);
+    }
+
+    @Test
+    void onlyJsonIsSentUnlessBinaryFramesAreEnabled() {
+        LocationBroadcastService jsonOnly = new LocationBroadcastService(messagingTemplate, new ObjectMapper(), 3, 300_000, false,
+            "simple");
+
+        jsonOnly.broadcast(42L, update("12.971599", "77.594566", 1_000L));
+
+        assertThat(sent("/topic/trip/42/location")).hasSize(1);
+        assertThat(sent("/topic/trip/42/location/binary")).isEmpty();
+        assertThat(jsonOnly.streamCount()).isZero();
+    }
+
+    @Test
+    void pingsWithoutCoordinatesAreNotBroadcast() {
+        service.broadcast(1L, new LocationUpdate());
+
+        verify(messagingTemplate, never()).send(any(String.class), any());
+    }
+
+    @Test
+    void idleStreamsAreEvicted() {
+        LocationBroadcastService shortLived = new LocationBroadcastService(messagingTemplate, new ObjectMapper(), 3, -1, true,
+            "simple");
+        subscribe(shortLived, "s1", "sub-1", "/topic/trip/1/location/binary");
+        shortLived.broadcast(1L, update("12.0", "77.0", 0L));
+
+        shortLived.evictIdleStreams();
+
+        assertThat(shortLived.streamCount()).isZero();
+    }
+
+    @Test
+    void binaryFramesAreOnlySentWhileTheTripHasABinarySubscriber() {
+        service.broadcast(9L, update("12.9700", "77.5900", 0L));
+        subscribe(service, "s2", "sub-9", "/topic/trip/9/location/binary");
+        subscribe(service, "s3", "sub-9", "/topic/trip/9/location/binary");
+        service.broadcast(9L, update("12.9701", "77.5901", 1_000L));
+        unsubscribe(service, "s2", "sub-9");
+        service.broadcast(9L, update("12.9702", "77.5902", 2_000L));
+        service.onDisconnect(new SessionDisconnectEvent(this,
+            MessageBuilder.createMessage(new byte[0], new MessageHeaders(null)), "s3", CloseStatus.NORMAL));
+        service.broadcast(9L, update("12.9703", "77.5903", 3_000L));
+
+        assertThat(sent("/topic/trip/9/location")).hasSize(4);
+        // the first frame a new subscriber sees is a key frame
+        assertThat(sent("/topic/trip/9/location/binary")).extracting(frame -> frame.getPayload()[0])
+            .containsExactly(LocationFrameCodec.KEY_FRAME, LocationFrameCodec.DELTA_FRAME);
+        assertThat(service.streamCount()).isZero();
+    }
+
+    @Test
+    void everyPingIsSentAsBinaryWithAMultiNodeBroker() {
+        LocationBroadcastService cluster = new LocationBroadcastService(messagingTemplate, new ObjectMapper(), 3, 300_000,
+            true, "cluster");
+
+        // subscribers on other nodes are invisible here
+        cluster.broadcast(9L, update("12.9700", "77.5900", 0L));
+
+        assertThat(sent("/topic/trip/9/location/binary")).hasSize(1);
+    }
+
+    private void subscribe(LocationBroadcastService target, String sessionId, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        target.onSubscribe(new SessionSubscribeEvent(this, MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders())));
+    }
+
+    private void unsubscribe(LocationBroadcastService target, String sessionId, String subscriptionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.UNSUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        target.onUnsubscribe(new SessionUnsubscribeEvent(this, MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders())));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Message<byte[]>> sent(String destination) {
+        ArgumentCaptor<String> destinations = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Message<byte[]>> messages = ArgumentCaptor.forClass(Message.class);
+        verify(messagingTemplate, atLeastOnce()).send(destinations.capture(), messages.capture());
+        List<Message<byte[]>> matching = new ArrayList<>();
+        for (int i = 0; i < destinations.getAllValues().size(); i++) {
+            if (destination.equals(destinations.getAllValues().get(i))) {
+                matching.add(messages.getAllValues().get(i));
+            }
+        }
+        return matching;
+    }
+
+    private static LocationUpdate update(String latitude, String longitude, long timestamp) {
+        LocationUpdate update = new LocationUpdate(new BigDecimal(latitude), new BigDecimal(longitude));
+        update.setTimestamp(timestamp);
+        return update;
+    }
+}
@@ -0,0 +1,83 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.Notification;
+import com.quicklift.backend.model.User;
+import com.quicklift.backend.model.UserRole;
+import com.quicklift.backend.repository.NotificationRepository;
+import com.quicklift.backend.repository.UserRepository;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Notifications written by the trip event relay commit or roll back with the relay's own transaction.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class NotificationRelayWriteTest {
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User rider;
+
+    @BeforeEach
+    void createRider() {
+        User user = new User();
+        user.setUsername("relay-rider");
+        user.setEmail("relay-rider@example.com");
+        user.setPassword("hash");
+        user.setFirstName("First");
+        user.setLastName("Last");
+        user.setRole(UserRole.USER);
+        rider = userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        notificationRepository.deleteAll(notificationRepository.findByUserIdOrderByCreatedAtDesc(rider.getId()));
+        userRepository.delete(rider);
+    }
+
+    @Test
+    void rowsCommitWithTheCallerAndABadRowIsDroppedAlone() {
+        User deleted = new User();
+        deleted.setId(Long.MAX_VALUE);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> notificationService.saveInTransaction(
+            List.of(notification(rider, "FIRST"), notification(deleted, "ORPHAN"), notification(rider, "SECOND"))));
+
+        assertThat(notificationRepository.findByUserIdOrderByCreatedAtDesc(rider.getId()))
+            .extracting(Notification::getType).containsExactlyInAnyOrder("FIRST", "SECOND");
+    }
+
+    @Test
+    void rowsRollBackWithTheCaller() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            notificationService.saveInTransaction(List.of(notification(rider, "FIRST")));
+            status.setRollbackOnly();
+        });
+
+        assertThat(notificationRepository.findByUserIdOrderByCreatedAtDesc(rider.getId())).isEmpty();
+    }
+
+    private Notification notification(User user, String type) {
+        return notificationService.prepare(user, type, "Title", "Message", "/history", null);
+    }
+}
@@ -1,17 +1,21 @@
 package com.quicklift.backend.service;
 
 import com.quicklift.backend.model.Notification;
-import com.quicklift.backend.dto.NotificationResponse;
 import com.quicklift.backend.model.User;
 import com.quicklift.backend.model.UserRole;
 import com.quicklift.backend.repository.NotificationRepository;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,7 +23,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,19 +33,21 @@ class NotificationServiceTest {
     private NotificationRepository notificationRepository;
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private NotificationWriter notificationWriter;
+
+    @Mock
+    private UnreadNotificationCounter unreadCounter;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
 
     @InjectMocks
     private NotificationService notificationService;
 
     @Test
-    void createPersistsAndPublishesNotification() {
+    void createQueuesNotificationForTheWriter() {
         User user = user(7L, UserRole.USER);
-        when(notificationRepository.save(any(Notification.class))).thenAnswer(invocation -> {
-            Notification notification = invocation.getArgument(0);
-            notification.setId(42L);
-            return notification;
-        });
+        when(notificationWriter.submit(any(Notification.class))).thenReturn(true);
 
         Notification notification = notificationService.create(
             user,
@@ -52,19 +58,73 @@ class NotificationServiceTest {
             12L
         );
 
-        assertThat(notification.getId()).isEqualTo(42L);
+        assertThat(notification.getId()).isNull();
         assertThat(notification.isRead()).isFalse();
-        verify(messagingTemplate).convertAndSend(eq("/topic/user/7/notifications"), any(NotificationResponse.class));
+        verify(notificationWriter).submit(notification);
+        verify(notificationWriter, never()).writeNow(any());
+    }
+
+    @Test
+    void createInsideTransactionWaitsForCommit() {
+        User user = user(7L, UserRole.USER);
+        when(notificationWriter.submit(any(Notification.class))).thenReturn(true);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            Notification notification = notificationService.create(user, "TEST", "Title", "Message", "/history", null);
+
+            verify(notificationWriter, never()).submit(any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(notificationWriter).submit(notification);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void createWritesDirectlyWhenTheQueueIsFull() {
+        User user = user(7L, UserRole.USER);
+        when(notificationWriter.submit(any(Notification.class))).thenReturn(false);
+
+        Notification notification = notificationService.create(user, "TEST", "Title", "Message", "/history", null);
+
+        verify(notificationWriter).writeNow(notification);
+    }
+
+    @Test
+    void createRejectsInvalidNotificationsBeforeQueueing() {
+        User user = user(7L, UserRole.USER);
+
+        assertThatThrownBy(() -> notificationService.create(user, "TEST", " ", "Message", "/history", null))
+            .isInstanceOf(ConstraintViolationException.class);
+        assertThatThrownBy(() -> notificationService.create(new User(), "TEST", "Title", "Message", "/history", null))
+            .isInstanceOf(IllegalArgumentException.class);
+        verify(notificationWriter, never()).submit(any());
+        verify(notificationWriter, never()).writeNow(any());
     }
 
     @Test
     void unreadCountUsesCurrentUser() {
         User user = user(7L, UserRole.USER);
-        when(notificationRepository.countByUserIdAndReadFalse(7L)).thenReturn(3L);
+        when(unreadCounter.get(7L)).thenReturn(3L);
 
         assertThat(notificationService.unreadCount(user)).isEqualTo(3L);
     }
 
+    @Test
+    void markReadDecrementsTheCounterOnlyForUnreadNotifications() {
+        User user = user(7L, UserRole.USER);
+        Notification unread = notification(user);
+        Notification alreadyRead = notification(user);
+        alreadyRead.setRead(true);
+        when(notificationRepository.findById(1L)).thenReturn(Optional.of(unread));
+        when(notificationRepository.findById(2L)).thenReturn(Optional.of(alreadyRead));
+
+        notificationService.markRead(1L, user);
+        notificationService.markRead(2L, user);
+
+        verify(unreadCounter).read(7L);
+    }
+
     @Test
     void markReadRejectsNotificationsOwnedByAnotherUser() {
         Notification notification = new Notification();
@@ -88,6 +148,7 @@ class NotificationServiceTest {
         assertThat(first.isRead()).isTrue();
         assertThat(second.isRead()).isTrue();
         verify(notificationRepository).saveAll(List.of(first, second));
+        verify(unreadCounter).allRead(7L);
     }
 
     private static Notification notification(User user) {
@@ -0,0 +1,225 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.dto.NotificationResponse;
+import com.quicklift.backend.model.Notification;
+import com.quicklift.backend.model.User;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationWriterTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private UnreadNotificationCounter unreadCounter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private NotificationWriter writer;
+    private long nextId = 100;
+
+    @BeforeEach
+    void setUp() {
+        writer = new NotificationWriter(jdbcTemplate, messagingTemplate, unreadCounter, transactionManager, 3, 200, 100);
+        lenient().when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+            any(KeyHolder.class))).thenAnswer(invocation -> {
+                BatchPreparedStatementSetter setter = invocation.getArgument(1);
+                KeyHolder keys = invocation.getArgument(2);
+                List<Map<String, Object>> rows = new ArrayList<>();
+                for (int i = 0; i < setter.getBatchSize(); i++) {
+                    rows.add(Map.of("id", nextId++));
+                }
+                keys.getKeyList().addAll(rows);
+                batchSizes.add(setter.getBatchSize());
+                return new int[setter.getBatchSize()];
+            });
+    }
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        writer.stop();
+    }
+
+    @Test
+    void flushInsertsOneBatchAndPushesWithGeneratedIds() {
+        Notification first = notification(7L);
+        Notification second = notification(8L);
+        when(unreadCounter.added(7L, 1)).thenReturn(4L);
+        when(unreadCounter.added(8L, 1)).thenReturn(null);
+
+        writer.flush(List.of(first, second));
+
+        assertThat(batchSizes).containsExactly(2);
+        assertThat(first.getId()).isEqualTo(100L);
+        assertThat(second.getId()).isEqualTo(101L);
+        ArgumentCaptor<NotificationResponse> pushed = ArgumentCaptor.forClass(NotificationResponse.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/user/7/notifications"), pushed.capture());
+        verify(messagingTemplate).convertAndSend(eq("/topic/user/8/notifications"), pushed.capture());
+        assertThat(pushed.getAllValues()).extracting(NotificationResponse::getId).containsExactly(100L, 101L);
+        assertThat(pushed.getAllValues()).extracting(NotificationResponse::getUnreadCount).containsExactly(4L, null);
+    }
+
+    @Test
+    void failedBatchIsNotPushed() {
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+            any(KeyHolder.class))).thenThrow(new DataAccessResourceFailureException("database down"));
+
+        writer.flush(List.of(notification(7L)));
+
+        verify(messagingTemplate, never()).convertAndSend(any(String.class), any(Object.class));
+        verify(unreadCounter, never()).added(any(), anyInt());
+    }
+
+    @Test
+    void failedBatchIsRetriedRowByRowAndOnlyFailingRowsAreDropped() {
+        Notification first = notification(7L);
+        Notification orphan = notification(8L);
+        Notification third = notification(9L);
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+            any(KeyHolder.class))).thenAnswer(invocation -> {
+                BatchPreparedStatementSetter setter = invocation.getArgument(1);
+                KeyHolder keys = invocation.getArgument(2);
+                PreparedStatement statement = mock(PreparedStatement.class);
+                setter.setValues(statement, 0);
+                if (setter.getBatchSize() > 1 || mockingDetails(statement).getInvocations().stream()
+                    .anyMatch(call -> call.getMethod().getName().equals("setLong") && call.getArgument(1).equals(8L))) {
+                    throw new DataIntegrityViolationException("user_id not present in users");
+                }
+                keys.getKeyList().add(Map.of("id", nextId++));
+                batchSizes.add(1);
+                return new int[1];
+            });
+
+        writer.flush(List.of(first, orphan, third));
+
+        assertThat(batchSizes).containsExactly(1, 1);
+        assertThat(first.getId()).isNotNull();
+        assertThat(orphan.getId()).isNull();
+        assertThat(third.getId()).isNotNull();
+        verify(messagingTemplate).convertAndSend(eq("/topic/user/7/notifications"), any(NotificationResponse.class));
+        verify(messagingTemplate).convertAndSend(eq("/topic/user/9/notifications"), any(NotificationResponse.class));
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/user/8/notifications"), any(Object.class));
+        verify(unreadCounter, never()).added(eq(8L), anyInt());
+    }
+
+    @Test
+    void writeNowPushesOnlyAfterItsTransactionCommits() {
+        Notification notification = notification(7L);
+        when(unreadCounter.added(7L, 1)).thenReturn(2L);
+
+        writer.writeNow(notification);
+
+        InOrder inOrder = inOrder(jdbcTemplate, transactionManager, unreadCounter, messagingTemplate);
+        inOrder.verify(jdbcTemplate).batchUpdate(any(PreparedStatementCreator.class),
+            any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(unreadCounter).added(7L, 1);
+        inOrder.verify(messagingTemplate).convertAndSend(eq("/topic/user/7/notifications"), any(NotificationResponse.class));
+    }
+
+    @Test
+    void writeInTransactionInsertsUnderASavepointAndPushesAfterCommit() throws SQLException {
+        Notification notification = notification(7L);
+        Connection connection = mock(Connection.class);
+        Savepoint savepoint = mock(Savepoint.class);
+        when(connection.setSavepoint()).thenReturn(savepoint);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+            .thenAnswer(invocation -> invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection));
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            writer.writeInTransaction(List.of(notification));
+
+            assertThat(notification.getId()).isNotNull();
+            verify(connection).releaseSavepoint(savepoint);
+            verify(messagingTemplate, never()).convertAndSend(any(String.class), any(Object.class));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/user/7/notifications"), any(NotificationResponse.class));
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    void burstIsGroupedIntoBatchesOfAtMostBatchSize() throws InterruptedException {
+        for (int i = 0; i < 7; i++) {
+            assertThat(writer.submit(notification(7L))).isTrue();
+        }
+        writer.start();
+
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (batchSizes.stream().mapToInt(Integer::intValue).sum() < 7 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(batchSizes).containsExactly(3, 3, 1);
+        assertThat(writer.pending()).isZero();
+    }
+
+    @Test
+    void submitRefusesWhenTheQueueIsFull() {
+        for (int i = 0; i < 100; i++) {
+            writer.submit(notification(7L));
+        }
+
+        assertThat(writer.submit(notification(7L))).isFalse();
+    }
+
+    private static Notification notification(Long userId) {
+        User user = new User();
+        user.setId(userId);
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setType("TEST");
+        notification.setTitle("Title");
+        notification.setMessage("Message");
+        notification.setTargetUrl("/history");
+        return notification;
+    }
+}
@@ -0,0 +1,72 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.City;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfflineReverseGeocoderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void reverseReturnsNearestCityFromCatalog() {
+        OfflineReverseGeocoder geocoder = new OfflineReverseGeocoder("", 50);
+        geocoder.onCityCatalogChanged(new CityCatalogChangedEvent(1, List.of(
+            city("Bangalore", "Karnataka", "KA", "12.9716", "77.5946"),
+            city("Mysore", "Karnataka", "KA", "12.2958", "76.6394"),
+            city("Chennai", "Tamil Nadu", "TN", "13.0827", "80.2707")
+        )));
+
+        Optional<Map<String, Object>> result = geocoder.reverse(12.93, 77.62);
+
+        assertThat(result).isPresent();
+        assertThat(result.get()).containsEntry("display_name", "Bangalore, Karnataka, India")
+            .containsEntry("source", "offline");
+        @SuppressWarnings("unchecked")
+        Map<String, Object> address = (Map<String, Object>) result.get().get("address");
+        assertThat(address).containsEntry("city", "Bangalore").containsEntry("country_code", "in");
+    }
+
+    @Test
+    void reverseIsEmptyBeyondMaxDistance() {
+        OfflineReverseGeocoder geocoder = new OfflineReverseGeocoder("", 50);
+        geocoder.onCityCatalogChanged(new CityCatalogChangedEvent(1, List.of(
+            city("Bangalore", "Karnataka", "KA", "12.9716", "77.5946")
+        )));
+
+        assertThat(geocoder.reverse(51.5074, -0.1278)).isEmpty();
+    }
+
+    @Test
+    void gazetteerPlacesAreUsedWhenCloserThanAnyCity() throws Exception {
+        Path file = tempDir.resolve("places.tsv");
+        Files.writeString(file, String.join("\n",
+            "1277333\tWhitefield\tWhitefield\t\t12.9698\t77.7500\tP\tPPL\tIN\t\t19\t\t\t\t0\t\t900\tAsia/Kolkata\t2024-01-01",
+            "1277334\tVarthur Lake\tVarthur Lake\t\t12.9400\t77.7400\tH\tLK\tIN\t\t19\t\t\t\t0\t\t880\tAsia/Kolkata\t2024-01-01",
+            ""), StandardCharsets.UTF_8);
+        OfflineReverseGeocoder geocoder = new OfflineReverseGeocoder(file.toString(), 50);
+        geocoder.loadGazetteer();
+        geocoder.onCityCatalogChanged(new CityCatalogChangedEvent(1, List.of(
+            city("Bangalore", "Karnataka", "KA", "12.9716", "77.5946")
+        )));
+
+        Map<String, Object> result = geocoder.reverse(12.945, 77.745).orElseThrow();
+
+        assertThat(result).containsEntry("display_name", "Whitefield, IN");
+        assertThat(result.get("lat")).isEqualTo("12.9698");
+    }
+
+    private static City city(String name, String state, String stateCode, String latitude, String longitude) {
+        return new City(name, state, stateCode, new BigDecimal(latitude), new BigDecimal(longitude));
+    }
+}
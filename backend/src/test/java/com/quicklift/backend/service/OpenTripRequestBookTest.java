@@ -0,0 +1,120 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.Driver;
+import com.quicklift.backend.model.Trip;
+import com.quicklift.backend.model.TripStatus;
+import com.quicklift.backend.model.VehicleType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OpenTripRequestBookTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    private final OpenTripRequestBook book = new OpenTripRequestBook();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void findVisibleReturnsAssignedRequestsThenNearbyRequestsForVehicleType() {
+        book.open(trip(1L, VehicleType.SEDAN, 12.9900, 77.5946, null, 0));
+        book.open(trip(2L, VehicleType.SEDAN, 12.9720, 77.5946, null, 1));
+        book.open(trip(3L, VehicleType.SUV, 12.9716, 77.5946, null, 2));
+        book.open(trip(4L, VehicleType.SEDAN, 13.5000, 77.5946, null, 3));
+        book.open(trip(5L, VehicleType.SUV, 19.0760, 72.8777, 7L, 4));
+
+        assertThat(book.findVisible(7L, VehicleType.SEDAN, 12.9716, 77.5946, 10, 0, 20))
+            .containsExactly(5L, 2L, 1L);
+        assertThat(book.countVisible(7L, VehicleType.SEDAN, 12.9716, 77.5946, 10)).isEqualTo(3);
+        assertThat(book.findVisible(8L, VehicleType.SEDAN, 12.9716, 77.5946, 10, 0, 20))
+            .containsExactly(2L, 1L);
+    }
+
+    @Test
+    void findVisiblePagesOldestFirstWhenDriverPositionIsUnknown() {
+        for (long id = 1; id <= 5; id++) {
+            book.open(trip(id, VehicleType.SEDAN, 12.97 + id / 100.0, 77.5946, null, (int) (10 - id)));
+        }
+
+        assertThat(book.findVisible(7L, VehicleType.SEDAN, null, null, 10, 0, 2)).containsExactly(1L, 2L);
+        assertThat(book.findVisible(7L, VehicleType.SEDAN, null, null, 10, 2, 2)).containsExactly(5L);
+        assertThat(book.findVisible(7L, VehicleType.SEDAN, null, null, 10, 3, 2)).isEmpty();
+        assertThat(book.countVisible(7L, VehicleType.SEDAN, null, null, 10)).isEqualTo(5);
+    }
+
+    @Test
+    void reopeningAndClosingMoveRequestsBetweenDriverAndPool() {
+        Trip trip = trip(1L, VehicleType.SEDAN, 12.9716, 77.5946, 7L, 0);
+        book.open(trip);
+        assertThat(book.findVisible(8L, VehicleType.SEDAN, 12.9716, 77.5946, 10, 0, 20)).isEmpty();
+
+        // Driver 7 rejects the request, which puts it back into the shared pool
+        trip.setDriver(null);
+        book.open(trip);
+        assertThat(book.findVisible(8L, VehicleType.SEDAN, 12.9716, 77.5946, 10, 0, 20)).containsExactly(1L);
+
+        trip.setStatus(TripStatus.ACCEPTED);
+        book.open(trip);
+        assertThat(book.size()).isZero();
+        assertThat(book.countVisible(8L, VehicleType.SEDAN, null, null, 10)).isZero();
+
+        book.open(trip(2L, VehicleType.SEDAN, 12.9716, 77.5946, null, 0));
+        book.close(2L);
+        assertThat(book.findVisible(8L, VehicleType.SEDAN, 12.9716, 77.5946, 10, 0, 20)).isEmpty();
+    }
+
+    @Test
+    void changesInsideATransactionApplyOnlyAfterCommit() {
+        book.open(trip(1L, VehicleType.SEDAN, 12.9716, 77.5946, null, 0));
+
+        // Accept that rolls back: the request must stay offered
+        TransactionSynchronizationManager.initSynchronization();
+        book.close(1L);
+        assertThat(book.size()).isEqualTo(1);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(book.findVisible(8L, VehicleType.SEDAN, 12.9716, 77.5946, 10, 0, 20)).containsExactly(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        book.close(1L);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(book.size()).isZero();
+    }
+
+    private static void complete(int status) {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    private static Trip trip(Long id, VehicleType vehicleType, double latitude, double longitude,
+                             Long driverId, int minutesAgo) {
+        Trip trip = new Trip();
+        trip.setId(id);
+        trip.setStatus(TripStatus.REQUESTED);
+        trip.setRequestedVehicleType(vehicleType);
+        trip.setPickupLatitude(BigDecimal.valueOf(latitude));
+        trip.setPickupLongitude(BigDecimal.valueOf(longitude));
+        trip.setRequestedAt(NOW.minusMinutes(minutesAgo));
+        if (driverId != null) {
+            Driver driver = new Driver();
+            driver.setId(driverId);
+            trip.setDriver(driver);
+        }
+        return trip;
+    }
+}
@@ -0,0 +1,110 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.Trip;
+import com.quicklift.backend.model.TripStatus;
+import com.quicklift.backend.model.VehicleType;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SurgePricingServiceTest {
+    private final DriverLocationIndex driverLocationIndex = new DriverLocationIndex();
+    private final OpenTripRequestBook openTripRequestBook = new OpenTripRequestBook();
+    private final SurgePricingService surgePricingService =
+        new SurgePricingService(driverLocationIndex, openTripRequestBook, 3, 2.0, 3.0);
+    private long nextTripId = 1;
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void multiplierTracksOpenRequestsAgainstOnlineDrivers() {
+        driverLocationIndex.put(1L, VehicleType.SEDAN, 12.9716, 77.5946);
+        driverLocationIndex.put(2L, VehicleType.SUV, 12.9720, 77.5950);
+        open(12.9716, 77.5946, 6);
+
+        surgePricingService.tick();
+
+        // six open requests against two drivers at two requests per driver
+        assertThat(surgePricingService.multiplierAt(12.9716, 77.5946)).isEqualTo(1.5);
+        assertThat(surgePricingService.multiplierAt(19.0760, 72.8777)).isEqualTo(1.0);
+    }
+
+    @Test
+    void multiplierIsCappedAndDecaysOnceRequestsAreTaken() {
+        open(12.9716, 77.5946, 20);
+        surgePricingService.tick();
+        assertThat(surgePricingService.multiplierAt(12.9716, 77.5946)).isEqualTo(3.0);
+
+        for (long id = 1; id <= 20; id++) {
+            openTripRequestBook.close(id);
+        }
+        surgePricingService.tick();
+        surgePricingService.tick();
+        assertThat(surgePricingService.surgingCells()).isEqualTo(1);
+
+        // the sample holding the open requests falls out of the three-bucket window
+        surgePricingService.tick();
+        assertThat(surgePricingService.multiplierAt(12.9716, 77.5946)).isEqualTo(1.0);
+        assertThat(surgePricingService.surgingCells()).isZero();
+    }
+
+    @Test
+    void requestsStayCountedUntilTheirTripsLeaveTheBook() {
+        open(12.9716, 77.5946, 8);
+
+        // an accept that rolls back must not take the request out of the demand
+        TransactionSynchronizationManager.initSynchronization();
+        openTripRequestBook.close(1L);
+        TransactionSynchronizationManager.clearSynchronization();
+        surgePricingService.tick();
+        assertThat(surgePricingService.multiplierAt(12.9716, 77.5946)).isEqualTo(3.0);
+
+        for (long id = 1; id <= 4; id++) {
+            openTripRequestBook.close(id);
+        }
+        surgePricingService.tick();
+
+        // an average of six open requests over two samples against no drivers
+        assertThat(surgePricingService.multiplierAt(12.9716, 77.5946)).isEqualTo(3.0);
+        surgePricingService.tick();
+        surgePricingService.tick();
+        // four open requests in every remaining sample
+        assertThat(surgePricingService.multiplierAt(12.9716, 77.5946)).isEqualTo(2.0);
+    }
+
+    @Test
+    void driversGoingOfflineRaiseTheMultiplier() {
+        driverLocationIndex.put(1L, VehicleType.SEDAN, 12.9716, 77.5946);
+        driverLocationIndex.put(2L, VehicleType.SEDAN, 12.9716, 77.5946);
+        open(12.9716, 77.5946, 4);
+        surgePricingService.tick();
+        assertThat(surgePricingService.multiplierAt(12.9716, 77.5946)).isEqualTo(1.0);
+
+        driverLocationIndex.remove(1L);
+        driverLocationIndex.remove(2L);
+        surgePricingService.tick();
+
+        // four open requests against an average of one driver over two samples
+        assertThat(surgePricingService.multiplierAt(12.9716, 77.5946)).isEqualTo(2.0);
+    }
+
+    private void open(double latitude, double longitude, int requests) {
+        for (int i = 0; i < requests; i++) {
+            Trip trip = new Trip();
+            trip.setId(nextTripId++);
+            trip.setStatus(TripStatus.REQUESTED);
+            trip.setRequestedVehicleType(VehicleType.SEDAN);
+            trip.setPickupLatitude(BigDecimal.valueOf(latitude));
+            trip.setPickupLongitude(BigDecimal.valueOf(longitude));
+            openTripRequestBook.open(trip);
+        }
+    }
+}
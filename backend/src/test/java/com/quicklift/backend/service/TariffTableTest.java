@@ -0,0 +1,74 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.model.Tariff;
+import com.quicklift.backend.model.VehicleType;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TariffTableTest {
+
+    @Test
+    void resolvePrefersCityThenStateThenCountryWide() {
+        TariffTable table = TariffTable.compile(List.of(
+            tariff(1L, null, null, "10.00"),
+            tariff(2L, "Karnataka", null, "12.00"),
+            tariff(3L, "Karnataka", "Bangalore", "14.00")
+        ));
+
+        assertThat(table.resolve("Karnataka", "Bangalore", 600).perKmPaise()).isEqualTo(1400);
+        assertThat(table.resolve("karnataka ", "Mysore", 600).perKmPaise()).isEqualTo(1200);
+        assertThat(table.resolve("Kerala", "Kochi", 600).perKmPaise()).isEqualTo(1000);
+        assertThat(table.resolve(null, null, 600).perKmPaise()).isEqualTo(1000);
+        assertThat(table.size()).isEqualTo(3);
+    }
+
+    @Test
+    void timedRulesShadowAllDayRulesIncludingAcrossMidnight() {
+        Tariff night = tariff(2L, "Karnataka", "Bangalore", "18.00");
+        night.setStartMinute(22 * 60);
+        night.setEndMinute(6 * 60);
+        TariffTable table = TariffTable.compile(List.of(tariff(1L, "Karnataka", "Bangalore", "14.00"), night));
+
+        assertThat(table.resolve("Karnataka", "Bangalore", 23 * 60).perKmPaise()).isEqualTo(1800);
+        assertThat(table.resolve("Karnataka", "Bangalore", 2 * 60).perKmPaise()).isEqualTo(1800);
+        assertThat(table.resolve("Karnataka", "Bangalore", 6 * 60).perKmPaise()).isEqualTo(1400);
+    }
+
+    @Test
+    void emptyTableFallsBackToFlatRate() {
+        TariffTable.Rate rate = TariffTable.EMPTY.resolve("Karnataka", "Bangalore", 0);
+
+        assertThat(rate).isSameAs(TariffTable.FALLBACK);
+        assertThat(rate.fareInPaise(10.0, 25.0, VehicleType.SUV, 500)).isEqualTo(11_500);
+    }
+
+    @Test
+    void fareAppliesVehicleMultiplierAndMinimum() {
+        Tariff tariff = tariff(1L, null, null, "10.00");
+        tariff.setBaseFare(new BigDecimal("30.00"));
+        tariff.setPerMinute(new BigDecimal("1.50"));
+        tariff.setMinimumFare(new BigDecimal("80.00"));
+        tariff.setVehicleMultipliers(Map.of(VehicleType.MOTORCYCLE, new BigDecimal("0.500")));
+        TariffTable.Rate rate = TariffTable.compile(List.of(tariff)).resolve(null, null, 0);
+
+        // 3000 + 5 * 1000 + 10 * 150 = 9500
+        assertThat(rate.fareInPaise(5.0, 10.0, VehicleType.SEDAN, 0)).isEqualTo(9_500);
+        assertThat(rate.fareInPaise(5.0, 10.0, null, 200)).isEqualTo(9_700);
+        // halved to 4750, floored at the halved minimum of 4000
+        assertThat(rate.fareInPaise(5.0, 10.0, VehicleType.MOTORCYCLE, 0)).isEqualTo(4_750);
+        assertThat(rate.fareInPaise(0.5, 1.0, VehicleType.MOTORCYCLE, 0)).isEqualTo(4_000);
+    }
+
+    private static Tariff tariff(Long id, String state, String city, String perKm) {
+        Tariff tariff = new Tariff();
+        tariff.setId(id);
+        tariff.setState(state);
+        tariff.setCity(city);
+        tariff.setPerKm(new BigDecimal(perKm));
+        return tariff;
+    }
+}
@@ -0,0 +1,203 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.dto.TripResponse;
+import com.quicklift.backend.model.Driver;
+import com.quicklift.backend.model.Notification;
+import com.quicklift.backend.model.Trip;
+import com.quicklift.backend.model.TripEvent;
+import com.quicklift.backend.model.TripEventType;
+import com.quicklift.backend.model.TripStatus;
+import com.quicklift.backend.model.User;
+import com.quicklift.backend.model.UserRole;
+import com.quicklift.backend.model.VehicleType;
+import com.quicklift.backend.repository.DriverRepository;
+import com.quicklift.backend.repository.TripEventRepository;
+import com.quicklift.backend.repository.TripRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TripEventRelayTest {
+    @Mock
+    private TripEventRepository tripEventRepository;
+
+    @Mock
+    private TripRepository tripRepository;
+
+    @Mock
+    private DriverRepository driverRepository;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TripEventRelay relay;
+
+    private final User rider = user(1L, "rider", UserRole.USER);
+    private final User driverUser = user(3L, "driver", UserRole.DRIVER);
+    private final Driver driver = driver(2L, driverUser);
+
+    @BeforeEach
+    void setUp() {
+        relay = new TripEventRelay(tripEventRepository, tripRepository, driverRepository, messagingTemplate,
+            notificationService, transactionManager, meterRegistry, 2);
+    }
+
+    @AfterEach
+    void shutdown() {
+        relay.shutdown();
+    }
+
+    @Test
+    void eventsArePublishedInOrderWithTheStatusTheyAnnounce() {
+        Trip trip = trip(11L, TripStatus.STARTED);
+        TripEvent accepted = event(1L, 11L, TripEventType.ACCEPTED, 2L);
+        TripEvent started = event(2L, 11L, TripEventType.STARTED, 2L);
+        when(tripEventRepository.findOldestForRelay(any(Pageable.class))).thenReturn(List.of(accepted, started));
+        when(tripRepository.findAllById(List.of(11L))).thenReturn(List.of(trip));
+        when(driverRepository.findAllById(List.of(2L))).thenReturn(List.of(driver));
+        when(notificationService.prepare(any(), any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            Notification notification = new Notification();
+            notification.setType(invocation.getArgument(1));
+            return notification;
+        });
+
+        assertThat(relay.relayBatch()).isEqualTo(2);
+
+        ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+        InOrder order = inOrder(messagingTemplate, notificationService, tripEventRepository);
+        order.verify(messagingTemplate).convertAndSend(eq("/topic/trip/11/status"), payloads.capture());
+        order.verify(messagingTemplate).convertAndSend(eq("/topic/driver/2/status"), any(Object.class));
+        order.verify(notificationService).prepare(rider, "TRIP_ACCEPTED", "Ride accepted",
+            "driver accepted your ride request.", "/trips/11/confirm", 11L);
+        order.verify(messagingTemplate).convertAndSend(eq("/topic/trip/11/status"), payloads.capture());
+        order.verify(messagingTemplate).convertAndSend(eq("/topic/driver/2/status"), any(Object.class));
+        order.verify(notificationService).prepare(rider, "TRIP_STARTED", "Trip started",
+            "Your QuickLift trip is now in progress.", "/trips/11", 11L);
+        // Notifications are inserted in the relay's transaction, before the batch is deleted
+        ArgumentCaptor<List<Notification>> saved = ArgumentCaptor.captor();
+        order.verify(notificationService).saveInTransaction(saved.capture());
+        order.verify(tripEventRepository).deleteAllInBatch(List.of(accepted, started));
+        assertThat(saved.getValue()).extracting(Notification::getType).containsExactly("TRIP_ACCEPTED", "TRIP_STARTED");
+        assertThat(payloads.getAllValues()).extracting(payload -> ((TripResponse) payload).getStatus())
+            .containsExactly("ACCEPTED", "STARTED");
+        assertThat(meterRegistry.get("trip.events.relay.lag").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void rideRequestsAndCancellationsReachTheDriver() {
+        Trip trip = trip(11L, TripStatus.CANCELLED);
+        TripEvent requested = event(1L, 11L, TripEventType.RIDE_REQUESTED, 2L);
+        TripEvent cancelled = event(2L, 11L, TripEventType.CANCELLED, 2L);
+        when(tripEventRepository.findOldestForRelay(any(Pageable.class))).thenReturn(List.of(requested, cancelled));
+        when(tripRepository.findAllById(List.of(11L))).thenReturn(List.of(trip));
+        when(driverRepository.findAllById(List.of(2L))).thenReturn(List.of(driver));
+
+        relay.relayBatch();
+
+        verify(messagingTemplate).convertAndSend(eq("/topic/driver/2/requests"), any(Object.class));
+        verify(notificationService).prepare(driverUser, "RIDE_REQUEST", "New ride request",
+            "rider requested a QuickLift ride.", "/driver/pending-requests", 11L);
+        verify(notificationService).prepare(driverUser, "TRIP_CANCELLED", "Trip cancelled",
+            "A QuickLift trip was cancelled.", "/driver/history", 11L);
+        verify(notificationService).prepare(rider, "TRIP_CANCELLED", "Trip cancelled",
+            "Your QuickLift trip was cancelled.", "/history", 11L);
+    }
+
+    @Test
+    void aFailingEventIsDroppedWithoutBlockingTheBatch() {
+        Trip trip = trip(11L, TripStatus.COMPLETED);
+        TripEvent rejected = event(1L, 11L, TripEventType.REJECTED, 2L);
+        TripEvent completed = event(2L, 11L, TripEventType.COMPLETED, null);
+        when(tripEventRepository.findOldestForRelay(any(Pageable.class))).thenReturn(List.of(rejected, completed));
+        when(tripRepository.findAllById(List.of(11L))).thenReturn(List.of(trip));
+        when(driverRepository.findAllById(List.of(2L))).thenReturn(List.of(driver));
+        doThrow(new IllegalStateException("broker down"))
+            .when(notificationService).prepare(eq(rider), eq("TRIP_REJECTED"), any(), any(), any(), any());
+
+        relay.relayBatch();
+
+        verify(notificationService).prepare(rider, "TRIP_COMPLETED", "Trip completed",
+            "Your trip is complete. Please finish payment when ready.", "/payment/11", 11L);
+        verify(notificationService).saveInTransaction(argThat(notifications -> notifications.size() == 1));
+        verify(tripEventRepository).deleteAllInBatch(List.of(rejected, completed));
+    }
+
+    @Test
+    void relayKeepsGoingWhileBatchesComeBackFull() {
+        Trip trip = trip(11L, TripStatus.STARTED);
+        when(tripEventRepository.findOldestForRelay(any(Pageable.class))).thenReturn(
+            List.of(event(1L, 11L, TripEventType.STARTED, null), event(2L, 11L, TripEventType.STARTED, null)),
+            List.of(event(3L, 11L, TripEventType.STARTED, null)));
+        when(tripRepository.findAllById(List.of(11L))).thenReturn(List.of(trip));
+
+        relay.relayPending();
+
+        verify(tripEventRepository, times(2)).findOldestForRelay(any(Pageable.class));
+        verify(tripEventRepository, times(2)).deleteAllInBatch(anyList());
+        verify(driverRepository, never()).findAllById(any());
+    }
+
+    private static TripEvent event(Long id, Long tripId, TripEventType type, Long driverId) {
+        TripEvent event = new TripEvent(tripId, type, driverId);
+        event.setId(id);
+        return event;
+    }
+
+    private Trip trip(Long id, TripStatus status) {
+        Trip trip = new Trip();
+        trip.setId(id);
+        trip.setUser(rider);
+        trip.setDriver(driver);
+        trip.setPickupLocation("Pickup");
+        trip.setDestination("Destination");
+        trip.setRequestedVehicleType(VehicleType.SEDAN);
+        trip.setStatus(status);
+        return trip;
+    }
+
+    private static Driver driver(Long id, User user) {
+        Driver driver = new Driver();
+        driver.setId(id);
+        driver.setUser(user);
+        driver.setVehicleType(VehicleType.SEDAN);
+        return driver;
+    }
+
+    private static User user(Long id, String username, UserRole role) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setRole(role);
+        return user;
+    }
+}
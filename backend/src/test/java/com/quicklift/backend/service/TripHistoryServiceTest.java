@@ -0,0 +1,77 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.dto.TripHistoryItem;
+import com.quicklift.backend.dto.TripHistoryPage;
+import com.quicklift.backend.model.TripStatus;
+import com.quicklift.backend.model.VehicleType;
+import com.quicklift.backend.repository.TripRepository;
+import com.quicklift.backend.util.TripHistoryCursor;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TripHistoryServiceTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 5, 1, 9, 0);
+
+    @Mock
+    private TripRepository tripRepository;
+
+    private TripHistoryService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TripHistoryService(tripRepository, 2, 3);
+    }
+
+    @Test
+    void fullPageHandsBackTheCursorOfItsLastRow() {
+        when(tripRepository.findUserHistory(7L, PageRequest.of(0, 3))).thenReturn(List.of(item(30), item(20), item(10)));
+
+        TripHistoryPage page = service.forUser(7L, null, null);
+
+        assertThat(page.getItems()).extracting(TripHistoryItem::getId).containsExactly(30L, 20L);
+        assertThat(TripHistoryCursor.decode(page.getNextCursor())).isEqualTo(new TripHistoryCursor(BASE.plusMinutes(20), 20L));
+    }
+
+    @Test
+    void nextPageSeeksPastTheCursor() {
+        TripHistoryCursor cursor = new TripHistoryCursor(BASE.plusMinutes(20), 20L);
+        when(tripRepository.findDriverHistoryBefore(5L, cursor.requestedAt(), 20L, PageRequest.of(0, 3)))
+            .thenReturn(List.of(item(10)));
+
+        TripHistoryPage page = service.forDriver(5L, cursor.encode(), null);
+
+        assertThat(page.getItems()).extracting(TripHistoryItem::getId).containsExactly(10L);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void pageSizeIsCappedAndValidated() {
+        when(tripRepository.findHistory(PageRequest.of(0, 4))).thenReturn(List.of());
+
+        assertThat(service.all(null, 500).getItems()).isEmpty();
+        assertThatThrownBy(() -> service.all(null, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void malformedCursorIsRejectedBeforeQuerying() {
+        assertThatThrownBy(() -> service.forUser(7L, "bogus", 2)).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(tripRepository);
+    }
+
+    private static TripHistoryItem item(long id) {
+        return new TripHistoryItem(id, TripStatus.COMPLETED, "Pickup", "Destination", VehicleType.SEDAN, null,
+            BASE.plusMinutes(id), null, null, null, null, "CASH");
+    }
+}
@@ -3,6 +3,7 @@ package com.quicklift.backend.service;
 import com.quicklift.backend.model.Driver;
 import com.quicklift.backend.model.DriverStatus;
 import com.quicklift.backend.model.Trip;
+import com.quicklift.backend.model.TripEventType;
 import com.quicklift.backend.model.TripStatus;
 import com.quicklift.backend.model.User;
 import com.quicklift.backend.model.UserRole;
@@ -14,13 +15,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -33,10 +35,13 @@ class TripServiceNotificationTest {
     private DriverRepository driverRepository;
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private TripEventOutbox tripEventOutbox;
 
     @Mock
-    private NotificationService notificationService;
+    private DriverStatsService driverStatsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     private TripService tripService;
 
@@ -45,8 +50,11 @@ class TripServiceNotificationTest {
         tripService = new TripService();
         ReflectionTestUtils.setField(tripService, "tripRepository", tripRepository);
         ReflectionTestUtils.setField(tripService, "driverRepository", driverRepository);
-        ReflectionTestUtils.setField(tripService, "messagingTemplate", messagingTemplate);
-        ReflectionTestUtils.setField(tripService, "notificationService", notificationService);
+        ReflectionTestUtils.setField(tripService, "tripEventOutbox", tripEventOutbox);
+        ReflectionTestUtils.setField(tripService, "driverLocationIndex", new DriverLocationIndex());
+        ReflectionTestUtils.setField(tripService, "openTripRequestBook", new OpenTripRequestBook());
+        ReflectionTestUtils.setField(tripService, "driverStatsService", driverStatsService);
+        ReflectionTestUtils.setField(tripService, "eventPublisher", eventPublisher);
     }
 
     @Test
@@ -62,16 +70,9 @@ class TripServiceNotificationTest {
 
         tripService.acceptTrip(11L, 2L);
 
-        verify(notificationService).create(
-            eq(rider),
-            eq("TRIP_ACCEPTED"),
-            eq("Ride accepted"),
-            any(),
-            eq("/trips/11/confirm"),
-            eq(11L)
-        );
-        verify(messagingTemplate).convertAndSend(eq("/topic/trip/11/status"), any(Object.class));
-        verify(messagingTemplate).convertAndSend(eq("/topic/driver/2/status"), any(Object.class));
+        // The rider's notification and the status messages are rendered by the relay after commit
+        verify(tripEventOutbox).append(trip, TripEventType.ACCEPTED, 2L);
+        verify(driverStatsService).tripAccepted(2L);
     }
 
     @Test
@@ -87,15 +88,35 @@ class TripServiceNotificationTest {
 
         tripService.requestExistingTripToDriver(11L, 2L, rider);
 
-        verify(notificationService).create(
-            eq(driverUser),
-            eq("RIDE_REQUEST"),
-            eq("New ride request"),
-            any(),
-            eq("/driver/pending-requests"),
-            eq(11L)
-        );
-        verify(messagingTemplate).convertAndSend(eq("/topic/driver/2/requests"), any(Object.class));
+        verify(tripEventOutbox).append(trip, TripEventType.RIDE_REQUESTED, 2L);
+    }
+
+    @Test
+    void cancellingAnAcceptedTripRecordsTheDriverForTheRelay() {
+        User rider = user(1L, "rider", UserRole.USER);
+        Driver driver = driver(2L, user(3L, "driver", UserRole.DRIVER));
+        Trip trip = trip(11L, rider);
+        trip.setDriver(driver);
+        trip.setStatus(TripStatus.ACCEPTED);
+
+        when(tripRepository.findByIdForUpdate(11L)).thenReturn(Optional.of(trip));
+        when(tripRepository.save(any(Trip.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        tripService.cancelTrip(11L);
+
+        verify(tripEventOutbox).append(trip, TripEventType.CANCELLED, 2L);
+        verify(eventPublisher).publishEvent(new TripDriverReleasedEvent(11L));
+    }
+
+    @Test
+    void failedTransitionsRecordNoEvent() {
+        Trip trip = trip(11L, user(1L, "rider", UserRole.USER));
+        when(tripRepository.findByIdForUpdate(11L)).thenReturn(Optional.of(trip));
+
+        assertThrows(IllegalStateException.class, () -> tripService.startTrip(11L));
+
+        verify(tripEventOutbox, never()).append(any(), any(), any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
     private static Trip trip(Long id, User user) {
@@ -10,16 +10,18 @@ import com.quicklift.backend.model.VehicleType;
 import com.quicklift.backend.repository.DriverRepository;
 import com.quicklift.backend.repository.TripRepository;
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.when;
 
@@ -32,10 +34,13 @@ class TripServiceStateValidationTest {
     private DriverRepository driverRepository;
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private TripEventOutbox tripEventOutbox;
 
     @Mock
-    private NotificationService notificationService;
+    private DriverStatsService driverStatsService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     private TripService tripService;
 
@@ -44,8 +49,11 @@ class TripServiceStateValidationTest {
         tripService = new TripService();
         ReflectionTestUtils.setField(tripService, "tripRepository", tripRepository);
         ReflectionTestUtils.setField(tripService, "driverRepository", driverRepository);
-        ReflectionTestUtils.setField(tripService, "messagingTemplate", messagingTemplate);
-        ReflectionTestUtils.setField(tripService, "notificationService", notificationService);
+        ReflectionTestUtils.setField(tripService, "tripEventOutbox", tripEventOutbox);
+        ReflectionTestUtils.setField(tripService, "driverLocationIndex", new DriverLocationIndex());
+        ReflectionTestUtils.setField(tripService, "openTripRequestBook", new OpenTripRequestBook());
+        ReflectionTestUtils.setField(tripService, "driverStatsService", driverStatsService);
+        ReflectionTestUtils.setField(tripService, "eventPublisher", eventPublisher);
     }
 
     @Test
@@ -115,6 +123,26 @@ class TripServiceStateValidationTest {
         assertThrows(IllegalStateException.class, () -> tripService.createTripForDriver(new com.quicklift.backend.dto.TripRequest(), user(1L, UserRole.USER), 2L));
     }
 
+    @Test
+    void nearestDriversAreRankedFromTheDatabaseWithClusterBroker() {
+        ReflectionTestUtils.setField(tripService, "brokerMode", "cluster");
+        ReflectionTestUtils.setField(tripService, "dispatchSearchRadiusKm", 5.0);
+        ReflectionTestUtils.setField(tripService, "dispatchCandidateLimit", 2);
+        Driver far = located(driver(2L, DriverStatus.ONLINE), "12.9900");
+        Driver near = located(driver(3L, DriverStatus.ONLINE), "12.9720");
+        Driver outOfRange = located(driver(4L, DriverStatus.ONLINE), "13.5000");
+        Driver unlocated = driver(5L, DriverStatus.ONLINE);
+        Driver nearer = located(driver(6L, DriverStatus.ONLINE), "12.9717");
+        when(driverRepository.findByVehicleTypeAndStatus(VehicleType.SEDAN, DriverStatus.ONLINE))
+            .thenReturn(List.of(far, near, outOfRange, unlocated, nearer));
+
+        // The local index is empty: another node accepted these drivers' status changes
+        List<Driver> nearest = tripService.findNearestAvailableDrivers(VehicleType.SEDAN,
+            new BigDecimal("12.9716"), new BigDecimal("77.5946"));
+
+        assertThat(nearest).extracting(Driver::getId).containsExactly(6L, 3L);
+    }
+
     private static Trip trip(Long id, TripStatus status, User user) {
         Trip trip = new Trip();
         trip.setId(id);
@@ -135,6 +163,12 @@ class TripServiceStateValidationTest {
         return driver;
     }
 
+    private static Driver located(Driver driver, String latitude) {
+        driver.setCurrentLatitude(new BigDecimal(latitude));
+        driver.setCurrentLongitude(new BigDecimal("77.5946"));
+        return driver;
+    }
+
     private static User user(Long id, UserRole role) {
         User user = new User();
         user.setId(id);
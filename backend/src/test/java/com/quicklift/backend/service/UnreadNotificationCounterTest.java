@@ -0,0 +1,94 @@
+package com.quicklift.backend.service;
+
+import com.quicklift.backend.dto.UnreadCountResponse;
+import com.quicklift.backend.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadNotificationCounterTest {
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private UnreadNotificationCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new UnreadNotificationCounter(notificationRepository, messagingTemplate, 600, 100, "simple");
+    }
+
+    @Test
+    void missIsLoadedOnceAndThenKeptInMemory() {
+        when(notificationRepository.countByUserIdAndReadFalse(7L)).thenReturn(3L);
+
+        assertThat(counter.get(7L)).isEqualTo(3L);
+        assertThat(counter.added(7L, 1)).isEqualTo(4L);
+        assertThat(counter.get(7L)).isEqualTo(4L);
+
+        verify(notificationRepository, times(1)).countByUserIdAndReadFalse(7L);
+    }
+
+    @Test
+    void uncachedUsersAreNotLoadedByWrites() {
+        assertThat(counter.added(7L, 1)).isNull();
+        counter.read(7L);
+
+        verify(notificationRepository, never()).countByUserIdAndReadFalse(anyLong());
+        verify(messagingTemplate, never()).convertAndSend(any(String.class), any(Object.class));
+    }
+
+    @Test
+    void readsDecrementWithoutGoingNegativeAndPushTheCount() {
+        when(notificationRepository.countByUserIdAndReadFalse(7L)).thenReturn(1L);
+        counter.get(7L);
+
+        counter.read(7L);
+        counter.read(7L);
+
+        assertThat(counter.get(7L)).isZero();
+        ArgumentCaptor<UnreadCountResponse> pushed = ArgumentCaptor.forClass(UnreadCountResponse.class);
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/user/7/notifications"), pushed.capture());
+        assertThat(pushed.getAllValues()).extracting(UnreadCountResponse::getUnreadCount).containsExactly(0L, 0L);
+    }
+
+    @Test
+    void multiNodeBrokerModesReadEveryCountFromTheDatabase() {
+        counter = new UnreadNotificationCounter(notificationRepository, messagingTemplate, 600, 100, "cluster");
+        when(notificationRepository.countByUserIdAndReadFalse(7L)).thenReturn(3L, 5L, 4L);
+
+        assertThat(counter.get(7L)).isEqualTo(3L);
+        assertThat(counter.added(7L, 1)).isNull();
+        assertThat(counter.get(7L)).isEqualTo(5L);
+        counter.read(7L);
+
+        ArgumentCaptor<UnreadCountResponse> pushed = ArgumentCaptor.forClass(UnreadCountResponse.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/user/7/notifications"), pushed.capture());
+        assertThat(pushed.getValue().getUnreadCount()).isEqualTo(4L);
+    }
+
+    @Test
+    void allReadResetsWithoutAQuery() {
+        counter.allRead(7L);
+
+        assertThat(counter.get(7L)).isZero();
+        verify(notificationRepository, never()).countByUserIdAndReadFalse(anyLong());
+        verify(messagingTemplate).convertAndSend(eq("/topic/user/7/notifications"), any(UnreadCountResponse.class));
+    }
+}
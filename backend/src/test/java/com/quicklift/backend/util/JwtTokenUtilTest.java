@@ -0,0 +1,57 @@
+package com.quicklift.backend.util;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtTokenUtilTest {
+    private static final String SECRET = "test-secret-key-for-quicklift-tests-change-is-not-needed-1234567890";
+
+    private final JwtTokenUtil jwtTokenUtil = new JwtTokenUtil();
+
+    @BeforeEach
+    void setUp() {
+        configure(jwtTokenUtil, SECRET, 900L);
+    }
+
+    @Test
+    void verifyParsesOnceAndServesRepeatsFromCache() {
+        String token = jwtTokenUtil.generateToken("alice", List.of("DRIVER"));
+
+        JwtTokenUtil.VerifiedToken first = jwtTokenUtil.verify(token).orElseThrow();
+        JwtTokenUtil.VerifiedToken second = jwtTokenUtil.verify(token).orElseThrow();
+
+        assertThat(first.username()).isEqualTo("alice");
+        assertThat(first.roles()).containsExactly("DRIVER");
+        assertThat(second).isSameAs(first);
+        assertThat(jwtTokenUtil.extractUsername(token)).isEqualTo("alice");
+        assertThat(jwtTokenUtil.validateToken(token)).isTrue();
+    }
+
+    @Test
+    void verifyRejectsForgedAndExpiredTokens() {
+        JwtTokenUtil other = new JwtTokenUtil();
+        configure(other, SECRET.replace('1', '2'), 900L);
+        String forged = other.generateToken("mallory", List.of("ADMIN"));
+        JwtTokenUtil expiredIssuer = new JwtTokenUtil();
+        configure(expiredIssuer, SECRET, -60L);
+        String expired = expiredIssuer.generateToken("alice", List.of("USER"));
+
+        assertThat(jwtTokenUtil.verify(forged)).isEmpty();
+        assertThat(jwtTokenUtil.verify(expired)).isEmpty();
+        assertThat(jwtTokenUtil.verify("not-a-jwt")).isEmpty();
+        assertThat(jwtTokenUtil.validateToken(expired)).isFalse();
+        assertThatThrownBy(() -> jwtTokenUtil.extractUsername(forged)).isInstanceOf(RuntimeException.class);
+    }
+
+    private static void configure(JwtTokenUtil util, String secret, long expirationSeconds) {
+        ReflectionTestUtils.setField(util, "secret", secret);
+        ReflectionTestUtils.setField(util, "accessTokenExpirationSeconds", expirationSeconds);
+        ReflectionTestUtils.setField(util, "verifiedCacheSize", 100L);
+        util.init();
+    }
+}
@@ -0,0 +1,71 @@
+package com.quicklift.backend.util;
+
+import com.quicklift.backend.util.LocationFrameCodec.Point;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocationFrameCodecTest {
+
+    @Test
+    void keyFrameRoundTripsAtMicroDegreePrecision() {
+        Point point = Point.of(12.9715987, 77.5945627, 1_700_000_000_123L, 181.57, 8.44);
+
+        byte[] frame = LocationFrameCodec.encodeKey(7, point);
+        Point decoded = LocationFrameCodec.decode(frame, null);
+
+        assertThat(frame).hasSize(LocationFrameCodec.KEY_FRAME_SIZE);
+        assertThat(LocationFrameCodec.sequence(frame)).isEqualTo(7);
+        assertThat(decoded).isEqualTo(point);
+        assertThat(decoded.latitude()).isEqualTo(12.971599);
+        assertThat(decoded.longitude()).isEqualTo(77.594563);
+        assertThat(decoded.heading()).isEqualTo(18157);
+        assertThat(decoded.speed()).isEqualTo(844);
+    }
+
+    @Test
+    void deltaFrameReproducesTheNextPointExactly() {
+        Point previous = Point.of(-33.865143, 151.209900, 1_000L, null, null);
+        Point next = Point.of(-33.865001, 151.209712, 2_050L, 359.99, 0.0);
+
+        assertThat(LocationFrameCodec.canDelta(previous, next)).isTrue();
+        byte[] frame = LocationFrameCodec.encodeDelta(65535, previous, next);
+
+        assertThat(frame).hasSize(LocationFrameCodec.DELTA_FRAME_SIZE);
+        assertThat(LocationFrameCodec.sequence(frame)).isEqualTo(65535);
+        assertThat(LocationFrameCodec.decode(frame, previous)).isEqualTo(next);
+        assertThat(previous.heading()).isEqualTo(LocationFrameCodec.UNKNOWN);
+    }
+
+    @Test
+    void largeJumpsAndLongGapsNeedAKeyFrame() {
+        Point previous = Point.of(12.0, 77.0, 0L, null, null);
+
+        assertThat(LocationFrameCodec.canDelta(previous, Point.of(12.04, 77.0, 1_000L, null, null))).isFalse();
+        assertThat(LocationFrameCodec.canDelta(previous, Point.of(12.0, 77.0, 70_000L, null, null))).isFalse();
+        assertThat(LocationFrameCodec.canDelta(previous, Point.of(12.0, 77.0, -1L, null, null))).isFalse();
+    }
+
+    @Test
+    void decoderSkipsDeltasAfterAGapUntilTheNextKeyFrame() {
+        Point p0 = Point.of(12.0, 77.0, 0L, null, null);
+        Point p1 = Point.of(12.0001, 77.0001, 1_000L, null, null);
+        Point p2 = Point.of(12.0002, 77.0002, 2_000L, null, null);
+        Point p3 = Point.of(12.0003, 77.0003, 3_000L, null, null);
+        LocationFrameCodec.Decoder decoder = new LocationFrameCodec.Decoder();
+
+        assertThat(decoder.accept(LocationFrameCodec.encodeDelta(4, p0, p1))).isNull();
+        assertThat(decoder.accept(LocationFrameCodec.encodeKey(5, p0))).isEqualTo(p0);
+        assertThat(decoder.accept(LocationFrameCodec.encodeDelta(6, p0, p1))).isEqualTo(p1);
+        // Frame 7 lost
+        assertThat(decoder.accept(LocationFrameCodec.encodeDelta(8, p2, p3))).isNull();
+        assertThat(decoder.accept(LocationFrameCodec.encodeKey(9, p3))).isEqualTo(p3);
+    }
+
+    @Test
+    void rejectsUnknownFrames() {
+        assertThatThrownBy(() -> LocationFrameCodec.decode(new byte[] {9, 0, 0}, null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,26 @@
+package com.quicklift.backend.util;
+
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TripHistoryCursorTest {
+    @Test
+    void roundTripsThroughTheOpaqueForm() {
+        TripHistoryCursor cursor = new TripHistoryCursor(LocalDateTime.of(2024, 5, 1, 9, 30, 15, 123_456_000), 42L);
+
+        String encoded = cursor.encode();
+
+        assertThat(encoded).doesNotContain("=", "/", "+");
+        assertThat(TripHistoryCursor.decode(encoded)).isEqualTo(cursor);
+    }
+
+    @Test
+    void rejectsTamperedCursors() {
+        assertThatThrownBy(() -> TripHistoryCursor.decode("not-a-cursor"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Invalid history cursor");
+    }
+}
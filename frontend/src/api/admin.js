@@ -11,8 +11,16 @@ export const adminAPI = {
     return response.data;
   },
 
-  getAllTrips: async () => {
-    const response = await api.get(`${API_PREFIX}/admin/trips`);
+  getTripStats: async () => {
+    const response = await api.get(`${API_PREFIX}/admin/trips/stats`);
+    return response.data;
+  },
+
+  getTripHistory: async (cursor, size) => {
+    const params = {};
+    if (cursor) params.cursor = cursor;
+    if (size) params.size = size;
+    const response = await api.get(`${API_PREFIX}/admin/trips/history`, { params });
     return response.data;
   },
 
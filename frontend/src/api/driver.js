@@ -33,6 +33,11 @@ export const driverAPI = {
     return response.data;
   },
 
+  getHistory: async (cursor) => {
+    const response = await api.get(`${API_PREFIX}/drivers/history`, { params: cursor ? { cursor } : {} });
+    return response.data;
+  },
+
   setStatus: async (status) => {
     const response = await api.post(`${API_PREFIX}/drivers/set-status`, null, {
       params: { status },
@@ -16,6 +16,11 @@ export const tripsAPI = {
     return response.data;
   },
 
+  getHistory: async (cursor) => {
+    const response = await api.get(`${API_PREFIX}/trips/history`, { params: cursor ? { cursor } : {} });
+    return response.data;
+  },
+
   getTripById: async (id) => {
     const response = await api.get(`${API_PREFIX}/trips/${id}`);
     return response.data;
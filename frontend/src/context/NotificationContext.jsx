@@ -56,9 +56,15 @@ export const NotificationProvider = ({ children }) => {
     client.onConnect = () => {
       client.subscribe(`/topic/user/${user.id}/notifications`, (message) => {
         try {
-          const notification = JSON.parse(message.body);
-          setNotifications((current) => [notification, ...current.filter((item) => item.id !== notification.id)]);
-          setUnreadCount((count) => count + (notification.read ? 0 : 1));
+          const payload = JSON.parse(message.body);
+          const pushedCount = typeof payload.unreadCount === 'number' ? payload.unreadCount : null;
+          if (payload.id == null) {
+            // Count-only update after notifications were read elsewhere
+            if (pushedCount !== null) setUnreadCount(pushedCount);
+            return;
+          }
+          setNotifications((current) => [payload, ...current.filter((item) => item.id !== payload.id)]);
+          setUnreadCount((count) => pushedCount ?? count + (payload.read ? 0 : 1));
         } catch {
           refresh();
         }
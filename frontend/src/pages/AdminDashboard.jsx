@@ -50,7 +50,8 @@ const AdminDashboard = () => {
   const navigate = useNavigate();
   const [users, setUsers] = useState([]);
   const [drivers, setDrivers] = useState([]);
-  const [trips, setTrips] = useState([]);
+  const [tripStats, setTripStats] = useState({ totalTrips: 0, completedTrips: 0, revenue: 0 });
+  const [recentTrips, setRecentTrips] = useState([]);
   const [isLoading, setIsLoading] = useState(true);
   const [selectedUserIds, setSelectedUserIds] = useState([]);
   const [selectedDriverIds, setSelectedDriverIds] = useState([]);
@@ -59,14 +60,16 @@ const AdminDashboard = () => {
     const fetchStats = async () => {
       setIsLoading(true);
       try {
-        const [users, drivers, trips] = await Promise.all([
+        const [users, drivers, tripStats, recentPage] = await Promise.all([
           adminAPI.getAllUsers(),
           adminAPI.getAllDrivers(),
-          adminAPI.getAllTrips(),
+          adminAPI.getTripStats(),
+          adminAPI.getTripHistory(null, 10),
         ]);
         setUsers(users);
         setDrivers(drivers);
-        setTrips(trips);
+        setTripStats(tripStats);
+        setRecentTrips(recentPage.items);
       } catch (err) {
         error('Failed to fetch admin statistics.');
       } finally {
@@ -78,12 +81,10 @@ const AdminDashboard = () => {
 
   const totalUsers = users.length;
   const totalDrivers = drivers.length;
-  const totalTrips = trips.length;
-  const completedTrips = trips.filter(t => t.status === 'COMPLETED').length;
+  const totalTrips = tripStats.totalTrips;
+  const completedTrips = tripStats.completedTrips;
   const activeDrivers = drivers.filter(d => d.status === 'ONLINE').length;
-  const totalRevenue = trips.reduce((sum, t) => sum + (t.fare || 0), 0);
-
-  const recentTrips = trips.slice(-10).reverse();
+  const totalRevenue = Number(tripStats.revenue || 0);
 
   const toggleUser = (id) => setSelectedUserIds((prev) => prev.includes(id) ? prev.filter(uid => uid !== id) : [...prev, id]);
   const selectAllUsers = () => { if (selectedUserIds.length === users.length) setSelectedUserIds([]); else setSelectedUserIds(users.map(u => u.id)); };
@@ -245,12 +246,12 @@ const AdminDashboard = () => {
         {/* Recent Trips */}
         <DataTable
           title="Recent Trips"
-          columns={['User', 'Driver', 'Status', 'Fare', 'Date']}
+          columns={['Pickup', 'Destination', 'Status', 'Fare', 'Date']}
           data={recentTrips}
           renderRow={(t, i) => (
             <tr key={t.id || i} className="hover:bg-surface-50 dark:hover:bg-surface-800/50 transition-colors">
-              <td className="px-4 py-3 text-sm font-medium text-surface-900 dark:text-white">{t.user?.username}</td>
-              <td className="px-4 py-3 text-sm text-surface-500 dark:text-surface-400">{t.driver?.user?.username || '—'}</td>
+              <td className="px-4 py-3 text-sm font-medium text-surface-900 dark:text-white">{t.pickupLocation}</td>
+              <td className="px-4 py-3 text-sm text-surface-500 dark:text-surface-400">{t.destination}</td>
               <td className="px-4 py-3"><span className={getStatusBadge(t.status)}>{t.status}</span></td>
               <td className="px-4 py-3 text-sm font-medium text-surface-900 dark:text-white">{t.fare ? `₹${t.fare}` : '—'}</td>
               <td className="px-4 py-3 text-sm text-surface-500 dark:text-surface-400">{t.requestedAt ? new Date(t.requestedAt).toLocaleString() : '—'}</td>
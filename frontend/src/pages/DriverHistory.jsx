@@ -7,15 +7,17 @@ import DriverTripHistoryList from '../components/DriverTripHistoryList';
 const DriverHistory = () => {
     const [trips, setTrips] = useState([]);
     const [isLoading, setIsLoading] = useState(true);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [isLoadingMore, setIsLoadingMore] = useState(false);
     const { error } = useToast();
 
     useEffect(() => {
         const fetchHistory = async () => {
             setIsLoading(true);
             try {
-                const fetchedTrips = await driverAPI.getMyTrips();
-                setTrips(fetchedTrips.filter(t => t.status === 'COMPLETED' || t.status === 'CANCELLED')
-                                     .sort((a,b) => new Date(b.requestedAt) - new Date(a.requestedAt)));
+                const page = await driverAPI.getHistory();
+                setTrips(page.items);
+                setNextCursor(page.nextCursor);
             } catch (err) {
                 error('Failed to fetch history.');
             } finally {
@@ -25,6 +27,19 @@ const DriverHistory = () => {
         fetchHistory();
     }, [error]);
 
+    const loadMore = async () => {
+        setIsLoadingMore(true);
+        try {
+            const page = await driverAPI.getHistory(nextCursor);
+            setTrips((current) => [...current, ...page.items]);
+            setNextCursor(page.nextCursor);
+        } catch (err) {
+            error('Failed to fetch history.');
+        } finally {
+            setIsLoadingMore(false);
+        }
+    };
+
     return (
         <>
             <DriverHeader />
@@ -42,6 +57,11 @@ const DriverHistory = () => {
                     ) : (
                         <div className="animate-fade-in-up">
                             <DriverTripHistoryList trips={trips} />
+                            {nextCursor && (
+                                <button type="button" onClick={loadMore} disabled={isLoadingMore} className="btn-secondary w-full mt-4">
+                                    {isLoadingMore ? 'Loading...' : 'Load more'}
+                                </button>
+                            )}
                         </div>
                     )}
                 </div>
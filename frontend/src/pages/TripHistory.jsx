@@ -8,14 +8,17 @@ import UserHeader from '../components/Header';
 const TripHistory = () => {
     const [trips, setTrips] = useState([]);
     const [isLoading, setIsLoading] = useState(true);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [isLoadingMore, setIsLoadingMore] = useState(false);
     const { error } = useToast();
 
     useEffect(() => {
         const fetchTrips = async () => {
             setIsLoading(true);
             try {
-                const fetchedTrips = await tripsAPI.getMyTrips();
-                setTrips(fetchedTrips.sort((a, b) => new Date(b.requestedAt) - new Date(a.requestedAt)));
+                const page = await tripsAPI.getHistory();
+                setTrips(page.items);
+                setNextCursor(page.nextCursor);
             } catch (err) {
                 error('Failed to fetch trip history.');
             } finally {
@@ -24,6 +27,19 @@ const TripHistory = () => {
         };
         fetchTrips();
     }, [error]);
+
+    const loadMore = async () => {
+        setIsLoadingMore(true);
+        try {
+            const page = await tripsAPI.getHistory(nextCursor);
+            setTrips((current) => [...current, ...page.items]);
+            setNextCursor(page.nextCursor);
+        } catch (err) {
+            error('Failed to fetch trip history.');
+        } finally {
+            setIsLoadingMore(false);
+        }
+    };
     
     const getStatusBadge = (status) => {
         switch (status) {
@@ -104,6 +120,11 @@ const TripHistory = () => {
                                     </div>
                                 </div>
                             ))}
+                            {nextCursor && (
+                                <button type="button" onClick={loadMore} disabled={isLoadingMore} className="btn-secondary w-full">
+                                    {isLoadingMore ? 'Loading...' : 'Load more'}
+                                </button>
+                            )}
                         </div>
                     )}
                 </div>